@@ -0,0 +1,61 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.ScriptedInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap allocated by the steady-state game loop and by restarting a level, on the headless backend.
+ * Read the {@code gc.alloc.rate.norm} column of the gc profiler (enabled by the build): once warmed up,
+ * both a tick and a restart should allocate 0 bytes per operation, because slimes and keys come from
+ * pools and the per-tick paths reuse their buffers. {@code ./gradlew :benchmarks:checkAllocations} runs
+ * this benchmark and fails if either allocates a byte per operation or more.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationBenchmark {
+    private static final int TICKS = GameSimulation.DEFAULT_TICKS_PER_SECOND;
+
+    @Param({"1", "4"})
+    public int level;
+
+    private GameSimulation simulation;
+    private ScriptedInput input;
+
+    @Setup
+    public void setUp() {
+        HeadlessGame.start();
+        input = new ScriptedInput();
+        simulation = HeadlessGame.loadLevel(Gdx.files.internal("level-" + level + ".properties"), input);
+        simulation.getPlayer().addLives(HeadlessGame.IMMORTAL_LIVES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulation.dispose();
+        simulation.getPlayer().dispose();
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public long tick() {
+        HeadlessGame.wander(simulation, input, TICKS);
+        return simulation.getTickCount();
+    }
+
+    @Benchmark
+    public GameSimulation restart() {
+        simulation.getPlayer().reset();
+        simulation.restart();
+        return simulation;
+    }
+}
@@ -0,0 +1,115 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.MazeLoader;
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of moving a crowd of mobs through the walls of level 4 with each {@link CollisionEngine}:
+ * the Box2D world with a body per mob, and the tile collider that sweeps every mob against the wall
+ * bitmap. The mobs follow a flow field whose target switches between two far apart cells every few
+ * seconds, so they keep running along corridors and into corners instead of coming to rest. Steering
+ * is the same for both engines and part of the score, the difference is the collision work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionEngineBenchmark {
+    private static final float TICK = 1f / GameSimulation.DEFAULT_TICKS_PER_SECOND;
+    private static final int TICKS_PER_TARGET = 4 * GameSimulation.DEFAULT_TICKS_PER_SECOND;
+
+    @Param({"1", "100", "10000"})
+    public int entities;
+
+    @Param({"BOX2D", "TILE_GRID"})
+    public CollisionEngine.Type engine;
+
+    private MapGrid grid;
+    private CollisionEngine collisions;
+    private MobStore mobs;
+    private final FlowField[] fields = new FlowField[2];
+    private final float[] targetX = new float[2];
+    private final float[] targetY = new float[2];
+    private int tick;
+
+    @Setup
+    public void setUp() throws IOException {
+        HeadlessGame.start();
+        try (InputStream in = Gdx.files.internal("level-4.properties").read()) {
+            grid = new MapGridParser().parse(in);
+        }
+        collisions = engine.create();
+        collisions.addWalls(MazeLoader.bakeWalls(grid), GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE);
+
+        // Targets in the first and the last free cell of the level
+        int first = 0;
+        while (grid.isWall(grid.xOf(first), grid.yOf(first))) {
+            first++;
+        }
+        int last = grid.getWidth() * grid.getHeight() - 1;
+        while (grid.isWall(grid.xOf(last), grid.yOf(last))) {
+            last--;
+        }
+        int[] targets = {first, last};
+        for (int i = 0; i < 2; i++) {
+            fields[i] = new FlowField(grid);
+            fields[i].rebuild(grid.xOf(targets[i]), grid.yOf(targets[i]));
+            targetX[i] = grid.xOf(targets[i]) * GameSimulation.TILE_SIZE;
+            targetY[i] = grid.yOf(targets[i]) * GameSimulation.TILE_SIZE;
+        }
+
+        mobs = new MobStore(entities);
+        mobs.setBehaviour(Float.MAX_VALUE, Slime.SPEED, 0f); // Everyone chases, nobody attacks
+    }
+
+    /**
+     * Spreads the mobs over the free cells again, since they gather at the targets while the benchmark runs.
+     */
+    @Setup(Level.Iteration)
+    public void spawn() {
+        Random random = new Random(3);
+        mobs.clear();
+        while (mobs.size() < entities) {
+            int x = random.nextInt(grid.getWidth());
+            int y = random.nextInt(grid.getHeight());
+            if (!grid.isWall(x, y)) {
+                mobs.spawn(0, x * GameSimulation.TILE_SIZE, y * GameSimulation.TILE_SIZE);
+            }
+        }
+        collisions.placeMobs(mobs);
+        collisions.settle();
+        tick = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        collisions.dispose();
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    public MobStore tick() {
+        int target = tick++ / TICKS_PER_TARGET & 1;
+        mobs.setFlowField(fields[target], GameSimulation.TILE_SIZE);
+        mobs.steer(0, mobs.size(), TICK, targetX[target], targetY[target]);
+        collisions.move(null, Collections.emptyList(), mobs, TICK);
+        return mobs;
+    }
+}
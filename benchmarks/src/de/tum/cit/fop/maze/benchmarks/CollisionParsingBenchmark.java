@@ -0,0 +1,64 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.MazeLoader;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.physics.PhysicsWorld;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps of turning the wall cells of a level grid into wall bodies, for every shipped level:
+ * merging the cells into rectangles, and creating one static body per rectangle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionParsingBenchmark {
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int level;
+
+    private MapGrid grid;
+    private CollisionBaker.Result walls;
+
+    @Setup
+    public void setUp() throws IOException {
+        HeadlessGame.start();
+        try (InputStream in = Gdx.files.internal(ShippedLevels.grid(level)).read()) {
+            grid = new MapGridParser().parse(in);
+        }
+        walls = MazeLoader.bakeWalls(grid);
+    }
+
+    @TearDown
+    public void tearDown() {
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    public CollisionBaker.Result bakeWalls() {
+        return MazeLoader.bakeWalls(grid);
+    }
+
+    @Benchmark
+    public int createWallBodies() {
+        World world = new World(new Vector2(0, 0), true);
+        PhysicsWorld.createWallBodies(world, walls, GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE);
+        int bodies = world.getBodyCount();
+        world.dispose();
+        return bodies;
+    }
+}
@@ -0,0 +1,31 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.map.generator.EllerGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to stream a 10001x10001 tile maze (5000x5000 cells) with Eller's algorithm. Only one row is
+ * in memory at a time, so this runs in the default heap although the maze alone would take 100 MB.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx64m")
+public class EllerStreamingBenchmark {
+    private static final int CELLS_PER_SIDE = 5000;
+
+    private final EllerGenerator generator = new EllerGenerator();
+    private final MazeGeneratorBenchmark.CountingSink sink = new MazeGeneratorBenchmark.CountingSink();
+    private long seed;
+
+    @Benchmark
+    public int generate() throws IOException {
+        generator.generate(CELLS_PER_SIDE, CELLS_PER_SIDE, seed++, sink);
+        return sink.passages;
+    }
+}
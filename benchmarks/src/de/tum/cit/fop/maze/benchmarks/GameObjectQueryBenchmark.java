@@ -0,0 +1,82 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.game.objects.GameState;
+import de.tum.cit.fop.maze.game.objects.Key;
+import de.tum.cit.fop.maze.game.objects.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-tick queries of the collectables: the AABB test of {@link Key#checkCollision} against the player
+ * for every key, and looking up in the {@link GameState} which keys, lives and power-ups were collected.
+ * The score is the time for all of them; change their number with {@code -p entities=...}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameObjectQueryBenchmark {
+    private static final float AREA = 1000; // Side of the square the keys are spread over
+
+    @Param({"1", "100", "10000"})
+    public int entities;
+
+    private Player player;
+    private Key[] keys;
+    private GameState gameState;
+
+    @Setup
+    public void setUp() {
+        HeadlessGame.start();
+        Random random = new Random(9);
+        player = new Player(AREA / 2, AREA / 2, 32, 32, null);
+        keys = new Key[entities];
+        for (int i = 0; i < entities; i++) {
+            keys[i] = new Key(random.nextFloat() * AREA, random.nextFloat() * AREA, 128, 32, "assets/keyIcons.png", i);
+        }
+        gameState = new GameState(entities, entities, entities);
+        for (int i = 0; i < entities; i++) {
+            if (random.nextBoolean()) {
+                gameState.collectKey(i);
+                gameState.markLifeCollected(i);
+                gameState.markPowerUpCollected(i);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Key key : keys) {
+            key.dispose();
+        }
+        player.dispose();
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    public int keyCollisions() {
+        int hits = 0;
+        for (Key key : keys) {
+            if (key.checkCollision(player)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int gameStateLookups() {
+        int collected = 0;
+        for (int i = 0; i < entities; i++) {
+            if (gameState.isKeyCollected(i)) collected++;
+            if (gameState.isLifeCollected(i)) collected++;
+            if (gameState.isPowerUpCollected(i)) collected++;
+        }
+        return collected;
+    }
+}
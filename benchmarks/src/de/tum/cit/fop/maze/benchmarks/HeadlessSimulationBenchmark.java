@@ -0,0 +1,52 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.ScriptedInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated ticks per second of the complete game logic of each level, run on the headless backend.
+ * The score is in ticks per second; 60 is real time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeadlessSimulationBenchmark {
+    private static final int TICKS = GameSimulation.DEFAULT_TICKS_PER_SECOND;
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int level;
+
+    private GameSimulation simulation;
+    private ScriptedInput input;
+
+    @Setup
+    public void setUp() {
+        HeadlessGame.start();
+        input = new ScriptedInput();
+        // The level files are on the benchmark classpath
+        simulation = HeadlessGame.loadLevel(Gdx.files.internal("level-" + level + ".properties"), input);
+        simulation.getPlayer().addLives(HeadlessGame.IMMORTAL_LIVES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulation.dispose();
+        simulation.getPlayer().dispose();
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public long ticks() {
+        HeadlessGame.wander(simulation, input, TICKS);
+        return simulation.getTickCount();
+    }
+}
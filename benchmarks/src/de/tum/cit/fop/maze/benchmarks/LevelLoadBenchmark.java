@@ -0,0 +1,64 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.MazeLoader;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.map.CompiledLevel;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading every shipped level the two ways {@link MazeLoader#load} can: from the .tmx map and the
+ * level-N.properties file, with the walls baked from the grid, or from the compiled blob that holds
+ * the same grid, walls and layers. Neither variant includes creating bodies or GPU work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelLoadBenchmark {
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int level;
+
+    @Param({"text", "compiled"})
+    public String format;
+
+    private final TmxMapLoader mapLoader = new TmxMapLoader();
+    private final MapGridParser gridParser = new MapGridParser();
+
+    @Setup
+    public void setUp() {
+        HeadlessGame.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    public Object load() throws IOException {
+        if (format.equals("compiled")) {
+            return MazeLoader.readCompiled(ShippedLevels.compiled(level), ShippedLevels.tmx(level), ShippedLevels.grid(level));
+        }
+        TiledMap map = mapLoader.load(ShippedLevels.tmx(level));
+        MapGrid grid;
+        try (InputStream in = Gdx.files.internal(ShippedLevels.grid(level)).read()) {
+            grid = gridParser.parse(in);
+        }
+        CollisionBaker.Result walls = MazeLoader.bakeWalls(grid);
+        map.dispose();
+        return walls;
+    }
+}
@@ -0,0 +1,86 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link MapGridParser} turns a level-N.properties text into a packed grid.
+ * The smallest size already covers a 1024x1024 grid, i.e. more than a million cells.
+ * Run with the gc profiler (enabled in benchmarks/build.gradle) to see the allocation rate:
+ * it should stay at the size of the resulting grid, i.e. about one byte per cell.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGridParserBenchmark {
+
+    @Param({"1024", "2048"})
+    public int size;
+
+    private byte[] levelText;
+    private ByteArrayInputStream levelStream;
+    private final MapGridParser parser = new MapGridParser();
+
+    @Setup
+    public void setUp() {
+        levelText = generateLevel(size, 42);
+        levelStream = new ByteArrayInputStream(levelText);
+        // Let the parser grow its scratch buffers once, as a level loader would after the first level
+        parser.parse(levelText, 0, levelText.length);
+    }
+
+    @Benchmark
+    public MapGrid parseBytes() {
+        return parser.parse(levelText, 0, levelText.length);
+    }
+
+    @Benchmark
+    public MapGrid parseStream() throws IOException {
+        levelStream.reset();
+        return parser.parse(levelStream);
+    }
+
+    /**
+     * Builds a properties text with walls around the border, random inner walls and a few
+     * of every other tile type, in the same x,y=type format as the shipped maps.
+     */
+    static byte[] generateLevel(int size, long seed) {
+        Random random = new Random(seed);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * size * 12);
+        StringBuilder line = new StringBuilder(16);
+        out.writeBytes(("Width=" + size + "\nHeight=" + size + "\n").getBytes(StandardCharsets.US_ASCII));
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int type;
+                if (x == 0 || y == 0 || x == size - 1 || y == size - 1) {
+                    type = MapGrid.WALL;
+                } else {
+                    int roll = random.nextInt(100);
+                    type = roll < 40 ? MapGrid.WALL : roll < 98 ? -1 : MapGrid.TRAP + random.nextInt(3);
+                }
+                if (type < 0) {
+                    continue;
+                }
+                line.setLength(0);
+                line.append(x).append(',').append(y).append('=').append(type).append('\n');
+                for (int i = 0; i < line.length(); i++) {
+                    out.write(line.charAt(i));
+                }
+            }
+        }
+        out.writeBytes("1,1=1\n".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(((size - 2) + "," + (size - 2) + "=2\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,76 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.map.generator.MazeAlgorithm;
+import de.tum.cit.fop.maze.game.map.generator.MazeGenerator;
+import de.tum.cit.fop.maze.game.map.generator.MazeRowSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation speed of the maze algorithms in cells per second, reported as the {@code cells}
+ * counter. The rows go to a sink that only looks at them, so writing files is not measured.
+ * {@link EllerStreamingBenchmark} covers mazes too large to hold in memory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class MazeGeneratorBenchmark {
+    @Param({"BACKTRACKER", "WILSON", "ELLER"})
+    public String algorithm;
+
+    @Param({"64", "512"})
+    public int cellsPerSide;
+
+    private MazeGenerator generator;
+    private final CountingSink sink = new CountingSink();
+    private long seed;
+
+    /**
+     * Counts the generated cells, reported by JMH as cells per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Cells {
+        public long cells;
+    }
+
+    @Setup
+    public void setUp() {
+        generator = MazeAlgorithm.valueOf(algorithm).create();
+    }
+
+    @Benchmark
+    public int generate(Cells counter) throws IOException {
+        generator.generate(cellsPerSide, cellsPerSide, seed++, sink);
+        counter.cells += (long) cellsPerSide * cellsPerSide;
+        return sink.passages;
+    }
+
+    /**
+     * Reads every row so the generator's work cannot be optimized away.
+     */
+    static class CountingSink implements MazeRowSink {
+        int passages;
+
+        @Override
+        public void begin(int width, int height) {
+            passages = 0;
+        }
+
+        @Override
+        public void row(int y, byte[] tiles) {
+            for (byte tile : tiles) {
+                passages += tile >>> 31;
+            }
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+}
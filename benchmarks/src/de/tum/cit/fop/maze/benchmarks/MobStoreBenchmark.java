@@ -0,0 +1,51 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one simulation step of {@link MobStore} on a single thread.
+ * A step has to stay well below 16.6 ms for 60 FPS; the mobs are spread with a constant density
+ * so the work per step grows only with the mob count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MobStoreBenchmark {
+
+    @Param({"1000", "50000", "200000"})
+    public int mobCount;
+
+    private MobStore mobs;
+    private float worldSize;
+    private float targetX, targetY;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        // One mob per 60x60 px, i.e. about nine mobs inside the chase radius of 100 px
+        worldSize = (float) Math.sqrt(mobCount) * 60f;
+        mobs = new MobStore(mobCount);
+        for (int i = 0; i < mobCount; i++) {
+            mobs.spawn(0, random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+        }
+        targetX = worldSize / 2;
+        targetY = worldSize / 2;
+    }
+
+    @Benchmark
+    public int update() {
+        // Let the target wander so the set of chasing mobs keeps changing
+        tick++;
+        targetX = worldSize / 2 + (float) Math.cos(tick * 0.01) * worldSize / 4;
+        targetY = worldSize / 2 + (float) Math.sin(tick * 0.01) * worldSize / 4;
+        return mobs.update(1f / 60f, targetX, targetY);
+    }
+}
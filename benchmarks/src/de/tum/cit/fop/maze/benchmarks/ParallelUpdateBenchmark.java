@@ -0,0 +1,70 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.events.EventBus;
+import de.tum.cit.fop.maze.game.objects.CommandBuffer;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.simulation.ParallelUpdate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One step of a mob crowd updated in batches by {@link ParallelUpdate} on a pool of the given number of
+ * threads, against the same batches on one thread. With enough cores the step time should shrink with
+ * the threads until memory bandwidth is the limit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelUpdateBenchmark {
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"10000", "200000"})
+    public int mobCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private MobStore mobs;
+    private ForkJoinPool pool;
+    private ParallelUpdate update;
+    private float targetX, targetY;
+    private final ParallelUpdate.Batch batch = this::updateMobs;
+    private final Player noPlayer = null; // Hits are not applied, the mobs only record them
+    private final EventBus events = new EventBus();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        float worldSize = (float) Math.sqrt(mobCount) * 60f;
+        mobs = new MobStore(mobCount);
+        for (int i = 0; i < mobCount; i++) {
+            mobs.spawn(0, random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+        }
+        targetX = worldSize / 2;
+        targetY = worldSize / 2;
+        pool = new ForkJoinPool(threads);
+        update = new ParallelUpdate(pool, BATCH_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public MobStore step() {
+        update.run(mobs.size(), batch, noPlayer, events);
+        return mobs;
+    }
+
+    private void updateMobs(int from, int to, CommandBuffer commands) {
+        mobs.update(from, to, 1f / 60f, targetX, targetY);
+    }
+}
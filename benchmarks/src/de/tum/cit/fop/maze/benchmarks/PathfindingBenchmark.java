@@ -0,0 +1,148 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.path.AStarSearch;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pathfinding on the level-4 grid (80x80 cells, the largest level).
+ * {@link #flowFieldTick} and {@link #aStarTick} compare the per-tick cost of steering
+ * {@link #agentCount} chasers with the shared flow field and with one budgeted A* search per chaser.
+ * In both, the player enters a new cell every tick, which is the worst case for either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathfindingBenchmark {
+    private static final int QUERIES = 256;
+    private static final int FLOW_FIELD_BUDGET = 1024;
+
+    @Param({"60", "1000"})
+    public int agentCount;
+
+    private MapGrid grid;
+    private FlowField flowField;
+    private int[] freeCells;
+    private int[] agentCells;
+    private int[] queryStarts, queryGoals;
+    private AStarSearch search;
+    private AStarSearch[] agentSearches;
+    private int tick;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = PathfindingBenchmark.class.getResourceAsStream("/level-4.properties")) {
+            if (in == null) {
+                throw new IOException("level-4.properties is not on the classpath");
+            }
+            grid = new MapGridParser().parse(in);
+        }
+        int width = grid.getWidth();
+
+        // Pick the free cells connected to the player's start so that every query has a path
+        FlowField reachability = new FlowField(grid);
+        reachability.rebuild(6, 6);
+        int count = 0;
+        int[] cells = new int[width * grid.getHeight()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (reachability.getDistance(cell % width, cell / width) != FlowField.UNREACHABLE) {
+                cells[count++] = cell;
+            }
+        }
+        freeCells = Arrays.copyOf(cells, count);
+
+        Random random = new Random(11);
+        agentCells = new int[agentCount];
+        agentSearches = new AStarSearch[agentCount];
+        for (int i = 0; i < agentCount; i++) {
+            agentCells[i] = freeCells[random.nextInt(count)];
+            agentSearches[i] = new AStarSearch(grid);
+        }
+        queryStarts = new int[QUERIES];
+        queryGoals = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryStarts[i] = freeCells[random.nextInt(count)];
+            queryGoals[i] = freeCells[random.nextInt(count)];
+        }
+
+        flowField = new FlowField(grid);
+        search = new AStarSearch(grid);
+    }
+
+    /**
+     * Complete rebuild of the flow field, as after the player entered a new cell.
+     */
+    @Benchmark
+    public int flowFieldRebuild() {
+        int target = freeCells[tick++ % freeCells.length];
+        flowField.rebuild(target % grid.getWidth(), target / grid.getWidth());
+        return flowField.getTargetCell();
+    }
+
+    /**
+     * One tick of the game: the player changes cell, the field continues rebuilding within
+     * its budget and every agent looks up its next cell.
+     */
+    @Benchmark
+    public int flowFieldTick() {
+        int width = grid.getWidth();
+        int target = freeCells[tick++ % freeCells.length];
+        flowField.update(target % width, target / width, FLOW_FIELD_BUDGET);
+        int moving = 0;
+        for (int i = 0; i < agentCount; i++) {
+            if (flowField.nextCell(agentCells[i] % width, agentCells[i] / width) != FlowField.NONE) {
+                moving++;
+            }
+        }
+        return moving;
+    }
+
+    /**
+     * One tick with a budgeted A* search per agent towards a player that changes cell.
+     */
+    @Benchmark
+    public int aStarTick() {
+        int width = grid.getWidth();
+        int target = freeCells[tick++ % freeCells.length];
+        int found = 0;
+        for (int i = 0; i < agentCount; i++) {
+            AStarSearch agentSearch = agentSearches[i];
+            if (agentSearch.getGoalCell() != target || agentSearch.getStatus() == AStarSearch.Status.IDLE) {
+                agentSearch.start(agentCells[i] % width, agentCells[i] / width, target % width, target / width);
+            }
+            if (agentSearch.step(Slime.PATH_BUDGET) == AStarSearch.Status.FOUND) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Complete A* searches between random reachable cells.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int aStarPath() {
+        int width = grid.getWidth();
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            search.start(queryStarts[i] % width, queryStarts[i] / width, queryGoals[i] % width, queryGoals[i] / width);
+            if (search.step(Integer.MAX_VALUE) == AStarSearch.Status.FOUND) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
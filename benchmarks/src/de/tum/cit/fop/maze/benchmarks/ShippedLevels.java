@@ -0,0 +1,23 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+/**
+ * Paths of the levels that ship with the game, as the game screen opens them. They are relative to the
+ * assets or benchmarks folder, so benchmarks read the files in the repository rather than copies on the
+ * classpath; the .tmx maps find their tile set and image through the same relative paths.
+ */
+final class ShippedLevels {
+    private ShippedLevels() {
+    }
+
+    static String tmx(int level) {
+        return "../assets/level" + level + "-" + level + ".tmx";
+    }
+
+    static String grid(int level) {
+        return "../maps/level-" + level + ".properties";
+    }
+
+    static String compiled(int level) {
+        return "../maps/level-" + level + ".mzl";
+    }
+}
@@ -0,0 +1,96 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.HeadlessGame;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of {@link Slime#update} for a crowd of slimes chasing the player on level 4, either along the
+ * shared flow field or straight at the player. The slimes start inside the chase radius, so each of them
+ * does the pursuit math every tick. The score is the time of one tick for all slimes; change the crowd
+ * with {@code -p entities=...}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlimePursuitBenchmark {
+    private static final float TICK = 1f / GameSimulation.DEFAULT_TICKS_PER_SECOND;
+
+    @Param({"1", "100", "10000"})
+    public int entities;
+
+    @Param({"true", "false"})
+    public boolean flowField;
+
+    private Player player;
+    private Slime[] slimes;
+
+    @Setup
+    public void setUp() throws IOException {
+        HeadlessGame.start();
+        player = new Player(100, 100, 32, 32, null);
+
+        FlowField field = null;
+        if (flowField) {
+            MapGrid grid;
+            try (InputStream in = Gdx.files.internal("level-4.properties").read()) {
+                grid = new MapGridParser().parse(in);
+            }
+            field = new FlowField(grid);
+            field.rebuild(FlowField.toCell(player.getX(), GameSimulation.TILE_SIZE),
+                    FlowField.toCell(player.getY(), GameSimulation.TILE_SIZE));
+        }
+        slimes = new Slime[entities];
+        for (int i = 0; i < entities; i++) {
+            slimes[i] = new Slime(0, 0, player);
+            slimes[i].setFlowField(field, GameSimulation.TILE_SIZE);
+        }
+    }
+
+    /**
+     * Spreads the slimes around the player again, since they gather on the player while the benchmark runs.
+     */
+    @Setup(Level.Iteration)
+    public void spawn() {
+        player.reset();
+        player.addLives(HeadlessGame.IMMORTAL_LIVES);
+        Random random = new Random(3);
+        for (Slime slime : slimes) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            float distance = Slime.ATTACK_RANGE + random.nextFloat() * (Slime.CHASE_RADIUS - Slime.ATTACK_RANGE * 2);
+            slime.spawn(player.getX() + (float) Math.cos(angle) * distance,
+                    player.getY() + (float) Math.sin(angle) * distance);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Slime slime : slimes) {
+            slime.dispose();
+        }
+        player.dispose();
+        HeadlessGame.stop();
+    }
+
+    @Benchmark
+    public Slime[] tick() {
+        for (Slime slime : slimes) {
+            slime.update(TICK);
+        }
+        return slimes;
+    }
+}
@@ -0,0 +1,128 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.game.spatial.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures incremental updates and proximity queries of {@link SpatialHash}.
+ * The world grows with the entity count so the density (about one 32x32 entity per 64x64 area)
+ * stays the same, like a bigger maze with the same amount of enemies per room.
+ * {@link #linearRadiusScan} is the per-object distance check the game used before, as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpatialHashBenchmark {
+    private static final float ENTITY_SIZE = 32f;
+    private static final float QUERY_RADIUS = 100f;
+    private static final int QUERIES = 256;
+
+    @Param({"10000", "100000"})
+    public int entityCount;
+
+    private SpatialHash<Integer> index;
+    private Integer[] ids;
+    private int[] handles;
+    private float[] xs, ys, vxs, vys;
+    private float[] queryX, queryY;
+    private float worldSize;
+    private final Array<Integer> out = new Array<>(false, 256);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        worldSize = (float) Math.sqrt(entityCount) * 64f;
+        index = new SpatialHash<>(128f, entityCount);
+        ids = new Integer[entityCount];
+        handles = new int[entityCount];
+        xs = new float[entityCount];
+        ys = new float[entityCount];
+        vxs = new float[entityCount];
+        vys = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            xs[i] = random.nextFloat() * worldSize;
+            ys[i] = random.nextFloat() * worldSize;
+            vxs[i] = (random.nextFloat() - 0.5f) * 100f;
+            vys[i] = (random.nextFloat() - 0.5f) * 100f;
+            ids[i] = i;
+            handles[i] = index.insert(ids[i], xs[i], ys[i], ENTITY_SIZE, ENTITY_SIZE);
+        }
+        queryX = new float[QUERIES];
+        queryY = new float[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryX[i] = random.nextFloat() * worldSize;
+            queryY[i] = random.nextFloat() * worldSize;
+        }
+    }
+
+    /**
+     * One simulation step: every entity moves and updates its entry, as DynamicGameObject.update does.
+     */
+    @Benchmark
+    public int moveAll() {
+        float delta = 1f / 60f;
+        for (int i = 0; i < entityCount; i++) {
+            float x = xs[i] + vxs[i] * delta;
+            float y = ys[i] + vys[i] * delta;
+            if (x < 0 || x > worldSize) vxs[i] = -vxs[i];
+            if (y < 0 || y > worldSize) vys[i] = -vys[i];
+            xs[i] = x;
+            ys[i] = y;
+            index.move(handles[i], x, y, ENTITY_SIZE, ENTITY_SIZE);
+        }
+        return index.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int queryRadius() {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.queryRadius(queryX[i], queryY[i], QUERY_RADIUS, out);
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int queryAabb() {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.queryAabb(queryX[i], queryY[i], ENTITY_SIZE, ENTITY_SIZE, out);
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int linearRadiusScan() {
+        int found = 0;
+        float radiusSquared = QUERY_RADIUS * QUERY_RADIUS;
+        for (int q = 0; q < QUERIES; q++) {
+            for (int i = 0; i < entityCount; i++) {
+                float dx = xs[i] - queryX[q];
+                float dy = ys[i] - queryY[q];
+                if (dx * dx + dy * dy < radiusSquared) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int removeAndInsert() {
+        for (int i = 0; i < entityCount; i++) {
+            index.remove(handles[i]);
+            handles[i] = index.insert(ids[i], xs[i], ys[i], ENTITY_SIZE, ENTITY_SIZE);
+        }
+        return index.size();
+    }
+}
@@ -0,0 +1,113 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.spatial.TriggerSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of contact detection between moving actors and a level full of collectables, traps and exits.
+ * {@link #triggerSystem} finds the contacts through the broadphase of {@link TriggerSystem} and tells
+ * new, lasting and ended ones apart; {@link #pairwise} is the check of every actor against every
+ * trigger that a hand-written AABB test per object amounts to, as a baseline. The world grows with the
+ * trigger count, so the triggers per room stay the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TriggerSystemBenchmark {
+    private static final float TRIGGER_SIZE = 16f;
+    private static final float ACTOR_SIZE = 24f;
+
+    @Param({"1000", "10000", "100000"})
+    public int triggerCount;
+
+    @Param({"1", "64"})
+    public int actorCount;
+
+    private TriggerSystem<Integer> triggers;
+    private float[] triggerX, triggerY;
+    private float[] actorX, actorY, actorVX, actorVY;
+    private float worldSize;
+    private final Counter counter = new Counter();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        worldSize = (float) Math.sqrt(triggerCount) * 64f;
+        triggers = new TriggerSystem<>(64f, triggerCount);
+        triggerX = new float[triggerCount];
+        triggerY = new float[triggerCount];
+        for (int i = 0; i < triggerCount; i++) {
+            triggerX[i] = random.nextFloat() * worldSize;
+            triggerY[i] = random.nextFloat() * worldSize;
+            triggers.add(i, triggerX[i], triggerY[i], TRIGGER_SIZE, TRIGGER_SIZE);
+        }
+        actorX = new float[actorCount];
+        actorY = new float[actorCount];
+        actorVX = new float[actorCount];
+        actorVY = new float[actorCount];
+        for (int i = 0; i < actorCount; i++) {
+            actorX[i] = random.nextFloat() * worldSize;
+            actorY[i] = random.nextFloat() * worldSize;
+            actorVX[i] = (random.nextFloat() - 0.5f) * 200f;
+            actorVY[i] = (random.nextFloat() - 0.5f) * 200f;
+        }
+    }
+
+    @Benchmark
+    public int triggerSystem() {
+        moveActors();
+        for (int a = 0; a < actorCount; a++) {
+            triggers.overlap(a, actorX[a], actorY[a], ACTOR_SIZE, ACTOR_SIZE);
+        }
+        return triggers.update(counter) + counter.events;
+    }
+
+    @Benchmark
+    public int pairwise() {
+        moveActors();
+        int contacts = 0;
+        for (int a = 0; a < actorCount; a++) {
+            float x = actorX[a];
+            float y = actorY[a];
+            for (int t = 0; t < triggerCount; t++) {
+                if (triggerX[t] <= x + ACTOR_SIZE && triggerX[t] + TRIGGER_SIZE >= x
+                        && triggerY[t] <= y + ACTOR_SIZE && triggerY[t] + TRIGGER_SIZE >= y) {
+                    contacts++;
+                }
+            }
+        }
+        return contacts;
+    }
+
+    private void moveActors() {
+        float delta = 1f / 60f;
+        for (int i = 0; i < actorCount; i++) {
+            float x = actorX[i] + actorVX[i] * delta;
+            float y = actorY[i] + actorVY[i] * delta;
+            if (x < 0 || x > worldSize) actorVX[i] = -actorVX[i];
+            if (y < 0 || y > worldSize) actorVY[i] = -actorVY[i];
+            actorX[i] = x;
+            actorY[i] = y;
+        }
+    }
+
+    private static class Counter implements TriggerSystem.ContactHandler<Integer> {
+        private int events;
+
+        @Override
+        public void enter(int actor, Integer trigger) {
+            events++;
+        }
+
+        @Override
+        public void exit(int actor, Integer trigger) {
+            events++;
+        }
+    }
+}
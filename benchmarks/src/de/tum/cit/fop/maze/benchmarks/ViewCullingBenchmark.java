@@ -0,0 +1,70 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.render.ChunkGrid;
+import de.tum.cit.fop.maze.game.spatial.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of finding what to draw: the map chunks and the game objects inside the camera view.
+ * The maps grow from 20x20 to 1000x1000 tiles with one object per 8x8 tiles; the view has the size
+ * of the game camera. The time per frame should not depend on the map size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViewCullingBenchmark {
+    private static final int TILE_SIZE = 16;
+    private static final int CHUNK_TILES = 16;
+    private static final float VIEW_WIDTH = 448;
+    private static final float VIEW_HEIGHT = 240;
+    private static final int FRAMES = 256;
+
+    @Param({"20", "100", "1000"})
+    public int mapTiles;
+
+    private ChunkGrid chunks;
+    private SpatialHash<Integer> objects;
+    private float[] viewX, viewY;
+    private final IntArray visibleChunks = new IntArray();
+    private final Array<Integer> visibleObjects = new Array<>(false, 64);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        float mapSize = mapTiles * TILE_SIZE;
+        chunks = new ChunkGrid(mapTiles, mapTiles, TILE_SIZE, TILE_SIZE, CHUNK_TILES);
+
+        int objectCount = Math.max(1, mapTiles * mapTiles / 64);
+        objects = new SpatialHash<>(64f, objectCount);
+        Integer id = 0;
+        for (int i = 0; i < objectCount; i++) {
+            objects.insert(id, random.nextFloat() * mapSize, random.nextFloat() * mapSize, 32, 32);
+        }
+
+        viewX = new float[FRAMES];
+        viewY = new float[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            viewX[i] = random.nextFloat() * Math.max(0, mapSize - VIEW_WIDTH);
+            viewY[i] = random.nextFloat() * Math.max(0, mapSize - VIEW_HEIGHT);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int cullFrame() {
+        int found = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            found += chunks.visibleChunks(viewX[i], viewY[i], VIEW_WIDTH, VIEW_HEIGHT, visibleChunks);
+            found += objects.queryAabb(viewX[i], viewY[i], VIEW_WIDTH, VIEW_HEIGHT, visibleObjects);
+        }
+        return found;
+    }
+}
@@ -3,23 +3,40 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ScreenUtils;
+import de.tum.cit.fop.maze.game.events.EventBus;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.metrics.CsvMetricsWriter;
+import de.tum.cit.fop.maze.game.metrics.FrameEvent;
+import de.tum.cit.fop.maze.game.metrics.MetricsOverlay;
+import de.tum.cit.fop.maze.game.metrics.MetricsRegistry;
 import de.tum.cit.fop.maze.game.objects.*;
-
-import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.physics.PhysicsWorld;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
+import de.tum.cit.fop.maze.game.render.SnapshotExchange;
+import de.tum.cit.fop.maze.game.replay.ReplayLog;
+import de.tum.cit.fop.maze.game.replay.ReplayRecorder;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
+import de.tum.cit.fop.maze.game.simulation.SampledInput;
+import de.tum.cit.fop.maze.game.simulation.SimulationThread;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
@@ -33,26 +50,69 @@ public class GameScreen implements Screen {
     private SpriteBatch batch;
     private TiledMap tiledMap;
     private OrthogonalTiledMapRenderer mapRenderer;
-    private World world;
-    public static final float PPM = 100f; // Use the same value in both classes
-    private Box2DDebugRenderer box2DDebugRenderer;
+    public static final float PPM = PhysicsWorld.PIXELS_PER_METER; // Same scale as the walls and bodies
+    public static final int TILE_SIZE = GameSimulation.TILE_SIZE;
 
     private float sinusInput = 0f;
-    private float stateTime = 0f;
 
     private MazeLoader mazeLoader; // Declare the MazeLoader object
-    // Maze-related fields
-    private List<Key> keys = new ArrayList<>();
-    private List<CollectableLives> lives = new ArrayList<>();
-    private List<CollectablePowerUp> powerUps = new ArrayList<>();
-    private GameState gameState;
+    private boolean levelLoaded;
 
-    // Player and slimes
+    // Game logic: world, player, slimes, mobs, keys and game state
     private final Player player;
-    private final List<Slime> slimes;
+    private final GameSimulation simulation;
+
+    // The game logic runs on its own thread; frames draw the newest snapshot of it
+    private final SimulationThread simulationThread;
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+    private final SampledInput input = new SampledInput(ReplayLog.PLAYER_KEYS);
+    private long lastTick;
+    private long lastTickNanos;
+    private long lastPhysicsNanos;
+    private int lastVisibleObjects;
+
+    // Render statistics of the last frame
+    private final GLProfiler glProfiler;
+    private int lastDrawCalls;
+    private int lastTextureBindings;
+
+    // Frame metrics, shown on screen with F3 and recorded to a CSV file with F4
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Timer updateTimer;
+    private final MetricsRegistry.Timer physicsTimer;
+    private final MetricsRegistry.Timer mapRenderTimer;
+    private final MetricsRegistry.Timer entityRenderTimer;
+    private final MetricsRegistry.Timer hudTimer;
+    private final MetricsRegistry.Counter drawCallCounter;
+    private final MetricsRegistry.Counter textureBindCounter;
+    private final MetricsRegistry.Counter bodyCounter;
+    private final MetricsRegistry.Counter entityCounter;
+    private final MetricsRegistry.Counter visibleCounter;
+    private final MetricsRegistry.Counter chunkCounter;
+    private final MetricsOverlay metricsOverlay;
+    private final Matrix4 screenProjection = new Matrix4();
+    private boolean showMetrics = false;
+    private CsvMetricsWriter metricsRecording;
+
+    // Hearts and keys of the last drawn snapshot, the text is only rebuilt when they change
+    private int hudHearts = -1;
+    private int hudKeys = -1;
+    private String hudText = "";
+
+    // Input replay recorded with F5, played back by the ReplayLauncher
+    private ReplayRecorder replayRecording;
+
+    // The game state is saved on the simulation thread, which owns it, whenever an event changed it.
+    // Events arrive inside a tick, so the save is queued to run after it instead of writing right away
+    private final Runnable save;
+    private final Runnable queueSave;
+    private boolean saveQueued; // Only touched by the simulation thread
+
+    // The level played, this can be changed dynamically later for level selection
+    private final int level = 2;
 
     // Game flags
-    private static boolean gameOver = false;
+    private static volatile boolean gameOver = false; // Set on the simulation thread
     private int indexForKey = 0;
 
     /**
@@ -64,8 +124,6 @@ public class GameScreen implements Screen {
     public GameScreen(MazeRunnerGame game, Player player) {
         this.game = game;
         this.player = player;
-        this.box2DDebugRenderer = new Box2DDebugRenderer();
-        world = new World(new Vector2(0, 0), false);
 
         // Initialize camera
         camera = new OrthographicCamera();
@@ -77,25 +135,73 @@ public GameScreen(MazeRunnerGame game, Player player) {
 
 
 
-        // Initialize player
-        this.player.setPosition(100, 100);
+        // Initialize player, slimes and the game state retrieved from the game
+        this.simulation = new GameSimulation(player, game.getGameState(), ForkJoinPool.commonPool(),
+                CollisionEngine.Type.BOX2D, game.getTicksPerSecond());
+        this.simulationThread = new SimulationThread(simulation, snapshots);
+        this.save = () -> {
+            saveQueued = false;
+            game.getSaveJournal().save(simulation.getGameState());
+        };
+        this.queueSave = () -> {
+            if (!saveQueued) {
+                saveQueued = true;
+                simulationThread.execute(save);
+            }
+        };
+        EventBus events = simulation.getEvents();
+        events.keyCollected.addListener(collected -> queueSave.run());
+        events.powerUpActivated.addListener(activated -> queueSave.run());
+        events.levelExit.addListener(exit -> queueSave.run());
+
+        glProfiler = new GLProfiler(Gdx.graphics);
+
+        metrics = game.getMetrics();
+        updateTimer = metrics.timer("update"); // Ticks run on the simulation thread, includes the physics steps
+        physicsTimer = metrics.timer("physics");
+        mapRenderTimer = metrics.timer("mapRender");
+        entityRenderTimer = metrics.timer("entityRender");
+        hudTimer = metrics.timer("hud");
+        drawCallCounter = metrics.counter("drawCalls");
+        textureBindCounter = metrics.counter("textureBinds");
+        bodyCounter = metrics.counter("bodies");
+        entityCounter = metrics.counter("entities");
+        visibleCounter = metrics.counter("visible");
+        chunkCounter = metrics.counter("chunks");
+        metricsOverlay = new MetricsOverlay(metrics);
+    }
 
-        // Initialize slimes
-        slimes = new ArrayList<>();
-        slimes.add(new Slime(200, 200, player));
-        slimes.add(new Slime(300, 400, player));
+    public World getWorld() {
+        return simulation.getWorld(); // Getter for the World instance
+    }
 
-        this.world = new World(new Vector2(0, 0), true);
+    public SpriteBatch getBatch() {
+        return batch;
+    }
 
-        // Initialize game state by retrieving it from the game
-        this.gameState = game.getGameState(); // Get the existing game state instance
+    /**
+     * Number of OpenGL draw calls issued during the last frame.
+     */
+    public int getLastDrawCalls() {
+        return lastDrawCalls;
     }
 
-    public World getWorld() {
-        return world; // Getter for the World instance
+    /**
+     * Number of texture bindings during the last frame.
+     */
+    public int getLastTextureBindings() {
+        return lastTextureBindings;
     }
 
 
+    public MapGrid getLevelGrid() {
+        return simulation.getLevelGrid();
+    }
+
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+
     public static void setGameOver(boolean state) {
         gameOver = state;
     }
@@ -107,58 +213,202 @@ public static void setGameOver(boolean state) {
      */
     @Override
     public void render(float delta) {
+        simulationThread.checkFailure();
         if (gameOver) {
             renderGameOverScreen(); // Game Over screen
             return; // Stop further execution
         }
 
-        float clampedDelta = Math.min(delta, 0.1f);
+        FrameEvent frameEvent = new FrameEvent(); // Shows the frame on a Flight Recorder timeline
+        frameEvent.begin();
 
+        input.sample(InputSource.GDX); // The simulation thread cannot read the keyboard itself
         ScreenUtils.clear(0, 0, 0, 1);// Clear the screen
 
+        mapRenderTimer.start();
         mazeLoader.render();
+        mapRenderTimer.stop();
 
         // Handle input for returning to the menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             game.goToMenu();
         }
-
-        camera.update();
-
-        // Update player and slimes
-        player.update(clampedDelta);
-        for (Slime slime : slimes) {
-            slime.update(clampedDelta);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            showMetrics = !showMetrics;
         }
-
-        // Check for player interaction with the key
-        if (!keys.get(indexForKey).isCollected() && keys.get(indexForKey).checkCollision(player)) {
-            keys.get(indexForKey).interact(player, gameState); // Pass the gameState to key interaction
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            toggleMetricsRecording();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            toggleReplayRecording();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F6)) {
+            toggleCollisionEngine();
         }
 
-        stateTime += clampedDelta;
+        camera.update();
 
+        // The newest tick of the simulation thread, and the tick time it spent since the last frame
+        RenderSnapshot snapshot = snapshots.acquire();
+        float alpha = simulationThread.getAlpha(snapshot);
+        int ticks = (int) (snapshot.getTick() - lastTick);
+        updateTimer.add(snapshot.getTickNanos() - lastTickNanos);
+        physicsTimer.add(snapshot.getPhysicsNanos() - lastPhysicsNanos);
+        lastTick = snapshot.getTick();
+        lastTickNanos = snapshot.getTickNanos();
+        lastPhysicsNanos = snapshot.getPhysicsNanos();
+
+        entityRenderTimer.start();
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
 
+        // Render the player, slimes, key and mobs inside the view, with a margin for sprites crossing its border
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        float viewX = camera.position.x - viewWidth / 2;
+        float viewY = camera.position.y - viewHeight / 2;
+        float margin = TILE_SIZE * 3;
+        lastVisibleObjects = snapshot.draw(batch, alpha, viewX, viewY, viewWidth, viewHeight, margin);
+        batch.flush();
+        entityRenderTimer.stop();
 
-        // Render the player
-        player.draw(batch);
+        // Render text
+        hudTimer.start();
+        font.draw(batch, "Press ESC to go to menu", camera.position.x + 320, camera.position.y + 410);
+        font.draw(batch, hudText(snapshot), camera.position.x + 320, camera.position.y + 390);
+        batch.end();
+        if (showMetrics) {
+            // In screen pixels, the world camera is too small for the text
+            batch.setProjectionMatrix(screenProjection.setToOrtho2D(0, 0,
+                    Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
+            batch.begin();
+            metricsOverlay.draw(batch, font, 10, Gdx.graphics.getHeight() - 10);
+            batch.end();
+        }
+        hudTimer.stop();
+
+        // The Box2D debug view reads the world while the simulation thread steps it, so it is not drawn
+
+        lastDrawCalls = glProfiler.getDrawCalls();
+        lastTextureBindings = glProfiler.getTextureBindings();
+        glProfiler.reset();
+
+        drawCallCounter.set(lastDrawCalls);
+        textureBindCounter.set(lastTextureBindings);
+        bodyCounter.set(snapshot.getBodies());
+        entityCounter.set(snapshot.getEntities());
+        visibleCounter.set(lastVisibleObjects);
+        chunkCounter.set(mazeLoader.getLastDrawnChunks());
+        metrics.endFrame((long) (delta * 1e9));
+
+        if (frameEvent.shouldCommit()) {
+            frameEvent.ticks = ticks;
+            frameEvent.drawCalls = lastDrawCalls;
+            frameEvent.textureBindings = lastTextureBindings;
+            frameEvent.visibleObjects = lastVisibleObjects;
+            frameEvent.commit();
+        }
+    }
 
-        // Render the slimes
-        for (Slime slime : slimes) {
-            slime.render(batch);
+    private String hudText(RenderSnapshot snapshot) {
+        if (snapshot.getHearts() != hudHearts || snapshot.getKeys() != hudKeys) {
+            hudHearts = snapshot.getHearts();
+            hudKeys = snapshot.getKeys();
+            hudText = "Hearts: " + hudHearts + "   Keys: " + hudKeys;
         }
+        return hudText;
+    }
 
-        // Render the key using GameState logic
-        keys.get(indexForKey).render(batch, gameState);
+    /**
+     * Starts writing the frame metrics to a metrics-&lt;time&gt;.csv file in the working directory,
+     * or stops and closes the file.
+     */
+    private void toggleMetricsRecording() {
+        if (metricsRecording == null) {
+            String fileName = "metrics-" + System.currentTimeMillis() + ".csv";
+            metricsRecording = new CsvMetricsWriter(Gdx.files.local(fileName).writer(false, "UTF-8"));
+            metrics.addSink(metricsRecording);
+            Gdx.app.log("Metrics", "Recording frames to " + fileName);
+        } else {
+            stopMetricsRecording();
+        }
+    }
 
-        // Render text
-        font.draw(batch, "Press ESC to go to menu", camera.position.x + 320, camera.position.y + 410);
+    private void stopMetricsRecording() {
+        if (metricsRecording == null) {
+            return;
+        }
+        metrics.removeSink(metricsRecording);
+        try {
+            metricsRecording.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not close the metrics file", e);
+        } finally {
+            metricsRecording = null;
+        }
+        Gdx.app.log("Metrics", "Recording stopped");
+    }
 
-        batch.end();
+    /**
+     * Restarts the level and records the input of every tick from then on, or stops recording and writes
+     * the replay to a replay-&lt;time&gt;.mzr file in the working directory.
+     */
+    private void toggleReplayRecording() {
+        if (replayRecording != null) {
+            stopReplayRecording();
+            return;
+        }
+        ReplayLog log = new ReplayLog(levelPaths()[1], 0, simulation.getTicksPerSecond());
+        ReplayRecorder recorder = new ReplayRecorder(input, log);
+        replayRecording = recorder;
+        gameOver = false;
+        simulationThread.execute(() -> {
+            // Earlier F6 presses have run by now, and further ones are ignored until the recording stops
+            recorder.getLog().setCollisionEngine(simulation.getCollisions().getType());
+            player.setInputSource(recorder);
+            simulation.setTickListener(recorder);
+            // A replay starts from the beginning of the level
+            player.reset();
+            simulation.restart();
+        });
+        Gdx.app.log("Replay", "Recording from the start of the level");
+    }
 
-        box2DDebugRenderer.render(world, camera.combined.scl(PPM));
+    /**
+     * Stops recording after the current tick and writes the replay from the simulation thread.
+     */
+    private void stopReplayRecording() {
+        if (replayRecording == null) {
+            return;
+        }
+        ReplayRecorder recorder = replayRecording;
+        replayRecording = null;
+        FileHandle file = Gdx.files.local("replay-" + System.currentTimeMillis() + ".mzr");
+        simulationThread.execute(() -> {
+            simulation.setTickListener(null);
+            player.setInputSource(input);
+            try (OutputStream out = file.write(false)) {
+                recorder.finish(simulation).write(out);
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Could not write the replay", e);
+            }
+            Gdx.app.log("Replay", "Recorded " + recorder.getLog().getTickCount() + " ticks to " + file.name());
+        });
+    }
+
+    /**
+     * Switches between the Box2D and the tile grid collision engine, between two ticks. Not while a replay
+     * is recorded, which is played back with a single engine.
+     */
+    private void toggleCollisionEngine() {
+        if (replayRecording != null) {
+            Gdx.app.log("Replay", "The collision engine cannot change while a replay is recorded");
+            return;
+        }
+        // Decided on the simulation thread, which owns the selection once the level is loaded
+        simulationThread.execute(() -> mazeLoader.setCollisionEngine(
+                mazeLoader.getCollisionEngine() == CollisionEngine.Type.BOX2D
+                        ? CollisionEngine.Type.TILE_GRID : CollisionEngine.Type.BOX2D));
     }
 
     public void renderGameOverScreen() {
@@ -185,39 +435,22 @@ public void renderGameOverScreen() {
         }
     }
 
-    //restart game is not working properly now after the player died, we need to fix it: it has something to do with Collectable lives and powerUps (both unfinished currently); also clear() method not working properly
     private void restartGame() {
         gameOver = false; // Reset Game Over state
-        player.reset(); // Reset player state
-
-        // Recreate the slimes
-        slimes.clear();
-        slimes.add(new Slime(200, 200, player));
-        slimes.add(new Slime(300, 400, player));
-
-        for (Key key : keys) {
-            key.dispose();
-        }
-
-        // Reset keys
-        //keys.clear(); //TODO: for each new game we should have cleared the keys, but right now whenever this method is called the game crashes. So I will solve it later
-        keys.add(new Key(500, 300, 128, 32, "assets/keyIcons.png", indexForKey)); // Add new keys
-        indexForKey++;
-        keys.add(new Key(1000, 500, 128, 32, "assets/keyIcons.png", indexForKey));
-
-        // Reset GameState
-        // Reinitialize the keysCollected array based on the number of keys
-        gameState = new GameState(keys.size(), lives.size(), powerUps.size());  // Create new GameState with correct number of keys
-        System.out.println("Game reset with " + keys.size() + " keys.");
-
-        // Optionally, reset the keysCollected array if needed (if you want to reset the collected status)
-        boolean[] newKeysCollected = new boolean[keys.size()];
+        simulationThread.execute(() -> {
+            player.reset(); // Reset player state
+            simulation.restart(); // Recreate slimes, keys and mobs
+            save.run(); // Nothing is collected anymore
+        });
     }
 
 
     @Override
     public void resize(int width, int height) {
         camera.setToOrtho(false);
+        if (mazeLoader != null) {
+            mazeLoader.resize(width, height);
+        }
     }
 
     @Override
@@ -228,56 +461,81 @@ public void pause() {
     public void resume() {
     }
 
-    @Override
-    public void show() {
-        batch = new SpriteBatch();
-        // Make sure to provide the width, height, and texturePath
+    /**
+     * Starts loading the level in the background. The screen must not be shown before
+     * {@link LevelLoad#update()} reported completion and {@link #finishLoading()} was called.
+     *
+     * @param assets  Decodes images and maps in the background.
+     * @param workers Runs the parsing and wall building.
+     * @return The running load.
+     */
+    public LevelLoad startLoading(AssetManager assets, ExecutorService workers) {
         mazeLoader = new MazeLoader(this); // Initialize MazeLoader
-        String currentLevel = "level1"; // This can be changed dynamically later for level selection
-
-        switch (currentLevel) {
-            case "level2":
-                tiledMap = mazeLoader.create("level2-2.tmx");
-                break;
-            case "level3":
-                tiledMap = mazeLoader.create("level3-3.tmx");
-                break;
-            case "level4":
-                tiledMap = mazeLoader.create("level4-4.tmx");
-                break;
-            case "level5":
-                tiledMap = mazeLoader.create("level5-5.tmx");
-                break;
-            default:
-                tiledMap = mazeLoader.create("level2-2.tmx");
-                break;
-        }
+        String[] paths = levelPaths();
+        return new LevelLoad(mazeLoader, assets, workers, paths[0], paths[1], paths[2]);
+    }
 
+    /**
+     * Places the objects of the loaded level. Called on the render thread once the load is done.
+     */
+    public void finishLoading() {
+        tiledMap = mazeLoader.getTiledMap();
         camera.setToOrtho(false, 448,240);
 
-        if (keys.isEmpty()) {
-            keys.add(new Key(500, 300, 128, 32, "assets/keyIcons.png", indexForKey));
-            indexForKey++;
-            keys.add(new Key(1000, 500, 128, 32, "assets/keyIcons.png", indexForKey));
+        simulation.loadLevel(mazeLoader.getGrid(), level);
+        levelLoaded = true;
+    }
+
+    /**
+     * The .tmx map, the properties file and the compiled blob of the current level.
+     */
+    private String[] levelPaths() {
+        switch (level) {
+            case 3:
+                return new String[]{"level3-3.tmx", "../maps/level-3.properties", "../maps/level-3.mzl"};
+            case 4:
+                return new String[]{"level4-4.tmx", "../maps/level-4.properties", "../maps/level-4.mzl"};
+            case 5:
+                return new String[]{"level5-5.tmx", "../maps/level-5.properties", "../maps/level-5.mzl"};
+            case 2:
+            default:
+                return new String[]{"level2-2.tmx", "../maps/level-2.properties", "../maps/level-2.mzl"};
+        }
+    }
+
+    @Override
+    public void show() {
+        glProfiler.enable();
+        batch = new SpriteBatch();
+        if (!levelLoaded) {
+            // Shown without a background load, load the level right here
+            mazeLoader = new MazeLoader(this);
+            String[] paths = levelPaths();
+            mazeLoader.load(paths[0], paths[1], paths[2]);
+            finishLoading();
         }
+        player.setInputSource(input);
+        simulationThread.start();
+        metrics.getGc().setSimulationThread(simulationThread.getThreadId());
     }
 
     @Override
     public void hide() {
+        stopReplayRecording(); // Runs when the simulation thread stops
+        simulationThread.stop();
+        metrics.getGc().setSimulationThread(-1);
+        player.setInputSource(InputSource.GDX);
+        glProfiler.disable();
+        stopMetricsRecording();
     }
 
     @Override
     public void dispose() {
-        if (player != null) {
-            player.dispose();
-        }
-        for (Slime slime : slimes) {
-            if (slime != null) {
-                slime.dispose();
-            }
-        }
-        for (Key key : keys) {
-            key.dispose();
+        // The player belongs to MazeRunnerGame and is reused by the next GameScreen
+        simulationThread.stop();
+        simulation.dispose();
+        if (mazeLoader != null) {
+            mazeLoader.dispose();
         }
         if (batch != null) {
             batch.dispose();
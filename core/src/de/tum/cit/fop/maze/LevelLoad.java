@@ -0,0 +1,185 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.map.CompiledLevel;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.metrics.LevelLoadEvent;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a level in the background while the current screen keeps rendering.
+ * Reading the level files and building the wall bodies from the grid run on a worker pool, images and the .tmx map
+ * are decoded by the {@link AssetManager} on its own thread. The render thread only calls
+ * {@link #update()} once per frame, which uploads the decoded images and, at the very end, bakes the
+ * map for drawing; both need OpenGL and are all that is left for it.
+ */
+public class LevelLoad {
+
+    /**
+     * The steps of a load, in order.
+     */
+    public enum Stage {
+        READING_LEVEL("Reading level"),
+        LOADING_IMAGES("Loading images"),
+        BUILDING_WALLS("Building walls"),
+        PREPARING_MAP("Preparing map"),
+        DONE("Ready");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final int UPLOAD_MILLIS = 8; // Time per frame the asset manager may block the render thread
+
+    // Images of the objects every level places, decoded in the background unless they are in the atlas
+    private static final String[] LEVEL_IMAGES = {"slime.png", "assets/keyIcons.png"};
+
+    private final MazeLoader mazeLoader;
+    private final AssetManager assets;
+    private final ExecutorService workers;
+    private final String tmxPath;
+    private final String gridPath;
+
+    private Stage stage = Stage.READING_LEVEL;
+    private final Future<CompiledLevel> compiledFuture;
+    private Future<MapGrid> gridFuture;
+    private Future<?> wallsFuture;
+    private CompiledLevel compiled;
+    private final LevelLoadEvent event = new LevelLoadEvent();
+
+    /**
+     * Starts loading. Prefers the compiled blob and falls back to the .tmx map and the properties file.
+     *
+     * @param mazeLoader   The loader of the game screen the level is for.
+     * @param assets       Decodes images and maps in the background.
+     * @param workers      Runs the parsing and wall building.
+     * @param tmxPath      The internal path of the .tmx map.
+     * @param gridPath     The internal path of the level-N.properties file.
+     * @param compiledPath The internal path of the compiled level.
+     */
+    public LevelLoad(MazeLoader mazeLoader, AssetManager assets, ExecutorService workers,
+                     String tmxPath, String gridPath, String compiledPath) {
+        this.mazeLoader = mazeLoader;
+        this.assets = assets;
+        this.workers = workers;
+        this.tmxPath = tmxPath;
+        this.gridPath = gridPath;
+
+        event.begin();
+        compiledFuture = workers.submit(() -> MazeLoader.readCompiled(compiledPath, tmxPath, gridPath));
+        for (String image : LEVEL_IMAGES) {
+            queueImage(image);
+        }
+    }
+
+    private void queueImage(String path) {
+        if (AssetCache.findAtlasRegion(path) != null || AssetCache.isTextureCached(path) || assets.contains(path)) {
+            return;
+        }
+        if (Gdx.files.internal(path).exists()) {
+            assets.load(path, Texture.class);
+        }
+    }
+
+    /**
+     * Advances the load. Call once per frame on the render thread.
+     *
+     * @return True once the level is completely loaded.
+     */
+    public boolean update() {
+        if (stage == Stage.READING_LEVEL && compiledFuture.isDone()) {
+            compiled = result(compiledFuture);
+            if (compiled != null) {
+                for (CompiledLevel.TileSet tileSet : compiled.getTileSets()) {
+                    queueImage(tileSet.getImage());
+                }
+                // The walls do not depend on any image, build them meanwhile
+                wallsFuture = workers.submit(() -> mazeLoader.addWalls(compiled.getCollisions(),
+                        GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE));
+            } else {
+                assets.load(tmxPath, TiledMap.class);
+                gridFuture = workers.submit(() -> {
+                    MapGrid grid = readGrid(gridPath);
+                    // Like those of a compiled level, the walls come from the grid and need no image
+                    mazeLoader.addWalls(MazeLoader.bakeWalls(grid),
+                            GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE);
+                    return grid;
+                });
+                wallsFuture = gridFuture;
+            }
+            stage = Stage.LOADING_IMAGES;
+        }
+
+        if (stage == Stage.LOADING_IMAGES && assets.update(UPLOAD_MILLIS)) {
+            stage = Stage.BUILDING_WALLS;
+        }
+
+        if (stage == Stage.BUILDING_WALLS && wallsFuture.isDone()) {
+            result(wallsFuture);
+            // Show the last stage for a frame before the one step that blocks the render thread
+            stage = Stage.PREPARING_MAP;
+        } else if (stage == Stage.PREPARING_MAP) {
+            if (compiled != null) {
+                mazeLoader.showCompiled(compiled);
+            } else {
+                mazeLoader.showMap(assets.get(tmxPath, TiledMap.class), result(gridFuture), assets, tmxPath);
+            }
+            stage = Stage.DONE;
+            event.map = tmxPath;
+            event.compiled = compiled != null;
+            event.background = true;
+            event.commit();
+        }
+        return stage == Stage.DONE;
+    }
+
+    /**
+     * Progress of the whole load from 0 to 1.
+     */
+    public float getProgress() {
+        float stageProgress = stage == Stage.LOADING_IMAGES ? assets.getProgress() : 0;
+        return (stage.ordinal() + stageProgress) / Stage.DONE.ordinal();
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    private static MapGrid readGrid(String filePath) throws IOException {
+        FileHandle file = Gdx.files.internal(filePath);
+        try (InputStream in = file.read()) {
+            return new MapGridParser().parse(in);
+        }
+    }
+
+    private <T> T result(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Could not load level " + tmxPath, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while loading a level", e);
+        }
+    }
+}
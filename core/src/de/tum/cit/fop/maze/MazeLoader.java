@@ -2,30 +2,63 @@
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapObjects;
 import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
 import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FitViewport;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.map.CompiledLevel;
+import de.tum.cit.fop.maze.game.map.LevelCompiler;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.metrics.CollisionBakeEvent;
+import de.tum.cit.fop.maze.game.metrics.LevelLoadEvent;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.physics.PhysicsWorld;
+import de.tum.cit.fop.maze.game.render.ChunkedMapRenderer;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 
 public class MazeLoader extends  ApplicationAdapter{
 
-    private static final float PPM = 23.5f;
+    private static final float PPM = PhysicsWorld.PIXELS_PER_METER; // Bodies of the game objects use the same scale
+    private static final int CHUNK_TILES = 16; // Tiles along each side of a cached map chunk
     TiledMap tiledMap;
-    OrthogonalTiledMapRenderer renderer;
+    ChunkedMapRenderer renderer;
     OrthographicCamera camera = new OrthographicCamera();
     FitViewport viewport;
     private GameScreen gameScreen;
+    private final MapGridParser gridParser = new MapGridParser();
+    private MapGrid grid;
+    private final CollisionBaker collisionBaker = new CollisionBaker();
+    private CollisionBaker.Result collisionStats;
+    private int wallTileWidth; // Tile size the walls were added with, to add them again to another engine
+    private int wallTileHeight;
+    private CollisionEngine.Type collisionEngine = CollisionEngine.Type.BOX2D;
+    private final Array<Texture> compiledTextures = new Array<>(); // Tile images of a compiled level
+    private AssetManager mapOwner; // Set if the map was loaded by an asset manager
+    private String mapPath;
+    private float[] worldVertices = new float[8]; // Polygon vertices scaled to the physics world, reused
 
     public MazeLoader(GameScreen gameScreen) {
         this.gameScreen = gameScreen;
@@ -35,17 +68,305 @@ public TiledMap create(String filePath){
         TmxMapLoader loader = new TmxMapLoader();
         tiledMap = loader.load(filePath);
         //parseMapObjects(tiledMap.getLayers().get("objects").getObjects());
-        parseTileCollisions();
-        renderer = new OrthogonalTiledMapRenderer(tiledMap);
+        useAtlasTiles();
+        createRenderer();
+        return tiledMap;
+    }
+
+    /**
+     * Loads a level from its compiled blob if there is a valid one, otherwise from the .tmx map and
+     * the properties file.
+     *
+     * @param tmxPath      The internal path of the .tmx map.
+     * @param gridPath     The internal path of the level-N.properties file.
+     * @param compiledPath The internal path of the blob written by the {@link LevelCompiler}.
+     * @return The map of the level.
+     */
+    public TiledMap load(String tmxPath, String gridPath, String compiledPath) {
+        LevelLoadEvent event = new LevelLoadEvent();
+        event.begin();
+        event.map = tmxPath;
+        event.compiled = loadCompiled(compiledPath, tmxPath, gridPath);
+        if (!event.compiled) {
+            loadGrid(gridPath);
+            addGridWalls();
+            create(tmxPath);
+        }
+        event.commit();
+        return tiledMap;
+    }
+
+    /**
+     * Fast path of {@link #load}: memory-maps the compiled level and builds the walls, grid and map
+     * from it, without parsing XML or text and without looking at the tiles for collisions.
+     *
+     * @return False if there is no usable blob, e.g. it is missing, of an older version or outdated.
+     */
+    public boolean loadCompiled(String filePath, String tmxPath, String gridPath) {
+        CompiledLevel level = readCompiled(filePath, tmxPath, gridPath);
+        if (level == null) {
+            return false;
+        }
+        addWalls(level.getCollisions(), GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE);
+        showCompiled(level);
+        return true;
+    }
+
+    /**
+     * Reads a compiled level. Touches neither the world nor OpenGL, so it may run on any thread.
+     *
+     * @param filePath The internal path of the blob.
+     * @param tmxPath  The internal path of the .tmx map it was compiled from.
+     * @param gridPath The internal path of the properties file it was compiled from.
+     * @return The level, or null if there is no usable blob, e.g. it is missing, of an older version or
+     * compiled from other sources than the current ones.
+     */
+    public static CompiledLevel readCompiled(String filePath, String tmxPath, String gridPath) {
+        FileHandle file = Gdx.files.internal(filePath);
+        if (!file.exists()) {
+            return null;
+        }
+        CompiledLevel level;
+        try {
+            // Only real files can be mapped, a blob inside a jar is read into memory
+            level = file.file().exists()
+                    ? CompiledLevel.map(file.file())
+                    : CompiledLevel.read(ByteBuffer.wrap(file.readBytes()));
+        } catch (IOException e) {
+            Gdx.app.error("MazeLoader", "Ignoring compiled level " + filePath, e);
+            return null;
+        }
+        long sourceHash = CompiledLevel.hashSources(Gdx.files.internal(tmxPath).readBytes(),
+                Gdx.files.internal(gridPath).readBytes());
+        if (level.getSourceHash() != sourceHash) {
+            Gdx.app.log("MazeLoader", "Ignoring outdated compiled level " + filePath + ", run compileLevels");
+            return null;
+        }
+        return level;
+    }
+
+    /**
+     * Merges the wall cells of a level grid into wall rectangles of {@link GameSimulation#TILE_SIZE}
+     * tiles. May run on any thread.
+     */
+    public static CollisionBaker.Result bakeWalls(MapGrid grid) {
+        return bakeWalls(new CollisionBaker(), grid);
+    }
+
+    private static CollisionBaker.Result bakeWalls(CollisionBaker baker, MapGrid grid) {
+        CollisionBakeEvent event = new CollisionBakeEvent();
+        event.begin();
+        CollisionBaker.Result walls = baker.bake(grid);
+        if (event.shouldCommit()) {
+            event.solidCells = walls.getSolidCells();
+            event.rectangles = walls.getRectCount();
+            event.commit();
+        }
+        return walls;
+    }
+
+    /**
+     * Adds the walls of the level to the collision engine of the game screen, which is switched to the
+     * selected type first. May run on a worker thread as long as the simulation does not tick at the
+     * same time.
+     *
+     * @param walls      The merged wall rectangles in tiles.
+     * @param tileWidth  The width of a tile in pixels.
+     * @param tileHeight The height of a tile in pixels.
+     */
+    public void addWalls(CollisionBaker.Result walls, int tileWidth, int tileHeight) {
+        collisionStats = walls;
+        wallTileWidth = tileWidth;
+        wallTileHeight = tileHeight;
+        gameScreen.getSimulation().setCollisionEngine(collisionEngine).addWalls(walls, tileWidth, tileHeight);
+    }
+
+    /**
+     * Selects the engine that stops the player, slimes and mobs at the walls. If the walls were already
+     * added, the simulation switches to the new engine right away, so this must then run on the thread
+     * that ticks the simulation.
+     */
+    public void setCollisionEngine(CollisionEngine.Type type) {
+        collisionEngine = type;
+        if (collisionStats != null && gameScreen.getSimulation().getCollisions().getType() != type) {
+            addWalls(collisionStats, wallTileWidth, wallTileHeight);
+            Gdx.app.log("MazeLoader", "Collision engine: " + type);
+        }
+    }
+
+    public CollisionEngine.Type getCollisionEngine() {
+        return collisionEngine;
+    }
+
+    /**
+     * Builds the map of a compiled level and bakes it for drawing. Must run on the render thread.
+     */
+    public void showCompiled(CompiledLevel level) {
+        grid = level.getGrid();
+        tiledMap = buildTiledMap(level);
+        createRenderer();
+    }
+
+    /**
+     * Uses a map that an asset manager has loaded and bakes it for drawing. Must run on the render thread.
+     * The map stays owned by the manager and is unloaded from it on {@link #dispose()}.
+     *
+     * @param map     The loaded map.
+     * @param grid    The grid of the level.
+     * @param manager The asset manager that loaded the map.
+     * @param path    The path the map was loaded under.
+     */
+    public void showMap(TiledMap map, MapGrid grid, AssetManager manager, String path) {
+        this.tiledMap = map;
+        this.grid = grid;
+        this.mapOwner = manager;
+        this.mapPath = path;
+        useAtlasTiles();
+        createRenderer();
+    }
+
+    /**
+     * Rebuilds the tile layers of a compiled level. Tile images come from the sprite atlas if they were
+     * packed into it, otherwise from the shared texture of the {@link AssetCache}.
+     */
+    private TiledMap buildTiledMap(CompiledLevel level) {
+        TiledMap map = new TiledMap();
+        map.getProperties().put("width", level.getMapWidth());
+        map.getProperties().put("height", level.getMapHeight());
+        map.getProperties().put("tilewidth", level.getTileWidth());
+        map.getProperties().put("tileheight", level.getTileHeight());
+
+        for (CompiledLevel.TileSet compiledSet : level.getTileSets()) {
+            TextureRegion image = AssetCache.getRegion(compiledSet.getImage());
+            compiledTextures.add(image.getTexture());
+            TiledMapTileSet tileSet = new TiledMapTileSet();
+            tileSet.setName(compiledSet.getName());
+            for (int i = 0; i < compiledSet.getTileCount(); i++) {
+                StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion(image,
+                        compiledSet.getRegionX(i), compiledSet.getRegionY(i),
+                        compiledSet.getRegionWidth(i), compiledSet.getRegionHeight(i)));
+                tile.setId(compiledSet.getId(i));
+                tileSet.putTile(tile.getId(), tile);
+            }
+            map.getTileSets().addTileSet(tileSet);
+        }
+
+        for (CompiledLevel.Layer compiledLayer : level.getLayers()) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(compiledLayer.getWidth(), compiledLayer.getHeight(),
+                    level.getTileWidth(), level.getTileHeight());
+            layer.setName(compiledLayer.getName());
+            layer.setOpacity(compiledLayer.getOpacity());
+            layer.setVisible(compiledLayer.isVisible());
+            for (int y = 0; y < compiledLayer.getHeight(); y++) {
+                for (int x = 0; x < compiledLayer.getWidth(); x++) {
+                    int value = compiledLayer.getCell(x, y);
+                    TiledMapTile tile = value == 0 ? null
+                            : map.getTileSets().getTile(value & CompiledLevel.TILE_ID_MASK);
+                    if (tile == null) continue;
+
+                    TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                    cell.setTile(tile);
+                    cell.setFlipHorizontally((value & CompiledLevel.FLIP_HORIZONTALLY) != 0);
+                    cell.setFlipVertically((value & CompiledLevel.FLIP_VERTICALLY) != 0);
+                    cell.setRotation((value >>> CompiledLevel.ROTATION_SHIFT) & 3);
+                    layer.setCell(x, y, cell);
+                }
+            }
+            map.getLayers().add(layer);
+        }
+        return map;
+    }
+
+    private void createRenderer() {
+        // Tiles never change, so they are baked once and only the visible chunks are drawn
+        renderer = new ChunkedMapRenderer(tiledMap, CHUNK_TILES);
         camera = new OrthographicCamera();
         camera.setToOrtho(false, 640, 640);
         viewport = new FitViewport(640, 640, camera);
+        viewport.update(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    /**
+     * Points the tiles of every tile set that was packed into the sprite atlas at the atlas,
+     * so the map is drawn from the same texture as the game objects.
+     */
+    private void useAtlasTiles() {
+        for (TiledMapTileSet tileSet : tiledMap.getTileSets()) {
+            TextureRegion packed = AssetCache.findAtlasRegion(tileSet.getName());
+            if (packed == null) continue;
+
+            for (TiledMapTile tile : tileSet) {
+                if (tile instanceof StaticTiledMapTile) {
+                    TextureRegion region = tile.getTextureRegion();
+                    tile.setTextureRegion(new TextureRegion(packed,
+                            region.getRegionX(), region.getRegionY(),
+                            region.getRegionWidth(), region.getRegionHeight()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the tile grid of a level from its maps/level-N.properties file.
+     *
+     * @param filePath The internal path of the properties file.
+     * @return The packed grid of the level.
+     */
+    public MapGrid loadGrid(String filePath) {
+        FileHandle file = Gdx.files.internal(filePath);
+        try (InputStream in = file.read()) {
+            grid = gridParser.parse(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not load level grid " + filePath, e);
+        }
+        return grid;
+    }
+
+    public MapGrid getGrid() {
+        return grid;
+    }
+
+    public TiledMap getTiledMap() {
         return tiledMap;
     }
+
     public void render(){
-        viewport.update(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        renderer.setView((OrthographicCamera) viewport.getCamera());
-        renderer.render();
+        viewport.apply();
+        renderer.render((OrthographicCamera) viewport.getCamera());
+    }
+
+    /**
+     * Fits the map viewport to a new window size.
+     */
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height);
+    }
+
+    /**
+     * Number of map chunks drawn in the last frame.
+     */
+    public int getLastDrawnChunks() {
+        return renderer.getLastDrawnChunks();
+    }
+
+    @Override
+    public void dispose() {
+        if (renderer != null) {
+            renderer.dispose();
+            renderer = null;
+        }
+        if (mapOwner != null) {
+            mapOwner.unload(mapPath);
+            mapOwner = null;
+        } else if (tiledMap != null) {
+            tiledMap.dispose();
+        }
+        tiledMap = null;
+        for (Texture texture : compiledTextures) {
+            AssetCache.releaseTexture(texture);
+        }
+        compiledTextures.clear();
     }
 
     /*private void parseMapObjects(MapObjects mapObjects){
@@ -56,37 +377,24 @@ public void render(){
         }
     }*/
 
-    private void parseTileCollisions() {
-        for (MapLayer layer : tiledMap.getLayers()) {
-            if (layer instanceof TiledMapTileLayer) {
-                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
-
-                for (int x = 0; x < tileLayer.getWidth(); x++) {
-                    for (int y = 0; y < tileLayer.getHeight(); y++) {
-                        TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
-                        if (cell == null || cell.getTile() == null) continue;
-
-                        TiledMapTile tile = cell.getTile();
-
-                        // Check if the tile has collision objects
-                        if (tile.getObjects().getCount() > 0) {
-                            BodyDef bodyDef = new BodyDef();
-                            bodyDef.type = BodyDef.BodyType.StaticBody;
-                            bodyDef.position.set((x + 0.5f) / PPM, (y + 0.5f) / PPM);
-                            Body body = gameScreen.getWorld().createBody(bodyDef);
-
-                            for (MapObject object : tile.getObjects()) {
-                                if (object instanceof PolygonMapObject) {
-                                    PolygonShape shape = (PolygonShape) createPolygonShape((PolygonMapObject) object);
-                                    body.createFixture(shape, 1.0f);
-                                    shape.dispose();
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    /**
+     * Creates the walls of the loaded grid.
+     * Neighbouring wall cells are merged into rectangles by the {@link CollisionBaker}, so each rectangle
+     * becomes one body with a single box fixture instead of one body per cell. The walls come from the
+     * grid rather than the .tmx map, like the paths of the slimes and the headless runs, so everything
+     * that stops or steers an object agrees on where the walls are.
+     */
+    private void addGridWalls() {
+        addWalls(bakeWalls(collisionBaker, grid), GameSimulation.TILE_SIZE, GameSimulation.TILE_SIZE);
+
+        Gdx.app.log("MazeLoader", "Collision bake: " + collisionStats);
+    }
+
+    /**
+     * Returns how the wall tiles of the current map were merged into bodies.
+     */
+    public CollisionBaker.Result getCollisionStats() {
+        return collisionStats;
     }
 
 
@@ -102,13 +410,14 @@ private void createStaticBody(PolygonMapObject polygonMapObject){
 
     private Shape createPolygonShape(PolygonMapObject polygonMapObject){
         float[] vertices = polygonMapObject.getPolygon().getTransformedVertices();
-        Vector2[] worldVertices = new Vector2[vertices.length/2];
-        for(int i = 0; i < vertices.length/2; i++){
-            Vector2 current = new Vector2(vertices[i*2] / PPM, vertices[i*2+1]/PPM);
-            worldVertices[i] = current;
+        if (worldVertices.length < vertices.length) {
+            worldVertices = new float[vertices.length];
+        }
+        for(int i = 0; i < vertices.length; i++){
+            worldVertices[i] = vertices[i] / PPM;
         }
         PolygonShape shape = new PolygonShape();
-        shape.set(worldVertices);
+        shape.set(worldVertices, 0, vertices.length);
         return shape;
 
     }
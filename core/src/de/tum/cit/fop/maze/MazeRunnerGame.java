@@ -2,23 +2,37 @@
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import de.tum.cit.fop.maze.com.game.utils.AnimationUtils;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.metrics.MetricsRegistry;
 import de.tum.cit.fop.maze.game.objects.GameState;
 import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.save.SaveJournal;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * The MazeRunnerGame class represents the core of the Maze Runner game.
  * It manages the screens and global resources like SpriteBatch and Skin.
  */
 public class MazeRunnerGame extends Game {
+    // Worker threads for parsing levels, the render thread and the asset manager's thread keep a core each
+    private static final int LOADING_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 2));
+
     // Screens
     private MenuScreen menuScreen;
     private GameScreen gameScreen;
@@ -33,19 +47,41 @@ public class MazeRunnerGame extends Game {
     private Player player;
 
     private GameState gameState;
+    private final int ticksPerSecond; // Rate of the game logic, independent of the frame rate
+    private SaveJournal saveJournal; // Collected items, saved incrementally while playing
+
+    // Frame timings and counters, kept across game screens so the history survives a restart
+    private final MetricsRegistry metrics = new MetricsRegistry();
 
     private Animation<TextureRegion> characterDownAnimation;
     private Animation<TextureRegion> characterRightAnimation;
     private Animation<TextureRegion> characterUpAnimation;
     private Animation<TextureRegion> characterLeftAnimation;
 
+    // Background level loading: images and maps through the asset manager, parsing on the workers
+    private AssetManager assetManager;
+    private ExecutorService loadingWorkers;
+    private LevelLoad levelLoad;
+    private GameScreen loadingGameScreen;
+
     /**
      * Constructor for MazeRunnerGame.
      *
      * @param fileChooser The file chooser for the game, typically used in desktop environment.
      */
     public MazeRunnerGame(NativeFileChooser fileChooser) {
+        this(fileChooser, GameSimulation.DEFAULT_TICKS_PER_SECOND);
+    }
+
+    /**
+     * Constructor for MazeRunnerGame.
+     *
+     * @param fileChooser    The file chooser for the game, typically used in desktop environment.
+     * @param ticksPerSecond The rate the game logic runs at.
+     */
+    public MazeRunnerGame(NativeFileChooser fileChooser, int ticksPerSecond) {
         super();
+        this.ticksPerSecond = ticksPerSecond;
     }
 
     /**
@@ -55,6 +91,15 @@ public MazeRunnerGame(NativeFileChooser fileChooser) {
     public void create() {
         spriteBatch = new SpriteBatch(); // Create SpriteBatch
         skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
+        AssetCache.loadAtlas(); // Use the packed sprite atlas if it has been built
+        assetManager = new AssetManager();
+        assetManager.setLoader(TiledMap.class, new TmxMapLoader());
+        AssetCache.setAssetManager(assetManager); // Images decoded in the background are used by the cache
+        loadingWorkers = Executors.newFixedThreadPool(LOADING_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "level-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.loadCharacterAnimation(); // Load character animation
 
         // Initialize the player object
@@ -69,31 +114,30 @@ public void create() {
         int numLives = 5;
         int numPowerups = 2;
         gameState = new GameState(numKeys, numLives, numPowerups);
-        System.out.println("GameState created: " + gameState);
+        saveJournal = new SaveJournal(Gdx.files.local("save.mzs").file());
+        saveJournal.open(gameState); // Restores what was collected in earlier sessions
+        Gdx.app.log("MazeRunnerGame", "Save loaded, " + gameState.count(GameState.KEYS) + " keys collected");
 
         goToMenu(); // Navigate to the menu screen
     }
 
 
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
     public GameState getGameState() {
         return gameState;
     }
 
+    public SaveJournal getSaveJournal() {
+        return saveJournal;
+    }
+
     public static Animation<TextureRegion> createAnimationFromRow(
             String filePath, int[][] frameData, float frameDuration) {
-        Texture spritesheet = new Texture(Gdx.files.internal(filePath));
-        TextureRegion[] frames = new TextureRegion[frameData.length];
-
-        // Extract frames manually based on the provided coordinates
-        for (int i = 0; i < frameData.length; i++) {
-            int x = frameData[i][0];
-            int y = frameData[i][1];
-            int width = frameData[i][2];
-            int height = frameData[i][3];
-            frames[i] = new TextureRegion(spritesheet, x, y, width, height);
-        }
-
-        return new Animation<>(frameDuration, frames);
+        // Frames are extracted from the shared sprite sheet in the AssetCache
+        return AnimationUtils.createAnimationFromCoordinates(filePath, frameData, frameDuration);
     }
 
 
@@ -101,7 +145,8 @@ public static Animation<TextureRegion> createAnimationFromRow(
      * Switches to the menu screen.
      */
     public void goToMenu() {
-        this.setScreen(new MenuScreen(this)); // Set the current screen to MenuScreen
+        menuScreen = new MenuScreen(this);
+        this.setScreen(menuScreen); // Set the current screen to MenuScreen
         if (gameScreen != null) {
             gameScreen.dispose(); // Dispose the game screen if it exists
             gameScreen = null;
@@ -109,21 +154,44 @@ public void goToMenu() {
     }
 
     /**
-     * Switches to the game screen.
+     * Starts loading the game screen in the background and switches to it once the level is loaded.
+     * The menu stays on screen meanwhile and shows the progress.
      */
     public void goToGame() {
-        this.setScreen(new GameScreen(this, player)); // Pass the player object to the GameScreen
+        if (levelLoad != null) {
+            return; // Already loading
+        }
+        loadingGameScreen = new GameScreen(this, player); // Pass the player object to the GameScreen
+        levelLoad = loadingGameScreen.startLoading(assetManager, loadingWorkers);
         if (menuScreen != null) {
-            menuScreen.dispose(); // Dispose the menu screen if it exists
-            menuScreen = null;
+            menuScreen.showLoading(levelLoad);
         }
     }
 
+    /**
+     * Advances a running level load, then renders the current screen.
+     */
+    @Override
+    public void render() {
+        if (levelLoad != null && levelLoad.update()) {
+            levelLoad = null;
+            gameScreen = loadingGameScreen;
+            loadingGameScreen = null;
+            gameScreen.finishLoading();
+            this.setScreen(gameScreen);
+            if (menuScreen != null) {
+                menuScreen.dispose(); // Dispose the menu screen if it exists
+                menuScreen = null;
+            }
+        }
+        super.render();
+    }
+
     /**
      * Loads the character animation from the character.png file.
      */
     private void loadCharacterAnimation() {
-        Texture characterTexture = new Texture(Gdx.files.internal("character.png"));
+        TextureRegion characterSheet = AssetCache.getRegion("character.png");
 
         int frameWidth = 68; // Adjust these values based on the sprite dimensions
         int frameHeight = 32;
@@ -131,7 +199,7 @@ private void loadCharacterAnimation() {
         int frameRows = 1; // Only 1 row for downward animation
 
         // Split the sprite sheet
-        TextureRegion[][] frames = TextureRegion.split(characterTexture, frameWidth, frameHeight);
+        TextureRegion[][] frames = characterSheet.split(frameWidth, frameHeight);
 
         // Extract frames for the downward animation
         Array<TextureRegion> walkFrames = new Array<>(frameCols);
@@ -150,8 +218,18 @@ private void loadCharacterAnimation() {
     public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
+        saveJournal.save(gameState); // Whatever changed since the last save
+        try {
+            saveJournal.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not close the save", e);
+        }
         spriteBatch.dispose(); // Dispose the spriteBatch
         skin.dispose(); // Dispose the skin
+        player.dispose(); // Dispose the player, it is shared by all game screens
+        AssetCache.disposeAll(); // Dispose the remaining shared textures
+        loadingWorkers.shutdownNow();
+        assetManager.dispose(); // Disposes the images and maps it loaded
     }
 
     // Getter methods
@@ -164,6 +242,10 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
 
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public Player getPlayer() {
         return player;
     }
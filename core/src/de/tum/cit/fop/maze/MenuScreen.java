@@ -11,10 +11,12 @@
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
 
 public class MenuScreen implements Screen {
 
@@ -26,13 +28,20 @@ public class MenuScreen implements Screen {
 
     private Music menuMusic;                              // Музыка для главного меню
 
+    // Progress of a level that is loading in the background
+    private final Table table;
+    private LevelLoad levelLoad;
+    private ProgressBar loadingBar;
+    private Label loadingLabel;
+    private LevelLoad.Stage shownStage;
+
     public MenuScreen(MazeRunnerGame game) {
         this.game = game;
 
         // Загружаем изображения
-        TextureRegion frame1 = new TextureRegion(new Texture("menuframe1.png"));
-        TextureRegion frame2 = new TextureRegion(new Texture("menuframe2.png"));
-        TextureRegion frame3 = new TextureRegion(new Texture("menuframe3.png"));
+        TextureRegion frame1 = new TextureRegion(AssetCache.getTexture("menuframe1.png"));
+        TextureRegion frame2 = new TextureRegion(AssetCache.getTexture("menuframe2.png"));
+        TextureRegion frame3 = new TextureRegion(AssetCache.getTexture("menuframe3.png"));
 
         // Создаем анимацию из кадров
         backgroundAnimation = new Animation<>(0.5f, frame1, frame2, frame3); // 0.5 секунд на кадр
@@ -45,7 +54,7 @@ public MenuScreen(MazeRunnerGame game) {
         stage = new Stage(new ScreenViewport(), game.getSpriteBatch());
 
         // Добавляем UI
-        Table table = new Table();
+        table = new Table();
         table.setFillParent(true);
         stage.addActor(table);
 
@@ -79,6 +88,17 @@ public void changed(ChangeEvent event, Actor actor) {
         });
     }
 
+    /**
+     * Shows the progress of a level load below the buttons until the game screen replaces the menu.
+     */
+    public void showLoading(LevelLoad load) {
+        levelLoad = load;
+        loadingBar = new ProgressBar(0, 1, 0.01f, false, game.getSkin());
+        loadingLabel = new Label(load.getStage().getDescription(), game.getSkin());
+        table.add(loadingBar).width(300).padTop(40).row();
+        table.add(loadingLabel).row();
+    }
+
     @Override
     public void show() {
         Gdx.input.setInputProcessor(stage);
@@ -103,6 +123,14 @@ public void render(float delta) {
 
         batch.end();
 
+        if (levelLoad != null) {
+            loadingBar.setValue(levelLoad.getProgress());
+            if (levelLoad.getStage() != shownStage) {
+                shownStage = levelLoad.getStage();
+                loadingLabel.setText(shownStage.getDescription());
+            }
+        }
+
         // Отрисовываем сцену
         stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
         stage.draw();
@@ -117,6 +145,9 @@ public void resize(int width, int height) {
     public void dispose() {
         stage.dispose();
         menuMusic.dispose(); // Освобождаем ресурсы музыки
+        for (TextureRegion frame : backgroundAnimation.getKeyFrames()) {
+            AssetCache.releaseTexture(frame.getTexture());
+        }
     }
 
     @Override
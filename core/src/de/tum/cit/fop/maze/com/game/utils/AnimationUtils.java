@@ -1,14 +1,16 @@
 package de.tum.cit.fop.maze.com.game.utils;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.tum.cit.fop.maze.game.metrics.AssetUploadEvent;
+
 import java.util.Arrays;
 
 public class AnimationUtils {
     /**
      * Creates and handles an Animation from manually specified frame coordinates.
+     * The animation is shared through the {@link AssetCache}; give it back with
+     * {@link AssetCache#releaseAnimation(Animation)} when it is no longer needed.
      *
      * @param filePath     The path to the sprite sheet file.
      * @param frameData    A 2D array specifying the frame coordinates: {x, y, width, height}.
@@ -17,7 +19,15 @@ public class AnimationUtils {
      */
     public static Animation<TextureRegion> createAnimationFromCoordinates(
             String filePath, int[][] frameData, float frameDuration) {
-        Texture spriteSheet = new Texture(Gdx.files.internal(filePath));
+        String key = filePath + "#" + Arrays.deepToString(frameData) + "@" + frameDuration;
+        Animation<TextureRegion> cached = AssetCache.findAnimation(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        AssetUploadEvent event = new AssetUploadEvent();
+        event.begin();
+        TextureRegion spriteSheet = AssetCache.getRegion(filePath);
         TextureRegion[] frames = new TextureRegion[frameData.length];
         for (int i = 0; i < frameData.length; i++) {
             int x = frameData[i][0];
@@ -26,7 +36,8 @@ public static Animation<TextureRegion> createAnimationFromCoordinates(
             int height = frameData[i][3];
             frames[i] = new TextureRegion(spriteSheet, x, y, width, height);
         }
-        return new Animation<>(frameDuration, frames);
+        commitAnimation(event, filePath);
+        return AssetCache.putAnimation(key, new Animation<>(frameDuration, frames), spriteSheet.getTexture());
     }
 
     /**
@@ -64,6 +75,7 @@ private static int sumFrames(int[][] rowData) {
 
     /**
      * Creates and handles an Animation from a specific row in a sprite sheet.
+     * Like {@link #createAnimationFromCoordinates}, the result is shared through the {@link AssetCache}.
      *
      * @param filePath     The path to the sprite sheet file.
      * @param frameCols    Total number of columns in the sprite sheet.
@@ -75,13 +87,6 @@ private static int sumFrames(int[][] rowData) {
      */
     public static Animation<TextureRegion> createAnimationFromRow(
             String filePath, int frameCols, int frameRows, int rowIndex, int frameCount, float frameDuration) {
-        Texture spriteSheet = new Texture(Gdx.files.internal(filePath));
-        TextureRegion[][] tmp = TextureRegion.split(
-                spriteSheet,
-                spriteSheet.getWidth() / frameCols,
-                spriteSheet.getHeight() / frameRows
-        );
-
         if (rowIndex < 0 || rowIndex >= frameRows) {
             throw new IllegalArgumentException("Row index out of bounds");
         }
@@ -89,11 +94,37 @@ public static Animation<TextureRegion> createAnimationFromRow(
             throw new IllegalArgumentException("Frame count exceeds available columns");
         }
 
+        String key = filePath + "#row:" + frameCols + "x" + frameRows + ":" + rowIndex + ":" + frameCount + "@" + frameDuration;
+        Animation<TextureRegion> cached = AssetCache.findAnimation(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        AssetUploadEvent event = new AssetUploadEvent();
+        event.begin();
+        TextureRegion spriteSheet = AssetCache.getRegion(filePath);
+        TextureRegion[][] tmp = spriteSheet.split(
+                spriteSheet.getRegionWidth() / frameCols,
+                spriteSheet.getRegionHeight() / frameRows
+        );
+
         TextureRegion[] rowFrames = new TextureRegion[frameCount];
         for (int i = 0; i < frameCount; i++) {
             rowFrames[i] = tmp[rowIndex][i];
         }
-        return new Animation<>(frameDuration, rowFrames);
+        commitAnimation(event, filePath);
+        return AssetCache.putAnimation(key, new Animation<>(frameDuration, rowFrames), spriteSheet.getTexture());
+    }
+
+    /**
+     * Records the creation of an animation that was not cached, including the upload of its sprite sheet.
+     */
+    private static void commitAnimation(AssetUploadEvent event, String filePath) {
+        if (event.shouldCommit()) {
+            event.path = filePath;
+            event.kind = AssetUploadEvent.ANIMATION;
+            event.commit();
+        }
     }
 }
 
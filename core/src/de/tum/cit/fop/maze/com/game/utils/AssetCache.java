@@ -0,0 +1,304 @@
+package de.tum.cit.fop.maze.com.game.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.tum.cit.fop.maze.game.metrics.AssetUploadEvent;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Reference-counted cache for textures and animations.
+ * Every texture path is uploaded to the GPU only once, no matter how many game objects use it;
+ * each {@code get} must be matched by a {@code release}, and the texture is disposed when the last
+ * user releases it. Animations are cached under a key that describes their frames, so all slimes
+ * share the same Animation instances. Must only be used from the render thread.
+ * <p>
+ * When the sprite atlas built by the {@code :core:packTextures} Gradle task is loaded, images are
+ * resolved to regions of that atlas instead, so everything drawn from it shares one texture and the
+ * SpriteBatch does not have to flush when switching between the player, slimes and keys.
+ * <p>
+ * Textures that an {@link AssetManager} set with {@link #setAssetManager} has already loaded in the
+ * background are taken from it instead of being decoded and uploaded again.
+ */
+public class AssetCache {
+
+    private static class TextureEntry {
+        final String path;
+        final Texture texture;
+        final long bytes;
+        final boolean managed; // Owned by the AssetManager, unloaded instead of disposed
+        int references;
+
+        TextureEntry(String path, Texture texture, long bytes, boolean managed) {
+            this.path = path;
+            this.texture = texture;
+            this.bytes = bytes;
+            this.managed = managed;
+        }
+    }
+
+    private static class AnimationEntry {
+        final String key;
+        final Animation<TextureRegion> animation;
+        final Texture texture;
+        int references;
+
+        AnimationEntry(String key, Animation<TextureRegion> animation, Texture texture) {
+            this.key = key;
+            this.animation = animation;
+            this.texture = texture;
+        }
+    }
+
+    private static final Map<String, TextureEntry> texturesByPath = new HashMap<>();
+    private static final Map<Texture, TextureEntry> texturesByInstance = new IdentityHashMap<>();
+    private static final Map<String, AnimationEntry> animationsByKey = new HashMap<>();
+    private static final Map<Animation<TextureRegion>, AnimationEntry> animationsByInstance = new IdentityHashMap<>();
+
+    // Packed sprite sheets, lives until disposeAll()
+    public static final String SPRITE_ATLAS = "sprites.atlas";
+    private static TextureAtlas atlas;
+
+    // Background loader whose finished textures are used instead of loading them again
+    private static AssetManager assetManager;
+
+    // Metrics
+    private static long textureUploads;
+    private static long vramBytes;
+
+    private AssetCache() {
+    }
+
+    /**
+     * Uses the textures the given manager has loaded. The cache takes over the manager's reference
+     * to such a texture and unloads it when its last user releases it.
+     *
+     * @param manager The asset manager, or null to load every texture directly.
+     */
+    public static void setAssetManager(AssetManager manager) {
+        assetManager = manager;
+    }
+
+    /**
+     * Loads the packed sprite atlas if it has been built. Without it, every image keeps its own texture.
+     *
+     * @return True if the atlas is available.
+     */
+    public static boolean loadAtlas() {
+        if (atlas == null && Gdx.files.internal(SPRITE_ATLAS).exists()) {
+            atlas = new TextureAtlas(Gdx.files.internal(SPRITE_ATLAS));
+            for (Texture texture : atlas.getTextures()) {
+                textureUploads++;
+                vramBytes += estimateBytes(texture);
+            }
+        }
+        return atlas != null;
+    }
+
+    /**
+     * Returns the atlas region packed from the given image, or null if there is none.
+     *
+     * @param name The file path of the image or the region name (file name without extension).
+     */
+    public static TextureAtlas.AtlasRegion findAtlasRegion(String name) {
+        if (atlas == null) {
+            return null;
+        }
+        int start = name.lastIndexOf('/') + 1;
+        int end = name.lastIndexOf('.');
+        return atlas.findRegion(end > start ? name.substring(start, end) : name.substring(start));
+    }
+
+    /**
+     * Returns a region covering a whole image: the packed atlas region if there is one,
+     * otherwise the full shared texture. Either way it must be given back with
+     * {@link #releaseTexture(Texture)} on {@code region.getTexture()}.
+     *
+     * @param path The internal path of the image.
+     */
+    public static TextureRegion getRegion(String path) {
+        TextureRegion region = findAtlasRegion(path);
+        if (region != null) {
+            return region;
+        }
+        return new TextureRegion(getTexture(path));
+    }
+
+    /**
+     * Returns the shared texture for an internal file path, loading it on first use.
+     *
+     * @param path The internal path of the image.
+     * @return The shared texture; release it with {@link #releaseTexture(Texture)}.
+     */
+    public static Texture getTexture(String path) {
+        TextureEntry entry = texturesByPath.get(path);
+        if (entry == null) {
+            AssetUploadEvent event = new AssetUploadEvent();
+            event.begin();
+            boolean managed = assetManager != null && assetManager.isLoaded(path, Texture.class);
+            Texture texture = managed ? assetManager.get(path, Texture.class) : new Texture(Gdx.files.internal(path));
+            entry = new TextureEntry(path, texture, estimateBytes(texture), managed);
+            if (!managed && event.shouldCommit()) {
+                // A managed texture was uploaded by the asset manager already
+                event.path = path;
+                event.kind = AssetUploadEvent.TEXTURE;
+                event.bytes = entry.bytes;
+                event.commit();
+            }
+            texturesByPath.put(path, entry);
+            texturesByInstance.put(texture, entry);
+            textureUploads++;
+            vramBytes += entry.bytes;
+        }
+        entry.references++;
+        return entry.texture;
+    }
+
+    /**
+     * Returns whether a texture for the path is currently held by the cache.
+     */
+    public static boolean isTextureCached(String path) {
+        return texturesByPath.containsKey(path);
+    }
+
+    /**
+     * Gives back a texture obtained from {@link #getTexture(String)}. Textures that are not managed
+     * by the cache, like the atlas pages, are ignored.
+     */
+    public static void releaseTexture(Texture texture) {
+        TextureEntry entry = texturesByInstance.get(texture);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.references <= 0) {
+            texturesByPath.remove(entry.path);
+            texturesByInstance.remove(texture);
+            vramBytes -= entry.bytes;
+            if (entry.managed) {
+                assetManager.unload(entry.path);
+            } else {
+                texture.dispose();
+            }
+        }
+    }
+
+    /**
+     * Looks up a cached animation and takes a reference to it.
+     *
+     * @param key The key describing the frames of the animation.
+     * @return The shared animation, or null if none is cached under this key.
+     */
+    public static Animation<TextureRegion> findAnimation(String key) {
+        AnimationEntry entry = animationsByKey.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.references++;
+        return entry.animation;
+    }
+
+    /**
+     * Stores a new animation with one reference. The animation keeps the reference on its
+     * texture that the caller took with {@link #getRegion(String)} and releases it once the
+     * animation itself is no longer used.
+     */
+    public static Animation<TextureRegion> putAnimation(String key, Animation<TextureRegion> animation, Texture texture) {
+        AnimationEntry entry = new AnimationEntry(key, animation, texture);
+        entry.references = 1;
+        animationsByKey.put(key, entry);
+        animationsByInstance.put(animation, entry);
+        return animation;
+    }
+
+    /**
+     * Gives back an animation obtained from {@link AnimationUtils}.
+     */
+    public static void releaseAnimation(Animation<TextureRegion> animation) {
+        AnimationEntry entry = animationsByInstance.get(animation);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.references <= 0) {
+            animationsByKey.remove(entry.key);
+            animationsByInstance.remove(animation);
+            releaseTexture(entry.texture);
+        }
+    }
+
+    /**
+     * Disposes every texture still held by the cache, regardless of its references.
+     * Textures of the asset manager are left to it.
+     */
+    public static void disposeAll() {
+        for (TextureEntry entry : texturesByPath.values()) {
+            if (!entry.managed) {
+                entry.texture.dispose();
+            }
+        }
+        texturesByPath.clear();
+        texturesByInstance.clear();
+        animationsByKey.clear();
+        animationsByInstance.clear();
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
+        }
+        vramBytes = 0;
+    }
+
+    /**
+     * Number of textures currently uploaded to the GPU through the cache, including the atlas pages.
+     */
+    public static int getTextureCount() {
+        return texturesByPath.size() + (atlas != null ? atlas.getTextures().size : 0);
+    }
+
+    /**
+     * Number of textures uploaded since start, including ones that were disposed again.
+     */
+    public static long getTextureUploads() {
+        return textureUploads;
+    }
+
+    /**
+     * Estimated video memory used by the cached textures in bytes.
+     */
+    public static long getVramBytes() {
+        return vramBytes;
+    }
+
+    public static int getAnimationCount() {
+        return animationsByKey.size();
+    }
+
+    private static long estimateBytes(Texture texture) {
+        int bytesPerPixel;
+        Pixmap.Format format = texture.getTextureData().getFormat();
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                bytesPerPixel = 1;
+                break;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                bytesPerPixel = 2;
+                break;
+            case RGB888:
+                bytesPerPixel = 3;
+                break;
+            case RGBA8888:
+            default:
+                bytesPerPixel = 4;
+                break;
+        }
+        return (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+    }
+}
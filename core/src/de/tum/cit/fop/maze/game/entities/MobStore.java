@@ -0,0 +1,403 @@
+package de.tum.cit.fop.maze.game.entities;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays store for large numbers of mobs.
+ * Instead of one {@link Slime} object per mob, position, velocity, state, state time and animation set
+ * live in parallel primitive arrays. Live mobs are always packed into the indices {@code 0 .. size - 1}
+ * (removal swaps the last mob into the hole), so every update loop runs over contiguous memory without
+ * checking for dead entries and can be vectorized by the JIT. Mobs are identified from the outside by a
+ * stable id that survives this reordering.
+ * <p>
+ * Mobs behave like {@link Slime}: they chase the target inside {@link Slime#CHASE_RADIUS} and hit it when
+ * they are within {@link Slime#ATTACK_RANGE} on both axes. Mobs moved by a collision engine are told by it
+ * when they touch the player instead, see {@link #setTouching}. States are {@link Slime.SlimeState} ordinals.
+ */
+public class MobStore {
+    public static final byte STANDING = (byte) Slime.SlimeState.STANDING.ordinal();
+    public static final byte RUNNING_LEFT = (byte) Slime.SlimeState.RUNNING_LEFT.ordinal();
+    public static final byte RUNNING_RIGHT = (byte) Slime.SlimeState.RUNNING_RIGHT.ordinal();
+    public static final byte ATTACKING = (byte) Slime.SlimeState.ATTACKING.ordinal();
+    public static final byte DYING = (byte) Slime.SlimeState.DYING.ordinal();
+
+    private static final int NONE = -1;
+
+    // Per-mob data, indexed by dense index
+    private float[] x, y;
+    private float[] previousX, previousY; // Position before the last update, for render interpolation
+    private float[] velocityX, velocityY;
+    private float[] stateTime;
+    private byte[] state;
+    private boolean[] touching; // Set by the collision engine, the mob attacks while it lasts
+    private short[] animationSet;
+    private int[] idOfIndex;
+
+    // Stable id -> dense index, free ids are chained through indexOfId
+    private int[] indexOfId;
+    private int freeId = NONE;
+    private int nextId;
+
+    private int size;
+
+    // Animations per registered mob kind, indexed by state
+    private Animation<TextureRegion>[][] animationSets;
+    private int animationSetCount;
+
+    private float chaseRadius = Slime.CHASE_RADIUS;
+    private float speed = Slime.SPEED;
+    private float attackRange = Slime.ATTACK_RANGE;
+
+    // Shared path to the target around the walls, if set
+    private FlowField flowField;
+    private float cellSize;
+
+    @SuppressWarnings("unchecked")
+    public MobStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        stateTime = new float[capacity];
+        state = new byte[capacity];
+        touching = new boolean[capacity];
+        animationSet = new short[capacity];
+        idOfIndex = new int[capacity];
+        indexOfId = new int[capacity];
+        animationSets = (Animation<TextureRegion>[][]) new Animation<?>[4][];
+    }
+
+    /**
+     * Registers the animations of a mob kind.
+     *
+     * @param animationsByState The animations indexed by state, as returned by {@link Slime#loadAnimations()}.
+     * @return The animation set id to pass to {@link #spawn}.
+     */
+    public int registerAnimations(Animation<TextureRegion>[] animationsByState) {
+        if (animationSetCount == animationSets.length) {
+            animationSets = Arrays.copyOf(animationSets, animationSets.length * 2);
+        }
+        animationSets[animationSetCount] = animationsByState;
+        return animationSetCount++;
+    }
+
+    public void setBehaviour(float chaseRadius, float speed, float attackRange) {
+        this.chaseRadius = chaseRadius;
+        this.speed = speed;
+        this.attackRange = attackRange;
+    }
+
+    /**
+     * Lets chasing mobs follow a flow field towards the target's cell instead of walking straight at it.
+     *
+     * @param flowField The field towards the target, or null to walk straight.
+     * @param cellSize  The size of a grid cell in pixels.
+     */
+    public void setFlowField(FlowField flowField, float cellSize) {
+        this.flowField = flowField;
+        this.cellSize = cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a mob in the standing state.
+     *
+     * @return The stable id of the mob.
+     */
+    public int spawn(int animationSetId, float spawnX, float spawnY) {
+        if (size == x.length) {
+            grow(x.length * 2);
+        }
+        int id;
+        if (freeId != NONE) {
+            id = freeId;
+            freeId = indexOfId[id];
+        } else {
+            if (nextId == indexOfId.length) {
+                indexOfId = Arrays.copyOf(indexOfId, indexOfId.length * 2);
+            }
+            id = nextId++;
+        }
+        int i = size++;
+        x[i] = spawnX;
+        y[i] = spawnY;
+        previousX[i] = spawnX;
+        previousY[i] = spawnY;
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        stateTime[i] = 0;
+        state[i] = STANDING;
+        touching[i] = false;
+        animationSet[i] = (short) animationSetId;
+        idOfIndex[i] = id;
+        indexOfId[id] = i;
+        return id;
+    }
+
+    /**
+     * Removes a mob; the last mob takes its place so the arrays stay dense.
+     */
+    public void remove(int id) {
+        int i = indexOfId[id];
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            previousX[i] = previousX[last];
+            previousY[i] = previousY[last];
+            velocityX[i] = velocityX[last];
+            velocityY[i] = velocityY[last];
+            stateTime[i] = stateTime[last];
+            state[i] = state[last];
+            touching[i] = touching[last];
+            animationSet[i] = animationSet[last];
+            idOfIndex[i] = idOfIndex[last];
+            indexOfId[idOfIndex[i]] = i;
+        }
+        indexOfId[id] = freeId;
+        freeId = id;
+    }
+
+    /**
+     * Lets a mob play its death animation; dying mobs no longer move or attack.
+     */
+    public void kill(int id) {
+        int i = indexOfId[id];
+        if (state[i] != DYING) {
+            state[i] = DYING;
+            stateTime[i] = 0;
+            velocityX[i] = 0;
+            velocityY[i] = 0;
+        }
+    }
+
+    /**
+     * Removes all mobs, keeping the allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+        nextId = 0;
+        freeId = NONE;
+    }
+
+    /**
+     * Advances all mobs by one step: chase the target, move, and count the mobs that hit it.
+     *
+     * @param deltaTime The step length in seconds.
+     * @param targetX   The x-coordinate of the chased player.
+     * @param targetY   The y-coordinate of the chased player.
+     * @return The number of mobs in attack range of the target.
+     */
+    public int update(float deltaTime, float targetX, float targetY) {
+        return update(0, size, deltaTime, targetX, targetY);
+    }
+
+    /**
+     * Advances the mobs with dense indices {@code from .. to - 1} by one step. Mobs only read the shared
+     * flow field and write their own slots, so disjoint ranges may be updated on different threads at
+     * once, as long as no mob is spawned or removed meanwhile.
+     *
+     * @return The number of mobs of the range in attack range of the target.
+     */
+    public int update(int from, int to, float deltaTime, float targetX, float targetY) {
+        System.arraycopy(x, from, previousX, from, to - from);
+        System.arraycopy(y, from, previousY, from, to - from);
+        steer(from, to, targetX, targetY);
+        integrate(from, to, deltaTime);
+        return attack(from, to, targetX, targetY);
+    }
+
+    /**
+     * Like {@link #update(int, int, float, float, float)}, but only decides the velocities and leaves
+     * moving the mobs to the caller, e.g. a collision engine that stops them at walls, which then places
+     * them with {@link #placeAt}. Hits are not counted here but reported by the engine on contact; mobs
+     * touching the target play their attack.
+     */
+    public void steer(int from, int to, float deltaTime, float targetX, float targetY) {
+        System.arraycopy(x, from, previousX, from, to - from);
+        System.arraycopy(y, from, previousY, from, to - from);
+        steer(from, to, targetX, targetY);
+        for (int i = from; i < to; i++) {
+            stateTime[i] += deltaTime;
+        }
+    }
+
+    /**
+     * Called by the collision engine when the mob with the given dense index begins or stops touching
+     * the player; the hit itself is dealt by the caller once per contact.
+     */
+    public void setTouching(int index, boolean touching) {
+        this.touching[index] = touching;
+    }
+
+    private void steer(int from, int to, float targetX, float targetY) {
+        float chaseRadiusSquared = chaseRadius * chaseRadius;
+        for (int i = from; i < to; i++) {
+            float dx = targetX - x[i];
+            float dy = targetY - y[i];
+            float distanceSquared = dx * dx + dy * dy;
+            boolean chasing = distanceSquared < chaseRadiusSquared && distanceSquared > 0 && state[i] != DYING;
+            if (chasing && flowField != null) {
+                // Walk to the next cell on the shortest path instead, one lookup per mob
+                int next = flowField.nextCell(FlowField.toCell(x[i], cellSize), FlowField.toCell(y[i], cellSize));
+                if (next != FlowField.NONE) {
+                    dx = (next % flowField.getWidth()) * cellSize - x[i];
+                    dy = (next / flowField.getWidth()) * cellSize - y[i];
+                    distanceSquared = dx * dx + dy * dy;
+                }
+            }
+            float scale = chasing ? speed / (float) Math.sqrt(distanceSquared) : 0f;
+            velocityX[i] = dx * scale;
+            velocityY[i] = dy * scale;
+            if (state[i] != DYING) {
+                state[i] = touching[i] ? ATTACKING : !chasing ? STANDING : dx < 0 ? RUNNING_LEFT : RUNNING_RIGHT;
+            }
+        }
+    }
+
+    private void integrate(int from, int to, float deltaTime) {
+        // Plain loops over primitive arrays, the JIT can turn these into SIMD code
+        for (int i = from; i < to; i++) {
+            x[i] += velocityX[i] * deltaTime;
+        }
+        for (int i = from; i < to; i++) {
+            y[i] += velocityY[i] * deltaTime;
+        }
+        for (int i = from; i < to; i++) {
+            stateTime[i] += deltaTime;
+        }
+    }
+
+    private int attack(int from, int to, float targetX, float targetY) {
+        int hits = 0;
+        for (int i = from; i < to; i++) {
+            if (state[i] != DYING
+                    && Math.abs(targetX - x[i]) < attackRange
+                    && Math.abs(targetY - y[i]) < attackRange) {
+                state[i] = ATTACKING;
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Draws the mobs whose position lies inside the given view rectangle, extended by a margin so that
+     * sprites crossing the border are not cut off. Mobs are drawn between their positions before and
+     * after the last update.
+     *
+     * @param alpha The fraction of a tick that has passed since the last update.
+     * @return The number of mobs drawn.
+     */
+    public int render(SpriteBatch batch, float viewX, float viewY, float viewWidth, float viewHeight, float margin,
+                      float alpha) {
+        float minX = viewX - margin;
+        float minY = viewY - margin;
+        float maxX = viewX + viewWidth + margin;
+        float maxY = viewY + viewHeight + margin;
+        int drawn = 0;
+        for (int i = 0; i < size; i++) {
+            float mobX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float mobY = previousY[i] + (y[i] - previousY[i]) * alpha;
+            if (mobX < minX || mobX > maxX || mobY < minY || mobY > maxY) {
+                continue;
+            }
+            Animation<TextureRegion> animation = animationSets[animationSet[i]][state[i]];
+            batch.draw(animation.getKeyFrame(stateTime[i], true), mobX, mobY);
+            drawn++;
+        }
+        return drawn;
+    }
+
+    /**
+     * Adds the current frame and the positions before and after the last update of every mob to a
+     * snapshot. Culling is left to the snapshot, which knows the view of the frame it is drawn in.
+     */
+    public void writeTo(RenderSnapshot snapshot) {
+        for (int i = 0; i < size; i++) {
+            Animation<TextureRegion> animation = animationSets[animationSet[i]][state[i]];
+            snapshot.addSprite(animation.getKeyFrame(stateTime[i], true), previousX[i], previousY[i], x[i], y[i]);
+        }
+    }
+
+    /**
+     * A hash of the position and state of every mob, to tell whether two runs reached the same state.
+     */
+    public long checksum() {
+        long hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = hash * 31 + Float.floatToIntBits(x[i]);
+            hash = hash * 31 + Float.floatToIntBits(y[i]);
+            hash = hash * 31 + state[i];
+        }
+        return hash;
+    }
+
+    public float getX(int id) {
+        return x[indexOfId[id]];
+    }
+
+    public float getY(int id) {
+        return y[indexOfId[id]];
+    }
+
+    /**
+     * Moves the mob at a dense index, keeping its previous position for interpolation.
+     */
+    public void placeAt(int index, float newX, float newY) {
+        x[index] = newX;
+        y[index] = newY;
+    }
+
+    // Accessors by dense index, for loops over all mobs
+    public float getXAt(int index) {
+        return x[index];
+    }
+
+    public float getYAt(int index) {
+        return y[index];
+    }
+
+    public byte getStateAt(int index) {
+        return state[index];
+    }
+
+    public float getVelocityXAt(int index) {
+        return velocityX[index];
+    }
+
+    public float getVelocityYAt(int index) {
+        return velocityY[index];
+    }
+
+    public byte getState(int id) {
+        return state[indexOfId[id]];
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        stateTime = Arrays.copyOf(stateTime, capacity);
+        state = Arrays.copyOf(state, capacity);
+        touching = Arrays.copyOf(touching, capacity);
+        animationSet = Arrays.copyOf(animationSet, capacity);
+        idOfIndex = Arrays.copyOf(idOfIndex, capacity);
+    }
+}
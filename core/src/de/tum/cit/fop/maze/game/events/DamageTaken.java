@@ -0,0 +1,17 @@
+package de.tum.cit.fop.maze.game.events;
+
+/**
+ * The player lost hearts.
+ */
+public class DamageTaken {
+    public String source; // What hit the player, e.g. "Slime"
+    public int amount;
+    public int heartsLeft;
+
+    public DamageTaken set(String source, int amount, int heartsLeft) {
+        this.source = source;
+        this.amount = amount;
+        this.heartsLeft = heartsLeft;
+        return this;
+    }
+}
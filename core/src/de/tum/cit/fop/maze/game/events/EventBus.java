@@ -0,0 +1,35 @@
+package de.tum.cit.fop.maze.game.events;
+
+/**
+ * The events of the game logic, one typed queue per kind of event.
+ * Game objects post events while a tick runs; the simulation dispatches them all at the end of the
+ * tick, so listeners like the game state or the save see the effects of a whole tick in one batch
+ * instead of being called from inside the collision checks. Nothing is allocated per event.
+ * Like the simulation that owns it, a bus is used by one thread only.
+ */
+public class EventBus {
+    public final EventQueue<KeyCollected> keyCollected = new EventQueue<>(KeyCollected::new, 4);
+    public final EventQueue<DamageTaken> damageTaken = new EventQueue<>(DamageTaken::new, 64);
+    public final EventQueue<PowerUpActivated> powerUpActivated = new EventQueue<>(PowerUpActivated::new, 4);
+    public final EventQueue<LevelExit> levelExit = new EventQueue<>(LevelExit::new, 2);
+
+    /**
+     * Delivers the events posted since the last call, queue by queue.
+     */
+    public void dispatch() {
+        keyCollected.dispatch();
+        damageTaken.dispatch();
+        powerUpActivated.dispatch();
+        levelExit.dispatch();
+    }
+
+    /**
+     * Drops all events that have not been delivered, e.g. when the level restarts.
+     */
+    public void clear() {
+        keyCollected.clear();
+        damageTaken.clear();
+        powerUpActivated.clear();
+        levelExit.clear();
+    }
+}
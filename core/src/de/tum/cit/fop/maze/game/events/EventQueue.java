@@ -0,0 +1,135 @@
+package de.tum.cit.fop.maze.game.events;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.function.Supplier;
+
+/**
+ * A queue of one type of event, delivered to its listeners in batches.
+ * The events live in a ring of reused objects: {@link #post()} hands out the next free one to be filled
+ * in, and {@link #dispatch()} passes all events posted since the last dispatch to every listener at once,
+ * in the order they were posted, then frees them. The ring doubles when it is full, so no event is ever
+ * dropped, and posting allocates nothing once it has reached the largest batch.
+ * <p>
+ * Events posted by a listener during a dispatch are delivered with the next one. Only one thread may
+ * use a queue.
+ *
+ * @param <T> The type of event.
+ */
+public class EventQueue<T> {
+
+    /**
+     * Receives the events of a batch.
+     */
+    public interface Listener<T> {
+        /**
+         * Handles the events {@code 0 .. events.size() - 1}. They are only valid during the call.
+         */
+        void handle(EventQueue<T> events);
+    }
+
+    private final Supplier<T> factory;
+    private final Array<Listener<T>> listeners = new Array<>();
+    private T[] ring;
+    private int head; // Index of the oldest event
+    private int size; // Events posted and not yet freed
+    private int batchSize; // Events of the batch being dispatched
+
+    /**
+     * @param factory  Creates the reused event objects.
+     * @param capacity The number of events to allocate up front, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public EventQueue(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.ring = (T[]) new Object[Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = factory.get();
+        }
+    }
+
+    public void addListener(Listener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener<T> listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    /**
+     * Appends an event and returns it to be filled in. Its fields still hold an earlier event.
+     */
+    public T post() {
+        if (size == ring.length) {
+            grow();
+        }
+        T event = ring[(head + size) & ring.length - 1];
+        size++;
+        return event;
+    }
+
+    /**
+     * Delivers the posted events to the listeners and frees them.
+     */
+    public void dispatch() {
+        int count = size;
+        if (count == 0) {
+            return;
+        }
+        batchSize = count;
+        try {
+            for (int i = 0; i < listeners.size; i++) {
+                listeners.get(i).handle(this);
+            }
+        } finally {
+            head = (head + count) & ring.length - 1;
+            size -= count;
+            batchSize = 0;
+        }
+    }
+
+    /**
+     * Drops the posted events without delivering them.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * The number of events in the batch being dispatched.
+     */
+    public int size() {
+        return batchSize;
+    }
+
+    /**
+     * An event of the batch being dispatched, in the order they were posted.
+     */
+    public T get(int index) {
+        if (index >= batchSize) {
+            throw new IndexOutOfBoundsException("index " + index + " >= " + batchSize);
+        }
+        return ring[(head + index) & ring.length - 1];
+    }
+
+    /**
+     * The number of events posted and not yet dispatched.
+     */
+    public int pending() {
+        return size - batchSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        T[] larger = (T[]) new Object[ring.length * 2];
+        for (int i = 0; i < ring.length; i++) {
+            larger[i] = ring[(head + i) & ring.length - 1];
+        }
+        for (int i = ring.length; i < larger.length; i++) {
+            larger[i] = factory.get();
+        }
+        ring = larger;
+        head = 0;
+    }
+}
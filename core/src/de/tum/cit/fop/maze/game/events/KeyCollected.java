@@ -0,0 +1,16 @@
+package de.tum.cit.fop.maze.game.events;
+
+/**
+ * The player picked up a key.
+ */
+public class KeyCollected {
+    public int keyIndex;
+    public float x, y; // Where the key was
+
+    public KeyCollected set(int keyIndex, float x, float y) {
+        this.keyIndex = keyIndex;
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package de.tum.cit.fop.maze.game.events;
+
+/**
+ * The player left the level through its exit.
+ */
+public class LevelExit {
+    public int keys; // Keys the player carried out
+
+    public LevelExit set(int keys) {
+        this.keys = keys;
+        return this;
+    }
+}
@@ -0,0 +1,13 @@
+package de.tum.cit.fop.maze.game.events;
+
+/**
+ * A power-up took effect on the player.
+ */
+public class PowerUpActivated {
+    public String powerUpType; // E.g. "SpeedBoost", "Shield"
+
+    public PowerUpActivated set(String powerUpType) {
+        this.powerUpType = powerUpType;
+        return this;
+    }
+}
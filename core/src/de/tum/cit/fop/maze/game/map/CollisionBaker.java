@@ -0,0 +1,163 @@
+package de.tum.cit.fop.maze.game.map;
+
+import java.util.Arrays;
+
+/**
+ * Merges solid cells of a grid into as few axis-aligned rectangles as possible.
+ * The greedy pass walks the grid row by row, grows every rectangle to the right first and then
+ * upwards as long as the whole row segment is still solid. Every rectangle can then be turned into
+ * a single physics body instead of one body per wall tile.
+ */
+public class CollisionBaker {
+
+    /**
+     * Rectangles produced by one bake, packed as {x, y, width, height} in cell units.
+     */
+    public static class Result {
+        private final int[] rects;
+        private final int rectCount;
+        private final int solidCells;
+
+        public Result(int[] rects, int rectCount, int solidCells) {
+            this.rects = rects;
+            this.rectCount = rectCount;
+            this.solidCells = solidCells;
+        }
+
+        public int getRectCount() {
+            return rectCount;
+        }
+
+        public int getSolidCells() {
+            return solidCells;
+        }
+
+        public int getX(int rect) {
+            return rects[rect * 4];
+        }
+
+        public int getY(int rect) {
+            return rects[rect * 4 + 1];
+        }
+
+        public int getWidth(int rect) {
+            return rects[rect * 4 + 2];
+        }
+
+        public int getHeight(int rect) {
+            return rects[rect * 4 + 3];
+        }
+
+        /**
+         * Number of bodies (and fixtures) saved compared to one body per solid cell.
+         */
+        public int getBodiesSaved() {
+            return solidCells - rectCount;
+        }
+
+        /**
+         * Gives direct access to the packed rectangle array. Callers must not modify it.
+         */
+        public int[] getRects() {
+            return rects;
+        }
+
+        @Override
+        public String toString() {
+            return solidCells + " solid cells merged into " + rectCount + " rectangles ("
+                    + getBodiesSaved() + " bodies saved)";
+        }
+    }
+
+    // Scratch buffers, kept between bakes
+    private boolean[] consumed = new boolean[0];
+    private boolean[] solid = new boolean[0];
+    private int[] rects = new int[256];
+
+    /**
+     * Merges all wall cells of a level grid.
+     *
+     * @param grid The grid of the level.
+     * @return The merged rectangles.
+     */
+    public Result bake(MapGrid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int cellCount = width * height;
+        if (solid.length < cellCount) {
+            solid = new boolean[cellCount];
+        }
+        byte[] tiles = grid.getTiles();
+        for (int i = 0; i < cellCount; i++) {
+            solid[i] = tiles[i] == MapGrid.WALL;
+        }
+        return bake(solid, width, height);
+    }
+
+    /**
+     * Merges the solid cells of a row-major mask.
+     *
+     * @param solid  The mask, index = y * width + x.
+     * @param width  The width of the mask in cells.
+     * @param height The height of the mask in cells.
+     * @return The merged rectangles.
+     */
+    public Result bake(boolean[] solid, int width, int height) {
+        int cellCount = width * height;
+        if (consumed.length < cellCount) {
+            consumed = new boolean[cellCount];
+        } else {
+            Arrays.fill(consumed, 0, cellCount, false);
+        }
+
+        int rectCount = 0;
+        int solidCells = 0;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int start = row + x;
+                if (!solid[start]) {
+                    continue;
+                }
+                solidCells++;
+                if (consumed[start]) {
+                    continue;
+                }
+
+                // Grow to the right
+                int w = 1;
+                while (x + w < width && solid[start + w] && !consumed[start + w]) {
+                    w++;
+                }
+
+                // Grow upwards while the full segment is free
+                int h = 1;
+                grow:
+                while (y + h < height) {
+                    int next = start + h * width;
+                    for (int i = 0; i < w; i++) {
+                        if (!solid[next + i] || consumed[next + i]) {
+                            break grow;
+                        }
+                    }
+                    h++;
+                }
+
+                for (int j = 0; j < h; j++) {
+                    Arrays.fill(consumed, start + j * width, start + j * width + w, true);
+                }
+
+                if (rectCount * 4 == rects.length) {
+                    rects = Arrays.copyOf(rects, rects.length * 2);
+                }
+                int offset = rectCount * 4;
+                rects[offset] = x;
+                rects[offset + 1] = y;
+                rects[offset + 2] = w;
+                rects[offset + 3] = h;
+                rectCount++;
+            }
+        }
+        return new Result(Arrays.copyOf(rects, rectCount * 4), rectCount, solidCells);
+    }
+}
@@ -0,0 +1,347 @@
+package de.tum.cit.fop.maze.game.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * A level precompiled by the {@link LevelCompiler}: everything the game would otherwise derive from
+ * the .tmx map and the level-N.properties file, stored as flat arrays that are read without parsing.
+ * <p>
+ * The blob is big-endian and made of sections in this order:
+ * <ol>
+ *     <li>Header: magic {@code "MZLV"}, {@link #VERSION} and the {@link #hashSources hash} of the
+ *     .tmx map and the properties file the level was compiled from.</li>
+ *     <li>Grid: width and height, then one tile byte per cell, row-major.</li>
+ *     <li>Spawn tables: for each tile type the start of its cells, then the cells of all types
+ *     grouped by type, the same index {@link MapGrid} builds.</li>
+ *     <li>Collision: tile size, size of the .tmx map, and the wall cells of the grid merged into
+ *     rectangles by the {@link CollisionBaker}.</li>
+ *     <li>Navigation: for every grid cell a bit mask of the walkable neighbours it links to,
+ *     {@link #EAST}, {@link #NORTH}, {@link #WEST} and {@link #SOUTH}.</li>
+ *     <li>Tile sets: name, image file and the region of every tile.</li>
+ *     <li>Tile layers: name, opacity, visibility, size, and one tile id per cell with the flip and
+ *     rotation flags in the upper bits.</li>
+ * </ol>
+ * A blob with another magic or version is rejected, so an outdated file is recompiled rather than misread.
+ * The loader also compares the source hash with the current sources and ignores a blob whose level
+ * was edited since it was compiled.
+ */
+public class CompiledLevel {
+    public static final int MAGIC = 0x4D5A4C56; // "MZLV"
+    public static final int VERSION = 3;
+
+    // Navigation link bits
+    public static final int EAST = 1;
+    public static final int NORTH = 2;
+    public static final int WEST = 4;
+    public static final int SOUTH = 8;
+
+    // Layer cell flags, the tile id is in the lower bits
+    public static final int FLIP_HORIZONTALLY = 1 << 31;
+    public static final int FLIP_VERTICALLY = 1 << 30;
+    public static final int ROTATION_SHIFT = 28;
+    public static final int TILE_ID_MASK = (1 << ROTATION_SHIFT) - 1;
+
+    /**
+     * The tiles of one tile set, as regions of a single image.
+     */
+    public static class TileSet {
+        private final String name;
+        private final String image;
+        private final int[] ids;
+        private final int[] regions;
+
+        public TileSet(String name, String image, int[] ids, int[] regions) {
+            this.name = name;
+            this.image = image;
+            this.ids = ids;
+            this.regions = regions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The file name of the image, relative to the assets folder.
+         */
+        public String getImage() {
+            return image;
+        }
+
+        public int getTileCount() {
+            return ids.length;
+        }
+
+        public int getId(int tile) {
+            return ids[tile];
+        }
+
+        public int getRegionX(int tile) {
+            return regions[tile * 4];
+        }
+
+        public int getRegionY(int tile) {
+            return regions[tile * 4 + 1];
+        }
+
+        public int getRegionWidth(int tile) {
+            return regions[tile * 4 + 2];
+        }
+
+        public int getRegionHeight(int tile) {
+            return regions[tile * 4 + 3];
+        }
+    }
+
+    /**
+     * The cells of one tile layer.
+     */
+    public static class Layer {
+        private final String name;
+        private final float opacity;
+        private final boolean visible;
+        private final int width;
+        private final int height;
+        private final int[] cells;
+
+        public Layer(String name, float opacity, boolean visible, int width, int height, int[] cells) {
+            this.name = name;
+            this.opacity = opacity;
+            this.visible = visible;
+            this.width = width;
+            this.height = height;
+            this.cells = cells;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public float getOpacity() {
+            return opacity;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * The tile id and flags of a cell, 0 for an empty cell.
+         */
+        public int getCell(int x, int y) {
+            return cells[y * width + x];
+        }
+    }
+
+    private final MapGrid grid;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final CollisionBaker.Result collisions;
+    private final byte[] links;
+    private final TileSet[] tileSets;
+    private final Layer[] layers;
+    private final long sourceHash;
+
+    public CompiledLevel(long sourceHash, MapGrid grid, int tileWidth, int tileHeight, int mapWidth, int mapHeight,
+                         CollisionBaker.Result collisions, byte[] links, TileSet[] tileSets, Layer[] layers) {
+        this.sourceHash = sourceHash;
+        this.grid = grid;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.collisions = collisions;
+        this.links = links;
+        this.tileSets = tileSets;
+        this.layers = layers;
+    }
+
+    /**
+     * Memory-maps a compiled level file and reads it.
+     *
+     * @throws IOException If the file cannot be read or is not a compiled level of this version.
+     */
+    public static CompiledLevel map(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r");
+             FileChannel channel = in.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads a compiled level from a buffer, starting at its position.
+     *
+     * @throws IOException If the buffer does not hold a compiled level of this version.
+     */
+    public static CompiledLevel read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled level");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Compiled level has version " + version + ", expected " + VERSION);
+            }
+            long sourceHash = buffer.getLong();
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            byte[] tiles = new byte[width * height];
+            buffer.get(tiles);
+
+            int[] typeStart = readInts(buffer, MapGrid.TYPE_COUNT + 1);
+            int[] typeCells = readInts(buffer, typeStart[MapGrid.TYPE_COUNT]);
+            MapGrid grid = new MapGrid(width, height, tiles, typeStart, typeCells);
+
+            int tileWidth = buffer.getInt();
+            int tileHeight = buffer.getInt();
+            int mapWidth = buffer.getInt();
+            int mapHeight = buffer.getInt();
+            int solidCells = buffer.getInt();
+            int rectCount = buffer.getInt();
+            CollisionBaker.Result collisions = new CollisionBaker.Result(readInts(buffer, rectCount * 4),
+                    rectCount, solidCells);
+
+            byte[] links = new byte[width * height];
+            buffer.get(links);
+
+            TileSet[] tileSets = new TileSet[buffer.getInt()];
+            for (int i = 0; i < tileSets.length; i++) {
+                String name = readString(buffer);
+                String image = readString(buffer);
+                int tileCount = buffer.getInt();
+                tileSets[i] = new TileSet(name, image, readInts(buffer, tileCount), readInts(buffer, tileCount * 4));
+            }
+
+            Layer[] layers = new Layer[buffer.getInt()];
+            for (int i = 0; i < layers.length; i++) {
+                String name = readString(buffer);
+                float opacity = buffer.getFloat();
+                boolean visible = buffer.get() != 0;
+                int layerWidth = buffer.getInt();
+                int layerHeight = buffer.getInt();
+                layers[i] = new Layer(name, opacity, visible, layerWidth, layerHeight,
+                        readInts(buffer, layerWidth * layerHeight));
+            }
+            return new CompiledLevel(sourceHash, grid, tileWidth, tileHeight, mapWidth, mapHeight, collisions, links,
+                    tileSets, layers);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, NegativeArraySizeException, ...
+            throw new IOException("Corrupt compiled level", e);
+        }
+    }
+
+    /**
+     * A hash of the files a level is compiled from: their total length in the upper 32 bits, a CRC32 of
+     * their contents in the lower ones. Carriage returns are skipped, so a checkout with Windows line
+     * endings still matches.
+     */
+    public static long hashSources(byte[]... sources) {
+        CRC32 crc = new CRC32();
+        long length = 0;
+        for (byte[] source : sources) {
+            int start = 0;
+            for (int i = 0; i <= source.length; i++) {
+                if (i == source.length || source[i] == '\r') {
+                    crc.update(source, start, i - start);
+                    length += i - start;
+                    start = i + 1;
+                }
+            }
+        }
+        return length << 32 | crc.getValue();
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The {@link #hashSources hash} of the sources the level was compiled from.
+     */
+    public long getSourceHash() {
+        return sourceHash;
+    }
+
+    /**
+     * The tile grid with its spawn tables.
+     */
+    public MapGrid getGrid() {
+        return grid;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * The width of the .tmx map in tiles, which may differ from the grid.
+     */
+    public int getMapWidth() {
+        return mapWidth;
+    }
+
+    /**
+     * The height of the .tmx map in tiles, which may differ from the grid.
+     */
+    public int getMapHeight() {
+        return mapHeight;
+    }
+
+    /**
+     * The merged wall rectangles of the grid.
+     */
+    public CollisionBaker.Result getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * The walkable neighbours of a grid cell as {@link #EAST}, {@link #NORTH}, {@link #WEST} and
+     * {@link #SOUTH} bits, 0 for walls and cells outside the grid.
+     */
+    public int getLinks(int x, int y) {
+        if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight()) {
+            return 0;
+        }
+        return links[y * grid.getWidth() + x];
+    }
+
+    public TileSet[] getTileSets() {
+        return tileSets;
+    }
+
+    public Layer[] getLayers() {
+        return layers;
+    }
+}
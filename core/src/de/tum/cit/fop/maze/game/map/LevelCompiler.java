@@ -0,0 +1,167 @@
+package de.tum.cit.fop.maze.game.map;
+
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns a level, its .tmx map and its level-N.properties grid, into a {@link CompiledLevel} blob.
+ * The expensive work of loading a level, parsing the XML and text and merging the wall cells of the
+ * grid into rectangles, is done once here instead of every time the level starts.
+ * A compiler instance is not thread-safe.
+ */
+public class LevelCompiler {
+    private final CollisionBaker collisionBaker = new CollisionBaker();
+
+    /**
+     * Writes the compiled form of a level. The stream is not closed.
+     *
+     * @param grid       The grid of the level, from its properties file.
+     * @param map        The .tmx map of the level, with the tile regions as loaded (not the atlas ones).
+     * @param sourceHash The {@link CompiledLevel#hashSources hash} of the .tmx and properties files.
+     * @param out        The stream to write the blob to.
+     */
+    public void compile(MapGrid grid, TiledMap map, long sourceHash, OutputStream out) throws IOException {
+        int mapWidth = map.getProperties().get("width", Integer.class);
+        int mapHeight = map.getProperties().get("height", Integer.class);
+        int tileWidth = map.getProperties().get("tilewidth", Integer.class);
+        int tileHeight = map.getProperties().get("tileheight", Integer.class);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(CompiledLevel.MAGIC);
+        data.writeInt(CompiledLevel.VERSION);
+        data.writeLong(sourceHash);
+
+        data.writeInt(grid.getWidth());
+        data.writeInt(grid.getHeight());
+        data.write(grid.getTiles(), 0, grid.getWidth() * grid.getHeight());
+
+        writeInts(data, grid.getTypeStart(), grid.getTypeStart().length);
+        writeInts(data, grid.getTypeCells(), grid.getTypeCells().length);
+
+        CollisionBaker.Result collisions = collisionBaker.bake(grid);
+        data.writeInt(tileWidth);
+        data.writeInt(tileHeight);
+        data.writeInt(mapWidth);
+        data.writeInt(mapHeight);
+        data.writeInt(collisions.getSolidCells());
+        data.writeInt(collisions.getRectCount());
+        writeInts(data, collisions.getRects(), collisions.getRectCount() * 4);
+
+        data.write(links(grid));
+
+        writeTileSets(data, map);
+        writeLayers(data, map);
+        data.flush();
+    }
+
+    private static void writeTileSets(DataOutputStream data, TiledMap map) throws IOException {
+        int tileSetCount = 0;
+        for (TiledMapTileSet ignored : map.getTileSets()) {
+            tileSetCount++;
+        }
+        data.writeInt(tileSetCount);
+        IntArray ids = new IntArray();
+        IntArray regions = new IntArray();
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            ids.clear();
+            regions.clear();
+            String image = "";
+            for (TiledMapTile tile : tileSet) {
+                TextureRegion region = tile.getTextureRegion();
+                TextureData textureData = region.getTexture().getTextureData();
+                if (textureData instanceof FileTextureData) {
+                    image = ((FileTextureData) textureData).getFileHandle().name();
+                }
+                ids.add(tile.getId());
+                regions.add(region.getRegionX(), region.getRegionY(), region.getRegionWidth(), region.getRegionHeight());
+            }
+            writeString(data, tileSet.getName());
+            writeString(data, image);
+            data.writeInt(ids.size);
+            writeInts(data, ids.items, ids.size);
+            writeInts(data, regions.items, regions.size);
+        }
+    }
+
+    private static void writeLayers(DataOutputStream data, TiledMap map) throws IOException {
+        int layerCount = 0;
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                layerCount++;
+            }
+        }
+        data.writeInt(layerCount);
+        for (MapLayer mapLayer : map.getLayers()) {
+            if (!(mapLayer instanceof TiledMapTileLayer)) {
+                continue;
+            }
+            TiledMapTileLayer layer = (TiledMapTileLayer) mapLayer;
+            writeString(data, layer.getName());
+            data.writeFloat(layer.getOpacity());
+            data.writeByte(layer.isVisible() ? 1 : 0);
+            data.writeInt(layer.getWidth());
+            data.writeInt(layer.getHeight());
+            for (int y = 0; y < layer.getHeight(); y++) {
+                for (int x = 0; x < layer.getWidth(); x++) {
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null) {
+                        data.writeInt(0);
+                        continue;
+                    }
+                    int value = cell.getTile().getId() & CompiledLevel.TILE_ID_MASK;
+                    value |= cell.getRotation() << CompiledLevel.ROTATION_SHIFT;
+                    if (cell.getFlipHorizontally()) value |= CompiledLevel.FLIP_HORIZONTALLY;
+                    if (cell.getFlipVertically()) value |= CompiledLevel.FLIP_VERTICALLY;
+                    data.writeInt(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the navigation links of every cell: the walkable neighbours of each walkable cell.
+     */
+    static byte[] links(MapGrid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        byte[] links = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (grid.isWall(x, y)) {
+                    continue;
+                }
+                int mask = 0;
+                if (x < width - 1 && !grid.isWall(x + 1, y)) mask |= CompiledLevel.EAST;
+                if (y < height - 1 && !grid.isWall(x, y + 1)) mask |= CompiledLevel.NORTH;
+                if (x > 0 && !grid.isWall(x - 1, y)) mask |= CompiledLevel.WEST;
+                if (y > 0 && !grid.isWall(x, y - 1)) mask |= CompiledLevel.SOUTH;
+                links[y * width + x] = (byte) mask;
+            }
+        }
+        return links;
+    }
+
+    private static void writeInts(DataOutputStream data, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            data.writeInt(values[i]);
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeShort(bytes.length);
+        data.write(bytes);
+    }
+}
@@ -0,0 +1,146 @@
+package de.tum.cit.fop.maze.game.map;
+
+/**
+ * Packed tile grid of a maze level.
+ * Every cell is stored as one byte in a row-major array (index = y * width + x),
+ * and the cells of every tile type are additionally kept in one shared index list
+ * so that walls, traps, enemies and keys can be iterated without scanning the whole grid.
+ */
+public class MapGrid {
+    // Tile types used by the maps/level-N.properties files
+    public static final byte EMPTY = -1;
+    public static final byte WALL = 0;
+    public static final byte ENTRY = 1;
+    public static final byte EXIT = 2;
+    public static final byte TRAP = 3;
+    public static final byte ENEMY = 4;
+    public static final byte KEY = 5;
+    public static final int TYPE_COUNT = 6;
+
+    private final int width;
+    private final int height;
+    private final byte[] tiles;
+
+    // Cells grouped by type: the cells of type t are typeCells[typeStart[t] .. typeStart[t + 1])
+    private final int[] typeStart;
+    private final int[] typeCells;
+
+    /**
+     * Creates a grid from already packed tiles and builds the per-type index lists.
+     *
+     * @param width  The width of the grid in cells.
+     * @param height The height of the grid in cells.
+     * @param tiles  The row-major tile array; the grid takes ownership of it.
+     */
+    public MapGrid(int width, int height, byte[] tiles) {
+        if (tiles.length < width * height) {
+            throw new IllegalArgumentException("Tile array is smaller than " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.typeStart = new int[TYPE_COUNT + 1];
+
+        int cellCount = width * height;
+        for (int i = 0; i < cellCount; i++) {
+            byte type = tiles[i];
+            if (type >= 0 && type < TYPE_COUNT) {
+                typeStart[type + 1]++;
+            }
+        }
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            typeStart[t + 1] += typeStart[t];
+        }
+
+        typeCells = new int[typeStart[TYPE_COUNT]];
+        int[] cursor = new int[TYPE_COUNT];
+        System.arraycopy(typeStart, 0, cursor, 0, TYPE_COUNT);
+        for (int i = 0; i < cellCount; i++) {
+            byte type = tiles[i];
+            if (type >= 0 && type < TYPE_COUNT) {
+                typeCells[cursor[type]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Creates a grid whose per-type index lists were built before, e.g. by the {@link LevelCompiler}.
+     */
+    MapGrid(int width, int height, byte[] tiles, int[] typeStart, int[] typeCells) {
+        if (tiles.length < width * height || typeStart.length != TYPE_COUNT + 1
+                || typeCells.length != typeStart[TYPE_COUNT]) {
+            throw new IllegalArgumentException("Inconsistent grid of " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.typeStart = typeStart;
+        this.typeCells = typeCells;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the tile type at the given cell, or {@link #EMPTY} for cells outside the grid.
+     */
+    public byte get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return EMPTY;
+        }
+        return tiles[y * width + x];
+    }
+
+    public boolean isWall(int x, int y) {
+        return get(x, y) == WALL;
+    }
+
+    /**
+     * Number of cells of the given type.
+     */
+    public int count(int type) {
+        return typeStart[type + 1] - typeStart[type];
+    }
+
+    /**
+     * Returns the packed cell index (y * width + x) of the i-th cell of the given type.
+     */
+    public int cellOf(int type, int i) {
+        return typeCells[typeStart[type] + i];
+    }
+
+    public int xOf(int cell) {
+        return cell % width;
+    }
+
+    public int yOf(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Gives direct access to the row-major tile array. Callers must not modify it.
+     */
+    public byte[] getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Start of the cells of every type in {@link #getTypeCells()}, with one extra entry for the end.
+     * Callers must not modify it.
+     */
+    int[] getTypeStart() {
+        return typeStart;
+    }
+
+    /**
+     * Cells of all types, grouped by type. Callers must not modify it.
+     */
+    int[] getTypeCells() {
+        return typeCells;
+    }
+}
@@ -0,0 +1,223 @@
+package de.tum.cit.fop.maze.game.map;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for the maps/level-N.properties files.
+ * Each line has the form {@code x,y=type}; the optional {@code Width=} and {@code Height=} lines
+ * fix the grid size, otherwise it is derived from the largest coordinates.
+ * The bytes are decoded by hand instead of going through java.util.Properties, so no
+ * String keys or boxed values are created. The scratch buffers are kept between calls,
+ * which means one parser instance can load any number of levels without producing garbage
+ * apart from the resulting {@link MapGrid}. A parser instance is not thread-safe.
+ */
+public class MapGridParser {
+    private static final byte[] WIDTH = {'W', 'i', 'd', 't', 'h'};
+    private static final byte[] HEIGHT = {'H', 'e', 'i', 'g', 'h', 't'};
+
+    // Parser states
+    private static final int LINE_START = 0;
+    private static final int READ_X = 1;
+    private static final int READ_Y = 2;
+    private static final int READ_TYPE = 3;
+    private static final int READ_NAME = 4;
+    private static final int READ_HEADER = 5;
+    private static final int SKIP_LINE = 6;
+
+    private final byte[] readBuffer = new byte[16 * 1024];
+    private final byte[] name = new byte[16];
+
+    // Entries collected while streaming, grid size is only known at the end
+    private int[] xs = new int[1024];
+    private int[] ys = new int[1024];
+    private byte[] types = new byte[1024];
+    private int entryCount;
+
+    private int state;
+    private int line;
+    private int x, y, value, digits, nameLength;
+    private int headerWidth, headerHeight, maxX, maxY;
+
+    /**
+     * Reads a whole level from the given stream. The stream is not closed.
+     *
+     * @param in The stream containing the properties text.
+     * @return The parsed grid.
+     * @throws IOException If reading from the stream fails.
+     */
+    public MapGrid parse(InputStream in) throws IOException {
+        begin();
+        int read;
+        while ((read = in.read(readBuffer, 0, readBuffer.length)) != -1) {
+            feed(readBuffer, 0, read);
+        }
+        return finish();
+    }
+
+    /**
+     * Parses a level that is already in memory.
+     *
+     * @param data   The properties text.
+     * @param offset The first byte to parse.
+     * @param length The number of bytes to parse.
+     * @return The parsed grid.
+     */
+    public MapGrid parse(byte[] data, int offset, int length) {
+        begin();
+        feed(data, offset, length);
+        return finish();
+    }
+
+    private void begin() {
+        entryCount = 0;
+        state = LINE_START;
+        line = 1;
+        headerWidth = 0;
+        headerHeight = 0;
+        maxX = -1;
+        maxY = -1;
+    }
+
+    private void feed(byte[] data, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int c = data[i];
+            if (c == '\n') {
+                endLine();
+                line++;
+                continue;
+            }
+            if (c == '\r') {
+                continue;
+            }
+            int digit = c - '0';
+            switch (state) {
+                case LINE_START:
+                    if (digit >= 0 && digit <= 9) {
+                        x = digit;
+                        state = READ_X;
+                    } else if (c == '#' || c == '!') {
+                        state = SKIP_LINE;
+                    } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                        name[0] = (byte) c;
+                        nameLength = 1;
+                        state = READ_NAME;
+                    } else if (c != ' ' && c != '\t') {
+                        throw error();
+                    }
+                    break;
+                case READ_X:
+                    if (digit >= 0 && digit <= 9) {
+                        x = x * 10 + digit;
+                    } else if (c == ',') {
+                        y = 0;
+                        digits = 0;
+                        state = READ_Y;
+                    } else {
+                        throw error();
+                    }
+                    break;
+                case READ_Y:
+                    if (digit >= 0 && digit <= 9) {
+                        y = y * 10 + digit;
+                        digits++;
+                    } else if (c == '=' && digits > 0) {
+                        value = 0;
+                        digits = 0;
+                        state = READ_TYPE;
+                    } else {
+                        throw error();
+                    }
+                    break;
+                case READ_TYPE:
+                case READ_HEADER:
+                    if (digit >= 0 && digit <= 9) {
+                        value = value * 10 + digit;
+                        digits++;
+                    } else if (c != ' ' && c != '\t') {
+                        throw error();
+                    }
+                    break;
+                case READ_NAME:
+                    if (c == '=') {
+                        value = 0;
+                        digits = 0;
+                        state = READ_HEADER;
+                    } else if (nameLength < name.length) {
+                        name[nameLength++] = (byte) c;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void endLine() {
+        if (state == READ_TYPE) {
+            if (digits == 0 || value >= MapGrid.TYPE_COUNT) {
+                throw error();
+            }
+            addEntry(x, y, (byte) value);
+        } else if (state == READ_HEADER) {
+            if (digits == 0) {
+                throw error();
+            }
+            if (nameEquals(WIDTH)) {
+                headerWidth = value;
+            } else if (nameEquals(HEIGHT)) {
+                headerHeight = value;
+            }
+        } else if (state != LINE_START && state != SKIP_LINE) {
+            throw error();
+        }
+        state = LINE_START;
+    }
+
+    private MapGrid finish() {
+        // The last line might not be terminated by a newline
+        endLine();
+
+        int width = Math.max(headerWidth, maxX + 1);
+        int height = Math.max(headerHeight, maxY + 1);
+        byte[] tiles = new byte[width * height];
+        Arrays.fill(tiles, MapGrid.EMPTY);
+        for (int i = 0; i < entryCount; i++) {
+            tiles[ys[i] * width + xs[i]] = types[i];
+        }
+        return new MapGrid(width, height, tiles);
+    }
+
+    private void addEntry(int x, int y, byte type) {
+        if (entryCount == xs.length) {
+            int newLength = xs.length * 2;
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+            types = Arrays.copyOf(types, newLength);
+        }
+        xs[entryCount] = x;
+        ys[entryCount] = y;
+        types[entryCount] = type;
+        entryCount++;
+        if (x > maxX) maxX = x;
+        if (y > maxY) maxY = y;
+    }
+
+    private boolean nameEquals(byte[] expected) {
+        if (nameLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (name[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Malformed level file at line " + line);
+    }
+}
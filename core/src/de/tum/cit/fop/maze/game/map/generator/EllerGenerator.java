@@ -0,0 +1,133 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Eller's algorithm: builds the maze one row at a time and only remembers which cells of the current
+ * row are connected. Memory is proportional to the width alone, so mazes of any height, e.g.
+ * 10000x10000 tiles, are streamed to the sink without ever being held in memory.
+ * <p>
+ * Each row randomly joins neighbouring cells that are not yet connected, then every connected set
+ * continues into the next row through at least one cell. The last row joins all remaining sets.
+ * Sets are tracked with a union-find over labels that are compacted after every row.
+ */
+public class EllerGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(int columns, int rows, long seed, MazeRowSink sink) throws IOException {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Maze must have at least one cell");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int width = 2 * columns + 1;
+        int height = 2 * rows + 1;
+        byte[] tiles = new byte[width];
+
+        int[] label = new int[columns];
+        int[] parent = new int[columns];
+        int[] remap = new int[columns];
+        int[] lastCellOfSet = new int[columns];
+        boolean[] setGoesNorth = new boolean[columns];
+        boolean[] east = new boolean[columns];
+        boolean[] north = new boolean[columns];
+        for (int i = 0; i < columns; i++) {
+            label[i] = i;
+            parent[i] = i;
+        }
+
+        sink.begin(width, height);
+        Arrays.fill(tiles, MapGrid.WALL);
+        sink.row(0, tiles);
+
+        for (int row = 0; row < rows; row++) {
+            boolean lastRow = row == rows - 1;
+
+            // Join neighbours of different sets; the last row must join all of them
+            for (int i = 0; i < columns - 1; i++) {
+                int a = find(parent, label[i]);
+                int b = find(parent, label[i + 1]);
+                east[i] = a != b && (lastRow || random.nextBoolean());
+                if (east[i]) {
+                    parent[b] = a;
+                }
+            }
+            east[columns - 1] = false;
+
+            tiles[0] = MapGrid.WALL;
+            for (int i = 0; i < columns; i++) {
+                tiles[2 * i + 1] = MapGrid.EMPTY;
+                tiles[2 * i + 2] = east[i] ? MapGrid.EMPTY : MapGrid.WALL;
+            }
+            sink.row(2 * row + 1, tiles);
+
+            if (lastRow) {
+                break;
+            }
+
+            // Every set continues north through at least one of its cells
+            for (int i = 0; i < columns; i++) {
+                int root = find(parent, label[i]);
+                label[i] = root;
+                setGoesNorth[root] = false;
+            }
+            for (int i = 0; i < columns; i++) {
+                int root = label[i];
+                north[i] = random.nextBoolean();
+                setGoesNorth[root] |= north[i];
+                lastCellOfSet[root] = i;
+            }
+            for (int i = 0; i < columns; i++) {
+                int root = label[i];
+                if (!setGoesNorth[root]) {
+                    north[lastCellOfSet[root]] = true;
+                    setGoesNorth[root] = true;
+                }
+            }
+
+            Arrays.fill(tiles, MapGrid.WALL);
+            for (int i = 0; i < columns; i++) {
+                if (north[i]) {
+                    tiles[2 * i + 1] = MapGrid.EMPTY;
+                }
+            }
+            sink.row(2 * row + 2, tiles);
+
+            // Labels of the next row: cells reached from below keep their set, the others start a new one
+            Arrays.fill(remap, -1);
+            int next = 0;
+            for (int i = 0; i < columns; i++) {
+                if (north[i]) {
+                    int root = label[i];
+                    if (remap[root] < 0) {
+                        remap[root] = next++;
+                    }
+                    label[i] = remap[root];
+                }
+            }
+            for (int i = 0; i < columns; i++) {
+                if (!north[i]) {
+                    label[i] = next++;
+                }
+            }
+            for (int l = 0; l < next; l++) {
+                parent[l] = l;
+            }
+        }
+
+        Arrays.fill(tiles, MapGrid.WALL);
+        sink.row(height - 1, tiles);
+        sink.end();
+    }
+
+    private static int find(int[] parent, int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]]; // Path halving
+            label = parent[label];
+        }
+        return label;
+    }
+}
@@ -0,0 +1,89 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Decorates a {@link MazeRowSink} with the objects of a level: the entry in the bottom wall, the exit
+ * in the top wall, and traps, enemies and keys on random maze cells. Works on the rows as they pass
+ * through, so it keeps the memory bound of a streaming generator. At least one key is always placed.
+ */
+public class FeaturePlacer implements MazeRowSink {
+    private final MazeRowSink target;
+    private final SplittableRandom random;
+    private final double trapChance;
+    private final double enemyChance;
+    private final double keyChance;
+
+    private int width;
+    private int height;
+    private int keyCount;
+
+    /**
+     * @param target      The sink that receives the decorated rows.
+     * @param seed        The random seed for the placement.
+     * @param trapChance  Probability that a maze cell holds a trap.
+     * @param enemyChance Probability that a maze cell holds an enemy.
+     * @param keyChance   Probability that a maze cell holds a key.
+     */
+    public FeaturePlacer(MazeRowSink target, long seed, double trapChance, double enemyChance, double keyChance) {
+        if (trapChance + enemyChance + keyChance > 1) {
+            throw new IllegalArgumentException("Feature chances add up to more than 1");
+        }
+        this.target = target;
+        this.random = new SplittableRandom(seed);
+        this.trapChance = trapChance;
+        this.enemyChance = enemyChance;
+        this.keyChance = keyChance;
+    }
+
+    @Override
+    public void begin(int width, int height) throws IOException {
+        this.width = width;
+        this.height = height;
+        this.keyCount = 0;
+        target.begin(width, height);
+    }
+
+    @Override
+    public void row(int y, byte[] tiles) throws IOException {
+        if (y == 0) {
+            tiles[1] = MapGrid.ENTRY; // Below the first cell
+        } else if (y == height - 1) {
+            tiles[width - 2] = MapGrid.EXIT; // Above the last cell
+        } else if (y % 2 == 1) {
+            placeOnCells(y, tiles);
+        }
+        target.row(y, tiles);
+    }
+
+    private void placeOnCells(int y, byte[] tiles) {
+        boolean entryCell = y == 1;
+        for (int x = 1; x < width - 1; x += 2) {
+            if (entryCell && x == 1) {
+                continue; // Keep the start free
+            }
+            double roll = random.nextDouble();
+            if (roll < trapChance) {
+                tiles[x] = MapGrid.TRAP;
+            } else if (roll < trapChance + enemyChance) {
+                tiles[x] = MapGrid.ENEMY;
+            } else if (roll < trapChance + enemyChance + keyChance) {
+                tiles[x] = MapGrid.KEY;
+                keyCount++;
+            }
+        }
+        if (y == height - 2 && keyCount == 0) {
+            // Last row of cells and no key yet: the cell before the exit gets one
+            tiles[width - 2] = MapGrid.KEY;
+            keyCount++;
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        target.end();
+    }
+}
@@ -0,0 +1,42 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+/**
+ * Collects the rows of a maze into a {@link MapGrid}, to play a generated maze without writing it to a file.
+ */
+public class GridCollector implements MazeRowSink {
+    private int width;
+    private int height;
+    private byte[] tiles;
+    private MapGrid grid;
+
+    @Override
+    public void begin(int width, int height) {
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze of " + width + "x" + height + " tiles does not fit into a MapGrid");
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = new byte[width * height];
+        this.grid = null;
+    }
+
+    @Override
+    public void row(int y, byte[] row) {
+        System.arraycopy(row, 0, tiles, y * width, width);
+    }
+
+    @Override
+    public void end() {
+        grid = new MapGrid(width, height, tiles);
+        tiles = null;
+    }
+
+    /**
+     * The collected maze, or null before {@link #end()}.
+     */
+    public MapGrid getGrid() {
+        return grid;
+    }
+}
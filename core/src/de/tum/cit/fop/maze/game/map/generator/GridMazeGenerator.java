@@ -0,0 +1,75 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Base class of generators that need the whole maze in memory: they carve passages into a
+ * tile array, which is then handed to the sink row by row.
+ */
+abstract class GridMazeGenerator implements MazeGenerator {
+
+    // Cell offsets of the four directions: east, north, west, south
+    static final int[] DX = {1, 0, -1, 0};
+    static final int[] DY = {0, 1, 0, -1};
+
+    @Override
+    public void generate(int columns, int rows, long seed, MazeRowSink sink) throws IOException {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Maze must have at least one cell");
+        }
+        int width = 2 * columns + 1;
+        int height = 2 * rows + 1;
+        byte[] tiles = new byte[width * height];
+        Arrays.fill(tiles, MapGrid.WALL);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                tiles[(2 * row + 1) * width + 2 * column + 1] = MapGrid.EMPTY;
+            }
+        }
+
+        carve(tiles, columns, rows, new SplittableRandom(seed));
+
+        sink.begin(width, height);
+        byte[] row = new byte[width];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(tiles, y * width, row, 0, width);
+            sink.row(y, row);
+        }
+        sink.end();
+    }
+
+    /**
+     * Opens the walls between connected cells.
+     *
+     * @param tiles   The tile grid; all cells are open, all walls closed.
+     * @param columns The number of cells per row.
+     * @param rows    The number of cell rows.
+     */
+    abstract void carve(byte[] tiles, int columns, int rows, SplittableRandom random);
+
+    /**
+     * Opens the wall between a cell and its neighbour in the given direction.
+     */
+    static void openWall(byte[] tiles, int columns, int cell, int direction) {
+        int width = 2 * columns + 1;
+        int x = 2 * (cell % columns) + 1 + DX[direction];
+        int y = 2 * (cell / columns) + 1 + DY[direction];
+        tiles[y * width + x] = MapGrid.EMPTY;
+    }
+
+    /**
+     * Returns the neighbour of a cell in the given direction, or -1 at the border.
+     */
+    static int neighbour(int cell, int direction, int columns, int rows) {
+        int x = cell % columns + DX[direction];
+        int y = cell / columns + DY[direction];
+        if (x < 0 || y < 0 || x >= columns || y >= rows) {
+            return -1;
+        }
+        return y * columns + x;
+    }
+}
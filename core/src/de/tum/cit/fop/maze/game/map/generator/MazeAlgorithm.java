@@ -0,0 +1,36 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+/**
+ * The available maze generators, selectable by name from the command line.
+ */
+public enum MazeAlgorithm {
+    BACKTRACKER,
+    WILSON,
+    ELLER;
+
+    /**
+     * Creates a new generator of this kind.
+     */
+    public MazeGenerator create() {
+        switch (this) {
+            case BACKTRACKER:
+                return new RecursiveBacktrackerGenerator();
+            case WILSON:
+                return new WilsonGenerator();
+            default:
+                return new EllerGenerator();
+        }
+    }
+
+    /**
+     * Looks up an algorithm by its name, ignoring case.
+     */
+    public static MazeAlgorithm byName(String name) {
+        for (MazeAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown maze algorithm " + name);
+    }
+}
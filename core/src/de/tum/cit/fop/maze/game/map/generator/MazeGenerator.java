@@ -0,0 +1,21 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import java.io.IOException;
+
+/**
+ * Generates a perfect maze (exactly one path between any two cells).
+ * A maze of {@code columns x rows} cells is laid out on a tile grid of {@code (2 * columns + 1) x (2 * rows + 1)}:
+ * cells sit on odd coordinates, the tiles between them are walls or passages, and the border is wall.
+ */
+public interface MazeGenerator {
+
+    /**
+     * Generates a maze and passes its rows to the sink. The same seed always gives the same maze.
+     *
+     * @param columns The number of cells per row.
+     * @param rows    The number of cell rows.
+     * @param seed    The random seed.
+     * @param sink    Receives the tile rows, walls as {@code MapGrid.WALL} and passages as {@code MapGrid.EMPTY}.
+     */
+    void generate(int columns, int rows, long seed, MazeRowSink sink) throws IOException;
+}
@@ -0,0 +1,33 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import java.io.IOException;
+
+/**
+ * Receives a generated maze one row of tiles at a time, from the bottom row ({@code y = 0}) upwards.
+ * Rows are handed over as they are produced, so a generator that streams rows never has to hold
+ * the whole maze in memory.
+ */
+public interface MazeRowSink {
+
+    /**
+     * Called once before the first row.
+     *
+     * @param width  The width of the maze in tiles.
+     * @param height The height of the maze in tiles.
+     */
+    void begin(int width, int height) throws IOException;
+
+    /**
+     * Called for every row in order of increasing y.
+     *
+     * @param y     The row index.
+     * @param tiles The tile types of the row, {@link de.tum.cit.fop.maze.game.map.MapGrid} constants.
+     *              The array is reused for the next row, copy it to keep it.
+     */
+    void row(int y, byte[] tiles) throws IOException;
+
+    /**
+     * Called once after the last row.
+     */
+    void end() throws IOException;
+}
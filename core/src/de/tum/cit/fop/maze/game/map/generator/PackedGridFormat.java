@@ -0,0 +1,69 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compact binary form of a generated maze: the magic {@code "MZG1"}, the width and height as
+ * big-endian ints, then one tile byte per cell in row-major order from the bottom row up.
+ * About a fifth of the size of the properties text, and read without parsing.
+ */
+public final class PackedGridFormat {
+    public static final int MAGIC = 0x4D5A4731; // "MZG1"
+
+    private PackedGridFormat() {
+    }
+
+    /**
+     * Reads a packed maze. The stream is not closed.
+     *
+     * @throws IOException If the stream ends early or does not hold a packed maze.
+     */
+    public static MapGrid read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a packed maze");
+        }
+        int width = data.readInt();
+        int height = data.readInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IOException("Invalid maze size " + width + "x" + height);
+        }
+        byte[] tiles = new byte[width * height];
+        data.readFully(tiles);
+        return new MapGrid(width, height, tiles);
+    }
+
+    /**
+     * Writes the rows of a maze in the packed form as they arrive. The stream is not closed.
+     */
+    public static class Writer implements MazeRowSink {
+        private final DataOutputStream out;
+
+        public Writer(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        @Override
+        public void begin(int width, int height) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(width);
+            out.writeInt(height);
+        }
+
+        @Override
+        public void row(int y, byte[] tiles) throws IOException {
+            out.write(tiles);
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+        }
+    }
+}
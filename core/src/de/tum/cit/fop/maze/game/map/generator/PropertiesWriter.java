@@ -0,0 +1,85 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a maze in the format of the maps/level-N.properties files: the {@code Width=} and
+ * {@code Height=} lines followed by one {@code x,y=type} line per non-empty tile, as read by
+ * {@link de.tum.cit.fop.maze.game.map.MapGridParser}. The lines are encoded by hand into a byte
+ * buffer, so writing a row produces no garbage. The stream is not closed.
+ */
+public class PropertiesWriter implements MazeRowSink {
+    private final OutputStream out;
+    private final byte[] buffer = new byte[64 * 1024];
+    private final byte[] digits = new byte[11];
+    private int length;
+
+    public PropertiesWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(int width, int height) throws IOException {
+        length = 0;
+        writeAscii("Width=");
+        writeInt(width);
+        writeByte('\n');
+        writeAscii("Height=");
+        writeInt(height);
+        writeByte('\n');
+    }
+
+    @Override
+    public void row(int y, byte[] tiles) throws IOException {
+        for (int x = 0; x < tiles.length; x++) {
+            byte type = tiles[x];
+            if (type == MapGrid.EMPTY) {
+                continue;
+            }
+            if (length > buffer.length - 32) {
+                flush();
+            }
+            writeInt(x);
+            writeByte(',');
+            writeInt(y);
+            writeByte('=');
+            writeInt(type);
+            writeByte('\n');
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        flush();
+        out.flush();
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    private void writeAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    private void writeInt(int value) {
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            buffer[length++] = digits[--count];
+        }
+    }
+
+    private void writeByte(int c) {
+        buffer[length++] = (byte) c;
+    }
+}
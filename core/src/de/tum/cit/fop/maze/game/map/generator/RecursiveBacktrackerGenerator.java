@@ -0,0 +1,43 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Randomized depth-first search: walks to a random unvisited neighbour until it is stuck, then
+ * backtracks. Produces long, winding corridors with few dead ends. The recursion is replaced by an
+ * explicit stack, so large mazes do not overflow the call stack.
+ */
+public class RecursiveBacktrackerGenerator extends GridMazeGenerator {
+
+    @Override
+    void carve(byte[] tiles, int columns, int rows, SplittableRandom random) {
+        int cellCount = columns * rows;
+        boolean[] visited = new boolean[cellCount];
+        int[] stack = new int[cellCount];
+        int[] options = new int[4];
+        int top = 0;
+
+        int start = random.nextInt(cellCount);
+        visited[start] = true;
+        stack[top++] = start;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int count = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbour(cell, direction, columns, rows);
+                if (next >= 0 && !visited[next]) {
+                    options[count++] = direction;
+                }
+            }
+            if (count == 0) {
+                top--;
+                continue;
+            }
+            int direction = options[random.nextInt(count)];
+            int next = neighbour(cell, direction, columns, rows);
+            openWall(tiles, columns, cell, direction);
+            visited[next] = true;
+            stack[top++] = next;
+        }
+    }
+}
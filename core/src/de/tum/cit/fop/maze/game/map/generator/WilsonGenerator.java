@@ -0,0 +1,44 @@
+package de.tum.cit.fop.maze.game.map.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Wilson's algorithm: loop-erased random walks from every cell not yet in the maze until they hit it.
+ * Every possible maze is equally likely, so there is no directional bias. The first walks are long,
+ * which makes it the slowest of the generators.
+ */
+public class WilsonGenerator extends GridMazeGenerator {
+
+    @Override
+    void carve(byte[] tiles, int columns, int rows, SplittableRandom random) {
+        int cellCount = columns * rows;
+        boolean[] inMaze = new boolean[cellCount];
+        // Direction taken when the walk last left a cell; overwriting it erases loops
+        byte[] exit = new byte[cellCount];
+
+        inMaze[random.nextInt(cellCount)] = true;
+        for (int start = 0; start < cellCount; start++) {
+            if (inMaze[start]) {
+                continue;
+            }
+            int cell = start;
+            while (!inMaze[cell]) {
+                int direction;
+                int next;
+                do {
+                    direction = random.nextInt(4);
+                    next = neighbour(cell, direction, columns, rows);
+                } while (next < 0);
+                exit[cell] = (byte) direction;
+                cell = next;
+            }
+            // Add the loop-erased path to the maze
+            cell = start;
+            while (!inMaze[cell]) {
+                inMaze[cell] = true;
+                openWall(tiles, columns, cell, exit[cell]);
+                cell = neighbour(cell, exit[cell], columns, rows);
+            }
+        }
+    }
+}
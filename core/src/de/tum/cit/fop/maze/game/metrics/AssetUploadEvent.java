@@ -0,0 +1,31 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Creating a texture or animation that was not cached yet, on the thread that needs it.
+ */
+@Name("de.tum.cit.fop.maze.AssetUpload")
+@Label("Asset Upload")
+@Category({"Maze Runner", "Loading"})
+@Description("A texture uploaded to the GPU or an animation cut from a sprite sheet")
+public class AssetUploadEvent extends Event {
+    public static final String TEXTURE = "Texture";
+    public static final String ANIMATION = "Animation";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Size")
+    @Description("Estimated video memory of a texture, 0 for animations")
+    @DataAmount
+    public long bytes;
+}
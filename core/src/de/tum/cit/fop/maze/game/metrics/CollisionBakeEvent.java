@@ -0,0 +1,22 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Merging the wall cells of a level grid into wall rectangles.
+ */
+@Name("de.tum.cit.fop.maze.CollisionBake")
+@Label("Collision Bake")
+@Category({"Maze Runner", "Loading"})
+@Description("Merging wall cells into wall rectangles")
+public class CollisionBakeEvent extends Event {
+    @Label("Solid Cells")
+    public int solidCells;
+
+    @Label("Rectangles")
+    public int rectangles;
+}
@@ -0,0 +1,73 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one CSV row per frame: the frame number, every timer in microseconds, every counter, the
+ * collections, and the bytes the render thread and the simulation thread allocated during the frame.
+ * The columns are fixed by the first frame; timers and counters created later are not written.
+ */
+public class CsvMetricsWriter implements MetricsSink, AutoCloseable {
+    private final Writer out;
+    private int timerColumns = -1;
+    private int counterColumns;
+
+    public CsvMetricsWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+    }
+
+    @Override
+    public void frame(MetricsRegistry metrics) {
+        Array<MetricsRegistry.Timer> timers = metrics.getTimers();
+        Array<MetricsRegistry.Counter> counters = metrics.getCounters();
+        try {
+            if (timerColumns < 0) {
+                timerColumns = timers.size;
+                counterColumns = counters.size;
+                out.write("frame");
+                for (int i = 0; i < timerColumns; i++) {
+                    out.write(',');
+                    out.write(timers.get(i).getName());
+                    out.write("_us");
+                }
+                for (int i = 0; i < counterColumns; i++) {
+                    out.write(',');
+                    out.write(counters.get(i).getName());
+                }
+                out.write(",gc_collections,gc_ms,allocated_bytes,sim_allocated_bytes\n");
+            }
+
+            out.write(Long.toString(metrics.getFrameCount()));
+            for (int i = 0; i < timerColumns; i++) {
+                out.write(',');
+                out.write(Long.toString(timers.get(i).getLastNanos() / 1000));
+            }
+            for (int i = 0; i < counterColumns; i++) {
+                out.write(',');
+                out.write(Long.toString(counters.get(i).getLastValue()));
+            }
+            GcMonitor gc = metrics.getGc();
+            out.write(',');
+            out.write(Long.toString(gc.getFrameCollections()));
+            out.write(',');
+            out.write(Long.toString(gc.getFrameCollectionMillis()));
+            out.write(',');
+            out.write(Long.toString(gc.getFrameAllocatedBytes()));
+            out.write(',');
+            out.write(Long.toString(gc.getFrameSimulationAllocatedBytes()));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write metrics", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,30 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One rendered frame of the game screen, from the start of its render call to the end.
+ */
+@Name("de.tum.cit.fop.maze.Frame")
+@Label("Frame")
+@Category({"Maze Runner", "Game Loop"})
+@Description("A frame rendered by the game screen")
+public class FrameEvent extends Event {
+    @Label("Ticks")
+    @Description("Simulation ticks run during the frame")
+    public int ticks;
+
+    @Label("Draw Calls")
+    public int drawCalls;
+
+    @Label("Texture Bindings")
+    public int textureBindings;
+
+    @Label("Visible Objects")
+    @Description("Game objects and mobs drawn")
+    public int visibleObjects;
+}
@@ -0,0 +1,162 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Garbage collections and heap allocation of the render thread and the simulation thread, sampled once
+ * per frame. Allocation is read from the HotSpot extension of the thread bean; on JVMs without it the
+ * allocation figures stay 0.
+ */
+public class GcMonitor {
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean allocations;
+
+    private long lastCollections = -1;
+    private long lastCollectionMillis;
+    private long lastAllocatedBytes = -1;
+    private volatile long simulationThreadId = -1;
+    private long sampledSimulationThreadId = -1;
+    private long lastSimulationAllocatedBytes = -1;
+
+    private long frameCollections;
+    private long frameCollectionMillis;
+    private long frameAllocatedBytes;
+    private long totalCollections;
+    private float allocationRate; // Bytes per second, smoothed over about a second
+    private long frameSimulationAllocatedBytes;
+    private float simulationAllocationRate;
+
+    public GcMonitor() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = null;
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocations = (com.sun.management.ThreadMXBean) threads;
+            allocations.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.allocations = allocations;
+    }
+
+    /**
+     * Sets the thread whose allocation is sampled besides the render thread's, since the ticks allocate
+     * there. May be called from any thread.
+     *
+     * @param threadId The id of the simulation thread, or -1 if it is stopped.
+     */
+    public void setSimulationThread(long threadId) {
+        simulationThreadId = threadId;
+    }
+
+    /**
+     * Takes the collections and allocations since the previous call. Must run on the render thread.
+     *
+     * @param frameNanos The time since the previous call.
+     */
+    void sample(long frameNanos) {
+        long collections = 0;
+        long collectionMillis = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            collections += Math.max(0, collector.getCollectionCount());
+            collectionMillis += Math.max(0, collector.getCollectionTime());
+        }
+        if (lastCollections >= 0) {
+            frameCollections = collections - lastCollections;
+            frameCollectionMillis = collectionMillis - lastCollectionMillis;
+            totalCollections += frameCollections;
+        }
+        lastCollections = collections;
+        lastCollectionMillis = collectionMillis;
+
+        if (allocations == null) {
+            return;
+        }
+        long allocated = allocations.getCurrentThreadAllocatedBytes();
+        if (lastAllocatedBytes >= 0) {
+            frameAllocatedBytes = allocated - lastAllocatedBytes;
+            allocationRate = smooth(allocationRate, frameAllocatedBytes, frameNanos);
+        }
+        lastAllocatedBytes = allocated;
+
+        long threadId = simulationThreadId;
+        if (threadId != sampledSimulationThreadId) {
+            sampledSimulationThreadId = threadId;
+            lastSimulationAllocatedBytes = -1;
+            frameSimulationAllocatedBytes = 0;
+        }
+        // -1 while there is no simulation thread or it has died
+        long simulationAllocated = threadId >= 0 ? allocations.getThreadAllocatedBytes(threadId) : -1;
+        if (simulationAllocated >= 0 && lastSimulationAllocatedBytes >= 0) {
+            frameSimulationAllocatedBytes = simulationAllocated - lastSimulationAllocatedBytes;
+            simulationAllocationRate = smooth(simulationAllocationRate, frameSimulationAllocatedBytes, frameNanos);
+        } else if (simulationAllocated < 0) {
+            frameSimulationAllocatedBytes = 0;
+        }
+        lastSimulationAllocatedBytes = simulationAllocated;
+    }
+
+    private static float smooth(float average, long bytes, long frameNanos) {
+        if (frameNanos <= 0) {
+            return average;
+        }
+        float rate = bytes * 1e9f / frameNanos;
+        float weight = Math.min(1f, frameNanos / 1e9f);
+        return average + (rate - average) * weight;
+    }
+
+    /**
+     * Collections of any collector that finished during the last frame.
+     */
+    public long getFrameCollections() {
+        return frameCollections;
+    }
+
+    /**
+     * Time the collectors reported for the last frame, in milliseconds.
+     */
+    public long getFrameCollectionMillis() {
+        return frameCollectionMillis;
+    }
+
+    /**
+     * Collections since the monitor was created.
+     */
+    public long getTotalCollections() {
+        return totalCollections;
+    }
+
+    /**
+     * Bytes the render thread allocated during the last frame.
+     */
+    public long getFrameAllocatedBytes() {
+        return frameAllocatedBytes;
+    }
+
+    /**
+     * Bytes per second the render thread allocates, averaged over about a second.
+     */
+    public float getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * Bytes the simulation thread allocated during the last frame, 0 while it is stopped.
+     */
+    public long getFrameSimulationAllocatedBytes() {
+        return frameSimulationAllocatedBytes;
+    }
+
+    /**
+     * Bytes per second the simulation thread allocates, averaged over about a second.
+     */
+    public float getSimulationAllocationRate() {
+        return simulationAllocationRate;
+    }
+
+    public boolean isAllocationSupported() {
+        return allocations != null;
+    }
+}
@@ -0,0 +1,28 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading a level, from reading its files until its map can be drawn. A background load spans several
+ * frames and threads; the event is committed by the render thread that finishes it.
+ */
+@Name("de.tum.cit.fop.maze.LevelLoad")
+@Label("Level Load")
+@Category({"Maze Runner", "Loading"})
+@Description("Loading the map, grid and walls of a level")
+public class LevelLoadEvent extends Event {
+    @Label("Map")
+    public String map;
+
+    @Label("Compiled")
+    @Description("Whether the level was loaded from its compiled blob")
+    public boolean compiled;
+
+    @Label("Background")
+    @Description("Whether the level was loaded behind the menu")
+    public boolean background;
+}
@@ -0,0 +1,69 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Draws the metrics of a registry as text: the p50 and p99 of every timer over the recorded frames,
+ * the counters of the last frame, and the garbage collector and allocation figures.
+ * The text is built in a reused buffer, so drawing the overlay does not allocate.
+ */
+public class MetricsOverlay {
+    private final MetricsRegistry metrics;
+    private final StringBuilder line = new StringBuilder(96);
+
+    public MetricsOverlay(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Draws the overlay downwards from the given top left corner. The batch must have been begun.
+     */
+    public void draw(SpriteBatch batch, BitmapFont font, float x, float y) {
+        float lineHeight = font.getLineHeight();
+        Array<MetricsRegistry.Timer> timers = metrics.getTimers();
+        for (int i = 0; i < timers.size; i++) {
+            MetricsRegistry.Timer timer = timers.get(i);
+            line.setLength(0);
+            line.append(timer.getName()).append("  p50 ");
+            appendMillis(timer.getPercentileNanos(50));
+            line.append("  p99 ");
+            appendMillis(timer.getPercentileNanos(99));
+            line.append(" ms");
+            font.draw(batch, line, x, y);
+            y -= lineHeight;
+        }
+
+        line.setLength(0);
+        Array<MetricsRegistry.Counter> counters = metrics.getCounters();
+        for (int i = 0; i < counters.size; i++) {
+            MetricsRegistry.Counter counter = counters.get(i);
+            if (i > 0) {
+                line.append("  ");
+            }
+            line.append(counter.getName()).append(' ').append(counter.getLastValue());
+        }
+        font.draw(batch, line, x, y);
+        y -= lineHeight;
+
+        GcMonitor gc = metrics.getGc();
+        line.setLength(0);
+        line.append("GCs ").append(gc.getTotalCollections());
+        if (gc.isAllocationSupported()) {
+            line.append("  alloc ").append((int) (gc.getAllocationRate() / 1024))
+                    .append(" + sim ").append((int) (gc.getSimulationAllocationRate() / 1024)).append(" KB/s");
+        }
+        font.draw(batch, line, x, y);
+    }
+
+    private void appendMillis(long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        line.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+}
@@ -0,0 +1,231 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Arrays;
+
+/**
+ * Named timers and counters sampled once per rendered frame.
+ * Timers add up the time of every section measured during a frame, counters hold a per-frame value.
+ * {@link #endFrame(long)} closes the frame: every timer and counter moves its value into a ring of
+ * the last {@link #HISTORY} frames, from which the percentiles are read, and the frame is passed
+ * to the {@link MetricsSink}s.
+ * <p>
+ * Timers and counters are created on first use and kept for the lifetime of the registry, so callers
+ * look them up once and keep the reference. Recording a frame allocates nothing.
+ * Only the render thread may use a registry.
+ */
+public class MetricsRegistry {
+    public static final int HISTORY = 240; // Frames kept for the percentiles, 4 seconds at 60 fps
+
+    /**
+     * Time spent in a section of the frame. Start and stop it around the section; a section that runs
+     * several times per frame, like a physics step per tick, adds up.
+     */
+    public static class Timer {
+        private final String name;
+        private final long[] samples = new long[HISTORY];
+        private final long[] sorted = new long[HISTORY];
+        private int sampleCount;
+        private int next;
+        private boolean sortedValid;
+        private long frameNanos;
+        private long startedAt = -1;
+
+        Timer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void start() {
+            startedAt = System.nanoTime();
+        }
+
+        public void stop() {
+            if (startedAt >= 0) {
+                frameNanos += System.nanoTime() - startedAt;
+                startedAt = -1;
+            }
+        }
+
+        /**
+         * Adds time measured elsewhere to the current frame.
+         */
+        public void add(long nanos) {
+            frameNanos += nanos;
+        }
+
+        void endFrame() {
+            samples[next] = frameNanos;
+            next = (next + 1) % HISTORY;
+            sampleCount = Math.min(sampleCount + 1, HISTORY);
+            sortedValid = false;
+            frameNanos = 0;
+        }
+
+        /**
+         * The time of the last completed frame.
+         */
+        public long getLastNanos() {
+            return sampleCount == 0 ? 0 : samples[(next + HISTORY - 1) % HISTORY];
+        }
+
+        /**
+         * The time below which the given share of the recorded frames stayed.
+         *
+         * @param percentile Between 0 and 100.
+         */
+        public long getPercentileNanos(float percentile) {
+            if (sampleCount == 0) {
+                return 0;
+            }
+            if (!sortedValid) {
+                System.arraycopy(samples, 0, sorted, 0, sampleCount);
+                Arrays.sort(sorted, 0, sampleCount);
+                sortedValid = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100f * sampleCount) - 1;
+            return sorted[Math.max(0, Math.min(sampleCount - 1, rank))];
+        }
+    }
+
+    /**
+     * A value per frame, like draw calls or live entities. It is reset to 0 when the frame ends.
+     */
+    public static class Counter {
+        private final String name;
+        private long value;
+        private long lastValue;
+
+        Counter(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void set(long value) {
+            this.value = value;
+        }
+
+        public void add(long amount) {
+            value += amount;
+        }
+
+        void endFrame() {
+            lastValue = value;
+            value = 0;
+        }
+
+        /**
+         * The value of the last completed frame.
+         */
+        public long getLastValue() {
+            return lastValue;
+        }
+    }
+
+    private final Array<Timer> timers = new Array<>();
+    private final Array<Counter> counters = new Array<>();
+    private final ObjectMap<String, Timer> timersByName = new ObjectMap<>();
+    private final ObjectMap<String, Counter> countersByName = new ObjectMap<>();
+    private final Array<MetricsSink> sinks = new Array<>();
+    private final Timer frame;
+    private final GcMonitor gc = new GcMonitor();
+    private long frameCount;
+
+    public MetricsRegistry() {
+        frame = timer("frame");
+    }
+
+    /**
+     * Returns the timer with this name, creating it on first use.
+     */
+    public Timer timer(String name) {
+        Timer timer = timersByName.get(name);
+        if (timer == null) {
+            timer = new Timer(name);
+            timersByName.put(name, timer);
+            timers.add(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Returns the counter with this name, creating it on first use.
+     */
+    public Counter counter(String name) {
+        Counter counter = countersByName.get(name);
+        if (counter == null) {
+            counter = new Counter(name);
+            countersByName.put(name, counter);
+            counters.add(counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Closes the current frame and hands it to the sinks.
+     *
+     * @param frameNanos The time since the previous frame.
+     */
+    public void endFrame(long frameNanos) {
+        frame.add(frameNanos);
+        gc.sample(frameNanos);
+        for (int i = 0; i < timers.size; i++) {
+            timers.get(i).endFrame();
+        }
+        for (int i = 0; i < counters.size; i++) {
+            counters.get(i).endFrame();
+        }
+        frameCount++;
+        for (int i = 0; i < sinks.size; i++) {
+            sinks.get(i).frame(this);
+        }
+    }
+
+    public void addSink(MetricsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(MetricsSink sink) {
+        sinks.removeValue(sink, true);
+    }
+
+    /**
+     * The time between frames; its percentiles are the frame times the player sees.
+     */
+    public Timer getFrameTimer() {
+        return frame;
+    }
+
+    /**
+     * All timers in the order they were created, starting with the {@link #getFrameTimer() frame timer}.
+     */
+    public Array<Timer> getTimers() {
+        return timers;
+    }
+
+    /**
+     * All counters in the order they were created.
+     */
+    public Array<Counter> getCounters() {
+        return counters;
+    }
+
+    public GcMonitor getGc() {
+        return gc;
+    }
+
+    /**
+     * Number of frames ended so far.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+}
@@ -0,0 +1,11 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+/**
+ * Receives every frame closed by a {@link MetricsRegistry}, to export it for offline analysis.
+ */
+public interface MetricsSink {
+    /**
+     * Called on the render thread after the frame's values became the last values of the timers and counters.
+     */
+    void frame(MetricsRegistry metrics);
+}
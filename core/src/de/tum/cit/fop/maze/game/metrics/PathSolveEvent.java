@@ -0,0 +1,30 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One budgeted step of a path search, either the A* search of a single enemy or the flow field
+ * shared by all of them. Steps that have nothing to do are not recorded.
+ */
+@Name("de.tum.cit.fop.maze.PathSolve")
+@Label("Path Solve")
+@Category({"Maze Runner", "Game Loop"})
+@Description("A budgeted step of a path search")
+public class PathSolveEvent extends Event {
+    public static final String A_STAR = "A*";
+    public static final String FLOW_FIELD = "Flow field";
+
+    @Label("Search")
+    public String search;
+
+    @Label("Expanded Cells")
+    public int expandedCells;
+
+    @Label("Finished")
+    @Description("Whether the search was completed by this step")
+    public boolean finished;
+}
@@ -0,0 +1,23 @@
+package de.tum.cit.fop.maze.game.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One fixed tick of the game logic: physics, player, enemies and pickups.
+ */
+@Name("de.tum.cit.fop.maze.SimulationTick")
+@Label("Simulation Tick")
+@Category({"Maze Runner", "Game Loop"})
+@Description("A fixed step of the game simulation")
+public class TickEvent extends Event {
+    @Label("Tick")
+    @Description("Number of the tick since the level was loaded")
+    public long tick;
+
+    @Label("Mobs")
+    public int mobs;
+}
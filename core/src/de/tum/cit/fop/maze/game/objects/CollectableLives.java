@@ -1,5 +1,7 @@
 package de.tum.cit.fop.maze.game.objects;
 
+import de.tum.cit.fop.maze.game.events.EventBus;
+
 public class CollectableLives extends StaticGameObject implements Interactable {
     private final int index;
     private static final int LIVES_INCREMENT = 1; // Number of lives added when collected
@@ -10,7 +12,7 @@ public CollectableLives(float x, float y, float width, float height, String text
     }
 
     @Override
-    public void interact(Player player, GameState gameState) {
+    public void interact(Player player, GameState gameState, EventBus events) {
         // Add lives to player
         player.addLives(LIVES_INCREMENT);
         // Mark this item as collected in the game state
@@ -1,5 +1,7 @@
 package de.tum.cit.fop.maze.game.objects;
 
+import de.tum.cit.fop.maze.game.events.EventBus;
+
 public class CollectablePowerUp extends StaticGameObject implements Interactable {
     private final int index;
     private String powerUpType; // Example: "SpeedBoost", "Shield"
@@ -11,12 +13,13 @@ public CollectablePowerUp(float x, float y, float width, float height, String te
     }
 
     @Override
-    public void interact(Player player, GameState gameState) {
+    public void interact(Player player, GameState gameState, EventBus events) {
         // Apply power-up effect to the player
         player.activatePowerUp(powerUpType);
         // Mark this item as collected in the game state
         gameState.markPowerUpCollected(this.index);
-        // Optionally, trigger power-up effects or sounds here
+        // Effects and sounds listen for it
+        events.powerUpActivated.post().set(powerUpType);
     }
 
     public String getPowerUpType() {
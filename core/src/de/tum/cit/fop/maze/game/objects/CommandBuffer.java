@@ -0,0 +1,83 @@
+package de.tum.cit.fop.maze.game.objects;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.events.EventBus;
+
+/**
+ * Side effects of entity updates on shared state, recorded instead of applied so that entities can be
+ * updated on several threads at once. Every batch of entities writes into its own buffer; the buffers are
+ * applied afterwards on one thread, in batch order, which makes the outcome independent of the threads.
+ * <p>
+ * Commands are kept in parallel arrays that are reused after {@link #apply}, so recording allocates
+ * nothing once the buffer has grown to its working size.
+ */
+public class CommandBuffer {
+    private static final int DAMAGE_PLAYER = 0;
+    private static final int SYNC_SPATIAL_INDEX = 1;
+
+    private final IntArray types = new IntArray();
+    private final IntArray amounts = new IntArray();
+    private final Array<Object> targets = new Array<>();
+
+    /**
+     * Records {@link Player#takeDamage(String, int)} with the given source and amount.
+     */
+    public void damagePlayer(String source, int amount) {
+        add(DAMAGE_PLAYER, amount, source);
+    }
+
+    /**
+     * Records that an object moved and its entry in the spatial index must follow it.
+     */
+    public void moved(GameObject object) {
+        add(SYNC_SPATIAL_INDEX, 0, object);
+    }
+
+    private void add(int type, int amount, Object target) {
+        types.add(type);
+        amounts.add(amount);
+        targets.add(target);
+    }
+
+    /**
+     * Applies the recorded commands in the order they were recorded and empties the buffer.
+     *
+     * @param player The player that damage goes to.
+     * @param events Where damage that hit the player is reported.
+     */
+    public void apply(Player player, EventBus events) {
+        for (int i = 0; i < types.size; i++) {
+            switch (types.get(i)) {
+                case DAMAGE_PLAYER:
+                    damage(player, (String) targets.get(i), amounts.get(i), events);
+                    break;
+                case SYNC_SPATIAL_INDEX:
+                    ((GameObject) targets.get(i)).syncSpatialIndex();
+                    break;
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Deals damage to the player and reports it if the player still had hearts to lose.
+     */
+    public static void damage(Player player, String source, int amount, EventBus events) {
+        int hearts = player.getHearts();
+        player.takeDamage(source, amount);
+        if (player.getHearts() != hearts) {
+            events.damageTaken.post().set(source, amount, player.getHearts());
+        }
+    }
+
+    public void clear() {
+        types.clear();
+        amounts.clear();
+        targets.clear();
+    }
+
+    public int size() {
+        return types.size;
+    }
+}
@@ -1,9 +1,17 @@
 package de.tum.cit.fop.maze.game.objects;
 
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import de.tum.cit.fop.maze.game.physics.PhysicsWorld;
 
 public class DynamicGameObject extends GameObject {
     protected Vector2 velocity;
+    // Position at the start of the current simulation tick, used to interpolate rendering between ticks
+    protected final Vector2 previousPosition = new Vector2();
+    // Set when a collision engine moves the object; update() then only decides the velocity
+    protected boolean collides;
+    // The object's body if the engine is the Box2D physics world
+    protected Body body;
 
     /**
      * Constructor to initialize a dynamic game object.
@@ -17,6 +25,31 @@ public class DynamicGameObject extends GameObject {
     public DynamicGameObject(float x, float y, float width, float height, String texturePath) {
         super(x, y, width, height, texturePath);
         this.velocity = new Vector2(0, 0);
+        this.previousPosition.set(x, y);
+    }
+
+    /**
+     * Remembers the current position as the start of the next simulation tick.
+     * Must be called before the object is updated.
+     */
+    public void storePreviousPosition() {
+        previousPosition.set(position);
+    }
+
+    /**
+     * @param alpha The fraction of a tick that has passed since the last update.
+     * @return The x-coordinate to draw the object at.
+     */
+    public float getInterpolatedX(float alpha) {
+        return previousPosition.x + (position.x - previousPosition.x) * alpha;
+    }
+
+    /**
+     * @param alpha The fraction of a tick that has passed since the last update.
+     * @return The y-coordinate to draw the object at.
+     */
+    public float getInterpolatedY(float alpha) {
+        return previousPosition.y + (position.y - previousPosition.y) * alpha;
     }
 
     /**
@@ -26,16 +59,58 @@ public DynamicGameObject(float x, float y, float width, float height, String tex
      */
     public void move(float deltaX, float deltaY) {
         position.add(deltaX, deltaY);
+        syncSpatialIndex();
     }
 
     @Override
     public void update(float deltaTime) {
-        position.mulAdd(velocity, deltaTime);
+        if (!collides) {
+            position.mulAdd(velocity, deltaTime);
+            syncSpatialIndex();
+        }
+    }
+
+    /**
+     * Moves the object as part of its motion, so drawing still interpolates from the previous position,
+     * e.g. to where the collision engine has taken it.
+     */
+    public void placeAt(float x, float y) {
+        position.set(x, y);
+        syncSpatialIndex();
     }
 
     @Override
     public void setPosition(int i, int i1) {
         this.position.set(i, i1);
+        // Teleport, do not interpolate from the old position
+        this.previousPosition.set(position);
+        if (body != null) {
+            PhysicsWorld.placeBody(body, i, i1);
+        }
+        syncSpatialIndex();
+    }
+
+    public Vector2 getVelocity() {
+        return velocity;
+    }
+
+    public Body getBody() {
+        return body;
+    }
+
+    public void setBody(Body body) {
+        this.body = body;
+    }
+
+    public boolean collides() {
+        return collides;
+    }
+
+    /**
+     * Lets a collision engine move the object, or moves it by itself again if false.
+     */
+    public void setCollides(boolean collides) {
+        this.collides = collides;
     }
 
 }
@@ -2,7 +2,10 @@
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.spatial.SpatialHash;
 
 
 
@@ -10,6 +13,11 @@ public abstract class GameObject {
     protected Vector2 position;
     protected float width, height;
     protected Texture texture;
+    protected TextureRegion textureRegion; // Whole image, possibly a region of the sprite atlas
+
+    // Spatial index this object is registered in, if any
+    private SpatialHash<GameObject> spatialIndex;
+    private int spatialHandle = -1;
 
     public float getX() {
         return position.x;
@@ -25,6 +33,7 @@ public Vector2 getPosition() {
 
     public void setPosition(Vector2 position) {
         this.position = position;
+        syncSpatialIndex();
     }
 
     public float getWidth() {
@@ -49,6 +58,7 @@ public Texture getTexture() {
 
     public void setTexture(Texture texture) {
         this.texture = texture;
+        this.textureRegion = new TextureRegion(texture);
     }
 
     /**
@@ -64,7 +74,8 @@ public GameObject(float x, float y, float width, float height, String texturePat
         this.position = new Vector2(x, y);
         this.width = width;
         this.height = height;
-        this.texture = new Texture(texturePath);
+        this.textureRegion = AssetCache.getRegion(texturePath); // Shared with all objects using the same image
+        this.texture = textureRegion.getTexture();
     }
 
     /**
@@ -78,14 +89,47 @@ public GameObject(float x, float y, float width, float height, String texturePat
      * @param batch
      */
     public void render(SpriteBatch batch) {
-        batch.draw(texture, position.x, position.y, width, height);
+        batch.draw(textureRegion, position.x, position.y, width, height);
+    }
+
+    /**
+     * register the object in a spatial index, so it can be found by proximity queries
+     * @param index the index to register in; the object leaves the index it was in before
+     */
+    public void attachTo(SpatialHash<GameObject> index) {
+        detach();
+        spatialIndex = index;
+        spatialHandle = index.insert(this, getX(), getY(), getWidth(), getHeight());
+    }
+
+    /**
+     * remove the object from its spatial index
+     */
+    public void detach() {
+        if (spatialIndex != null) {
+            spatialIndex.remove(spatialHandle);
+            spatialIndex = null;
+            spatialHandle = -1;
+        }
+    }
+
+    /**
+     * push the current bounds to the spatial index, must be called after the object moved
+     */
+    protected void syncSpatialIndex() {
+        if (spatialIndex != null) {
+            spatialIndex.move(spatialHandle, getX(), getY(), getWidth(), getHeight());
+        }
     }
 
     /**
      * dispose object when no longer needed
      */
     public void dispose() {
-        texture.dispose();
+        if (texture != null) {
+            AssetCache.releaseTexture(texture);
+            texture = null;
+        }
     }
 
     public abstract void setPosition(int i, int i1);
@@ -0,0 +1,49 @@
+package de.tum.cit.fop.maze.game.objects;
+
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.function.Supplier;
+
+/**
+ * Free list of game objects of one kind, so spawning and restarting reuse instances instead of
+ * creating them again. Pooled objects keep their textures and animations while they wait in the
+ * free list; only objects dropped by the pool are disposed.
+ * <p>
+ * Contract for pooled objects: {@link Pool.Poolable#reset()} puts the object back to the state of a new
+ * instance apart from its images, and the owner places it again with its {@code spawn} method after
+ * {@link #obtain()}. Freed objects are removed from their spatial index.
+ *
+ * @param <T> The pooled object type.
+ */
+public class GameObjectPool<T extends GameObject & Pool.Poolable> extends Pool<T> {
+    private final Supplier<T> factory;
+
+    /**
+     * @param factory         Creates a new object when the free list is empty.
+     * @param initialCapacity The initial size of the free list.
+     * @param max             The maximum number of free objects kept; more are disposed.
+     */
+    public GameObjectPool(Supplier<T> factory, int initialCapacity, int max) {
+        super(initialCapacity, max);
+        this.factory = factory;
+    }
+
+    @Override
+    protected T newObject() {
+        return factory.get();
+    }
+
+    @Override
+    protected void reset(T object) {
+        object.detach();
+        super.reset(object);
+    }
+
+    /**
+     * Called for objects the pool does not keep, and for all free objects on {@link #clear()}.
+     */
+    @Override
+    protected void discard(T object) {
+        object.dispose();
+    }
+}
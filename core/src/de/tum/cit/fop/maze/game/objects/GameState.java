@@ -1,56 +1,242 @@
 package de.tum.cit.fop.maze.game.objects;
 
+import java.util.Arrays;
+
 //use to track the number of keys (as well as other objects such as collectable lives and power-ups) that should be on the map; for example if the player returns to main menu and come back, the same key should not render the again on the map
+/**
+ * Which collectables of all levels have been collected, one bit per collectable in a {@code long[]}
+ * bitset per kind. Every level owns {@link #PER_LEVEL} bits of each kind, its collectable {@code i} is
+ * {@link #indexInLevel(int, int)}, so the levels do not share bits and a level can be reset on its own.
+ * The number collected is counted along, so {@link #count(int)} is O(1), and
+ * {@link #nextUncollected(int, int)} skips 64 collected ones per step. The bitsets grow when an index
+ * beyond the initial size is collected.
+ * <p>
+ * The 64-bit words that changed since the last {@link #takeChanges(ChangeSink)} are tracked, so the
+ * state can be saved incrementally by a {@link de.tum.cit.fop.maze.game.save.SaveJournal}.
+ */
 public class GameState {
-    private boolean[] keysCollected; // Collectable keys
-    private boolean[] livesCollected; // Collectable lives
-    private boolean[] powerUpsCollected; // Collectable power-ups
+    public static final int KEYS = 0; // Collectable keys
+    public static final int LIVES = 1; // Collectable lives
+    public static final int POWER_UPS = 2; // Collectable power-ups
+    public static final int KINDS = 3;
+    public static final int PER_LEVEL = 64; // Collectables of a kind per level, one word of a bitset
+
+    /**
+     * Receives the words of the bitsets, e.g. to write them to a save file.
+     */
+    public interface ChangeSink {
+        void word(int kind, int wordIndex, long bits);
+    }
+
+    private final long[][] bits = new long[KINDS][];
+    private final long[][] changed = new long[KINDS][]; // One bit per word of bits that changed
+    private final int[] collected = new int[KINDS];
 
+    /**
+     * @param numKeys     The number of keys to reserve room for.
+     * @param numLives    The number of collectable lives to reserve room for.
+     * @param numPowerUps The number of power-ups to reserve room for.
+     */
     public GameState(int numKeys, int numLives, int numPowerUps) {
-        keysCollected = new boolean[numKeys];
-        livesCollected = new boolean[numLives];
-        powerUpsCollected = new boolean[numPowerUps];
+        allocate(KEYS, numKeys);
+        allocate(LIVES, numLives);
+        allocate(POWER_UPS, numPowerUps);
+    }
+
+    private void allocate(int kind, int count) {
+        int words = Math.max(1, (count + 63) >>> 6);
+        bits[kind] = new long[words];
+        changed[kind] = new long[(words + 63) >>> 6];
+    }
+
+    /**
+     * The index of a level's collectable in the bitsets.
+     *
+     * @param level The level number.
+     * @param item  The collectable within the level, below {@link #PER_LEVEL}.
+     */
+    public static int indexInLevel(int level, int item) {
+        return level * PER_LEVEL + item;
+    }
+
+    // Forget everything collected in all levels
+    public void reset() {
+        for (int kind = 0; kind < KINDS; kind++) {
+            long[] words = bits[kind];
+            for (int i = 0; i < words.length; i++) {
+                if (words[i] != 0) {
+                    words[i] = 0;
+                    markChanged(kind, i);
+                }
+            }
+            collected[kind] = 0;
+        }
+    }
+
+    /**
+     * Forgets what was collected in one level, e.g. when it restarts.
+     */
+    public void resetLevel(int level) {
+        for (int kind = 0; kind < KINDS; kind++) {
+            long[] words = bits[kind];
+            if (level < words.length && words[level] != 0) {
+                collected[kind] -= Long.bitCount(words[level]);
+                words[level] = 0;
+                markChanged(kind, level);
+            }
+        }
+    }
+
+    /**
+     * Marks a collectable as collected.
+     *
+     * @return False if it already was.
+     */
+    public boolean collect(int kind, int index) {
+        int word = index >>> 6;
+        if (word >= bits[kind].length) {
+            grow(kind, word + 1);
+        }
+        long mask = 1L << index;
+        long[] words = bits[kind];
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        collected[kind]++;
+        markChanged(kind, word);
+        return true;
+    }
+
+    public boolean isCollected(int kind, int index) {
+        int word = index >>> 6;
+        return word < bits[kind].length && (bits[kind][word] & 1L << index) != 0;
+    }
+
+    /**
+     * The number of collected collectables of a kind.
+     */
+    public int count(int kind) {
+        return collected[kind];
+    }
+
+    /**
+     * The number of collected collectables of a kind in one level.
+     */
+    public int countInLevel(int kind, int level) {
+        return level < bits[kind].length ? Long.bitCount(bits[kind][level]) : 0;
+    }
+
+    /**
+     * The first index at or after {@code from} that has not been collected. Indices past the end of the
+     * bitset have not been collected either.
+     */
+    public int nextUncollected(int kind, int from) {
+        long[] words = bits[kind];
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return from;
+        }
+        long free = ~words[word] & -1L << from;
+        while (free == 0) {
+            if (++word == words.length) {
+                return word << 6;
+            }
+            free = ~words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(free);
     }
 
     public void collectKey(int keyIndex) {
-        keysCollected[keyIndex] = true;
+        collect(KEYS, keyIndex);
     }
 
     // Check if a key has been collected
     public boolean isKeyCollected(int keyIndex) {
-        return keysCollected[keyIndex];
+        return isCollected(KEYS, keyIndex);
     }
 
     // Mark a life as collected
     public void markLifeCollected(int lifeIndex) {
-        livesCollected[lifeIndex] = true;
+        collect(LIVES, lifeIndex);
     }
 
     // Check if a life has been collected
     public boolean isLifeCollected(int lifeIndex) {
-        return livesCollected[lifeIndex];
+        return isCollected(LIVES, lifeIndex);
     }
 
     // Mark a power-up as collected
     public void markPowerUpCollected(int powerUpIndex) {
-        powerUpsCollected[powerUpIndex] = true;
+        collect(POWER_UPS, powerUpIndex);
     }
 
     // Check if a power-up has been collected
     public boolean isPowerUpCollected(int powerUpIndex) {
-        return powerUpsCollected[powerUpIndex];
+        return isCollected(POWER_UPS, powerUpIndex);
+    }
+
+    /**
+     * Passes every word that changed since the last call to the sink and forgets the changes.
+     * Allocates nothing.
+     *
+     * @return The number of words passed.
+     */
+    public int takeChanges(ChangeSink sink) {
+        int count = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            long[] marks = changed[kind];
+            for (int m = 0; m < marks.length; m++) {
+                long mark = marks[m];
+                while (mark != 0) {
+                    int word = (m << 6) + Long.numberOfTrailingZeros(mark);
+                    sink.word(kind, word, bits[kind][word]);
+                    mark &= mark - 1;
+                    count++;
+                }
+                marks[m] = 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Passes every non-empty word to the sink, e.g. to write the whole state.
+     *
+     * @return The number of words passed.
+     */
+    public int writeAll(ChangeSink sink) {
+        int count = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            long[] words = bits[kind];
+            for (int i = 0; i < words.length; i++) {
+                if (words[i] != 0) {
+                    sink.word(kind, i, words[i]);
+                    count++;
+                }
+            }
+        }
+        return count;
     }
 
-    // Getters for collected items (if needed)
-    public boolean[] getKeysCollected() {
-        return keysCollected;
+    /**
+     * Overwrites a word of a bitset, e.g. when loading a save. Not recorded as a change.
+     */
+    public void restoreWord(int kind, int wordIndex, long value) {
+        if (wordIndex >= bits[kind].length) {
+            grow(kind, wordIndex + 1);
+        }
+        collected[kind] += Long.bitCount(value) - Long.bitCount(bits[kind][wordIndex]);
+        bits[kind][wordIndex] = value;
     }
 
-    public boolean[] getLivesCollected() {
-        return livesCollected;
+    private void markChanged(int kind, int word) {
+        changed[kind][word >>> 6] |= 1L << word;
     }
 
-    public boolean[] getPowerUpsCollected() {
-        return powerUpsCollected;
+    private void grow(int kind, int words) {
+        int capacity = Math.max(words, bits[kind].length * 2);
+        bits[kind] = Arrays.copyOf(bits[kind], capacity);
+        changed[kind] = Arrays.copyOf(changed[kind], (capacity + 63) >>> 6);
     }
 }
@@ -1,7 +1,25 @@
 package de.tum.cit.fop.maze.game.objects;
 
 import com.badlogic.gdx.Game;
+import de.tum.cit.fop.maze.game.events.EventBus;
 
 public interface Interactable {
-    void interact(Player player, GameState gameState);
+    /**
+     * Called once when the player touches the object.
+     *
+     * @param events Where the interaction is reported, e.g. a collected key.
+     */
+    void interact(Player player, GameState gameState, EventBus events);
+
+    /**
+     * Called in every further tick while the player keeps touching the object, e.g. for a trap.
+     */
+    default void touching(Player player, GameState gameState, EventBus events) {
+    }
+
+    /**
+     * Called once when the player stops touching the object.
+     */
+    default void leave(Player player, GameState gameState, EventBus events) {
+    }
 }
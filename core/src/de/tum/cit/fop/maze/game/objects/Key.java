@@ -3,18 +3,19 @@
 //TODO: @William still needs to create a texture rendering for the key;
 //TODO: @Vincent needs to link the Player interaction with the Exit to see if the number of keys matched the requirement of the exit; this should be done through Player and Exit Classes via the Interactable interface (it won't/shouldn't conflict with William's implementation of textures)
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+import de.tum.cit.fop.maze.game.events.EventBus;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
 
-public class Key extends StaticGameObject implements Interactable {
+public class Key extends StaticGameObject implements Interactable, Pool.Poolable {
     private float x, y;
     private boolean isCollected;
-    private Texture keyTexture;
     private Sprite keySprite;
-    private final int keyIndex;
+    private final TextureRegion keyRegion; // Never changed, handed to render snapshots
+    private int keyIndex;
 
     private boolean disposed = false;
 
@@ -32,11 +33,11 @@ public Key(float x, float y, float width, float height, String texturePath, int
         super(x, y, width, height, texturePath);
         this.isCollected = false;
 
-        // Load the texture from the sprite sheet
-        keyTexture = new Texture(Gdx.files.internal(texturePath)); // Use the texturePath passed in
+        // The sprite sheet was already loaded by the superclass
+        TextureRegion sheet = textureRegion;
 
         // Create a TextureRegion (assuming the key is in a single frame)
-        TextureRegion keyRegion = new TextureRegion(keyTexture, 0, 0, 33, 32); // Adjust to match key's position and size in the sprite sheet
+        keyRegion = new TextureRegion(sheet, 0, 0, 33, 32); // Adjust to match key's position and size in the sprite sheet
         keySprite = new Sprite(keyRegion);
 
         // Set the position of the sprite
@@ -45,10 +46,29 @@ public Key(float x, float y, float width, float height, String texturePath, int
         this.keyIndex = keyIndex;
     }
 
+    /**
+     * Places a key taken from a pool.
+     */
+    public void spawn(float x, float y, int keyIndex) {
+        this.keyIndex = keyIndex;
+        setPosition(x, y);
+    }
+
+    /**
+     * Puts the key back to the state of a new one; the sprite is kept.
+     */
+    @Override
+    public void reset() {
+        isCollected = false;
+        setPosition(0, 0);
+    }
+
     public void setPosition(float x, float y) {
         this.x = x;
         this.y = y;
+        this.position.set(x, y);
         keySprite.setPosition(x, y);
+        syncSpatialIndex();
     }
 
     // Render method to draw the key sprite
@@ -62,18 +82,26 @@ public void render(SpriteBatch batch, GameState gameState) {
         }
     }
 
+    /**
+     * Adds the key to a snapshot unless it has been collected.
+     */
+    public void writeTo(RenderSnapshot snapshot, GameState gameState) {
+        if (!gameState.isKeyCollected(keyIndex)) {
+            snapshot.addSprite(keyRegion, x, y, x, y);
+        }
+    }
+
     // Dispose of resources when the key is no longer needed
     public void dispose() {
         if (!disposed) {
-            keyTexture.dispose();
+            super.dispose();
             disposed = true;
         }
     }
 
-    // Marks the key as collected
+    // Marks the key as collected; its sprite is kept for when the key is reused
     public void collect() {
         this.isCollected = true;
-        this.dispose();
     }
 
     // Checks if the key is collected
@@ -94,13 +122,19 @@ public boolean checkCollision(Player player) {
                 y + getHeight() > player.getY();
     }
 
+    /**
+     * Takes the key, once. The game state and the player are updated by the listeners of
+     * {@link de.tum.cit.fop.maze.game.events.KeyCollected} when the events of the tick are dispatched.
+     */
     @Override
-    public void interact(Player player, GameState gameState) {
-        if (!gameState.isKeyCollected(keyIndex)) {
-            gameState.collectKey(keyIndex);
-            player.pickUpKey();
-            System.out.println("Player interacted with the key and collected it!");
-            System.out.println("Key index: " + keyIndex);
+    public void interact(Player player, GameState gameState, EventBus events) {
+        if (!isCollected && !gameState.isKeyCollected(keyIndex)) {
+            collect();
+            events.keyCollected.post().set(keyIndex, x, y);
         }
     }
+
+    public int getKeyIndex() {
+        return keyIndex;
+    }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package de.tum.cit.fop.maze.game.objects;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import de.tum.cit.fop.maze.GameScreen;
 import de.tum.cit.fop.maze.com.game.utils.AnimationUtils;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,9 +15,10 @@
 public class Player extends DynamicGameObject {
     private float speed = 100f;
     private float runMultiplier = 2.0f;
-    private int hearts = 10; // Player's lives (hearts)
+    public static final int START_HEARTS = 10;
+    private int hearts = START_HEARTS; // Player's lives (hearts)
     private int keys = 0; // Количество собранных ключей
-    private Map<String, Boolean> activePowerUps; // To track activated power-ups
+    private final Map<String, Boolean> activePowerUps = new HashMap<>(); // To track activated power-ups
     private Animation<TextureRegion> idleAnimation;
     private Animation<TextureRegion> walkLeftAnimation;
     private Animation<TextureRegion> walkRightAnimation;
@@ -31,6 +34,7 @@ public class Player extends DynamicGameObject {
     public static final int WALKING_UP = 4;
     private int currentDirection = IDLE;
     private boolean isGameOver = false;
+    private InputSource input = InputSource.GDX; // Keyboard by default, replaced in headless runs
 
     public Player(float x, float y, float width, float height, GameScreen screen) {
         super(x, y, width, height, "character.png");
@@ -49,7 +53,7 @@ public void initializeAnimations(String texturePath) {
 
     // Method to reset player data
     public void reset() {
-        this.hearts = 10; // Сброс жизней
+        this.hearts = START_HEARTS; // Сброс жизней
         this.keys = 0; // Сброс ключей
         this.activePowerUps.clear(); // Reset active power-ups
         this.setPosition(100, 100); // Сброс позиции
@@ -60,10 +64,21 @@ public void reset() {
         this.isGameOver = false; // Сброс статуса "Game Over"
     }
 
+    /**
+     * Gives the player what it collected in the current level in an earlier session, since those keys
+     * and lives are no longer placed in the level. Lost hearts are not saved, so the hearts start over.
+     *
+     * @param keys  The keys collected in the level.
+     * @param lives The collectable lives collected in the level.
+     */
+    public void restoreCollected(int keys, int lives) {
+        this.keys = keys;
+        this.hearts = START_HEARTS + lives;
+    }
+
     // Method to pick up a key
     public void pickUpKey() {
         this.keys += 1; // Увеличиваем количество собранных ключей
-        System.out.println("Key picked up! Total keys: " + this.keys);
     }
 
     // Method to take damage
@@ -106,10 +121,27 @@ public int getHearts() {
         return hearts;
     }
 
+    public int getKeys() {
+        return keys;
+    }
+
     public Map<String, Boolean> getActivePowerUps() {
         return activePowerUps;
     }
 
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Sets where the player reads its movement keys from.
+     *
+     * @param input The input source, {@link InputSource#GDX} for the keyboard.
+     */
+    public void setInputSource(InputSource input) {
+        this.input = input;
+    }
+
     @Override
     public void update(float deltaTime) {
         if (isGameOver) {
@@ -124,24 +156,24 @@ public void update(float deltaTime) {
         int horizontal = 0;
         int vertical = 0;
 
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.LEFT)) {
+        if (input.isKeyPressed(com.badlogic.gdx.Input.Keys.LEFT)) {
             velocity.x = -speed;
             horizontal = -1;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.RIGHT)) {
+        if (input.isKeyPressed(com.badlogic.gdx.Input.Keys.RIGHT)) {
             velocity.x = speed;
             horizontal = 1;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.UP)) {
+        if (input.isKeyPressed(com.badlogic.gdx.Input.Keys.UP)) {
             velocity.y = speed;
             vertical = 1;
         }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.DOWN)) {
+        if (input.isKeyPressed(com.badlogic.gdx.Input.Keys.DOWN)) {
             velocity.y = -speed;
             vertical = -1;
         }
 
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.SHIFT_LEFT)) {
+        if (input.isKeyPressed(com.badlogic.gdx.Input.Keys.SHIFT_LEFT)) {
             velocity.scl(runMultiplier);
         }
 
@@ -166,9 +198,38 @@ public void update(float deltaTime) {
         stateTime += deltaTime;
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        AssetCache.releaseAnimation(idleAnimation);
+        AssetCache.releaseAnimation(walkLeftAnimation);
+        AssetCache.releaseAnimation(walkRightAnimation);
+        AssetCache.releaseAnimation(walkUpAnimation);
+        AssetCache.releaseAnimation(walkDownAnimation);
+    }
+
     public void draw(SpriteBatch batch) {
+        draw(batch, 1f);
+    }
+
+    /**
+     * Draws the player between its last two simulated positions.
+     *
+     * @param alpha The fraction of a tick that has passed since the last update.
+     */
+    public void draw(SpriteBatch batch, float alpha) {
+        if (currentAnimation != null) {
+            batch.draw(currentAnimation.getKeyFrame(stateTime, true), getInterpolatedX(alpha), getInterpolatedY(alpha));
+        }
+    }
+
+    /**
+     * Adds the player's current frame and its last two simulated positions to a snapshot.
+     */
+    public void writeTo(RenderSnapshot snapshot) {
         if (currentAnimation != null) {
-            batch.draw(currentAnimation.getKeyFrame(stateTime, true), position.x, position.y);
+            snapshot.addSprite(currentAnimation.getKeyFrame(stateTime, true),
+                    previousPosition.x, previousPosition.y, position.x, position.y);
         }
     }
 }
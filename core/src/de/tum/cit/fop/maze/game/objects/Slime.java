@@ -3,9 +3,14 @@
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 import de.tum.cit.fop.maze.com.game.utils.AnimationUtils;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.path.AStarSearch;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
 
-public class Slime extends DynamicGameObject {
+public class Slime extends DynamicGameObject implements Pool.Poolable {
 
     public enum SlimeState {
         STANDING,
@@ -26,8 +31,18 @@ public enum SlimeState {
     private SlimeState currentState = SlimeState.STANDING;
     private float stateTime = 0f;
     private boolean isDead = false;
-    private float speed = 50f; // Скорость слайма
+    private float speed = SPEED; // Скорость слайма
+    private boolean touchingPlayer; // Told by the collision engine, the slime attacks while it lasts
     private Player player; // Ссылка на игрока для взаимодействия
+    public static final float SPEED = 50f; // Chasing speed in pixels per second
+    public static final float CHASE_RADIUS = 100f; // Radius in pixels in which the slime starts chasing the player
+    public static final float ATTACK_RANGE = 20f; // Distance per axis at which the slime touches the player and hits it
+    public static final int PATH_BUDGET = 64; // Cells a slime's own path search may expand per tick
+
+    // Path to the player around the walls: the shared flow field, or an own search where it does not lead on
+    private FlowField flowField;
+    private AStarSearch pathSearch;
+    private float cellSize;
 
     public Slime(float x, float y, Player player) {
         super(x, y, 32, 32, "slime.png");
@@ -35,9 +50,53 @@ public Slime(float x, float y, Player player) {
         initializeAnimations();
     }
 
+    /**
+     * Places a slime taken from a pool.
+     */
+    public void spawn(float x, float y) {
+        position.set(x, y);
+        previousPosition.set(x, y);
+        syncSpatialIndex();
+    }
+
+    /**
+     * Puts the slime back to the state of a new one; the animations are kept.
+     */
+    @Override
+    public void reset() {
+        position.setZero();
+        previousPosition.setZero();
+        velocity.setZero();
+        currentState = SlimeState.STANDING;
+        stateTime = 0f;
+        isDead = false;
+        speed = SPEED;
+        touchingPlayer = false;
+        flowField = null;
+        pathSearch = null;
+    }
+
     private void initializeAnimations() {
+        Animation<TextureRegion>[] animations = loadAnimations();
+        standingAnimation = animations[SlimeState.STANDING.ordinal()];
+        runningLeftAnimation = animations[SlimeState.RUNNING_LEFT.ordinal()];
+        runningRightAnimation = animations[SlimeState.RUNNING_RIGHT.ordinal()];
+        attackAnimation = animations[SlimeState.ATTACKING.ordinal()];
+        damagedAnimation = animations[SlimeState.DAMAGED.ordinal()];
+        deathAnimation = animations[SlimeState.DYING.ordinal()];
+    }
+
+    /**
+     * Loads the slime animations, indexed by {@link SlimeState#ordinal()}.
+     * They are shared through the AssetCache, give them back with {@link #releaseAnimations}.
+     *
+     * @return The animations of all slime states.
+     */
+    @SuppressWarnings("unchecked")
+    public static Animation<TextureRegion>[] loadAnimations() {
+        Animation<TextureRegion>[] animations = (Animation<TextureRegion>[]) new Animation<?>[SlimeState.values().length];
         // Установленные значения frameDuration для каждой анимации
-        standingAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.STANDING.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {77, 21, 37, 40},
@@ -46,7 +105,7 @@ private void initializeAnimations() {
                 0.2f // Медленная анимация для стояния
         );
 
-        runningLeftAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.RUNNING_LEFT.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {81, 26, 31, 28},
@@ -55,7 +114,7 @@ private void initializeAnimations() {
                 0.1f // Быстрая анимация для бега влево
         );
 
-        runningRightAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.RUNNING_RIGHT.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {335, 25, 34, 31},
@@ -64,7 +123,7 @@ private void initializeAnimations() {
                 0.1f // Быстрая анимация для бега вправо
         );
 
-        attackAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.ATTACKING.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {205, 161, 36, 21},
@@ -74,7 +133,7 @@ private void initializeAnimations() {
                 0.08f // Быстрая атака
         );
 
-        damagedAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.DAMAGED.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {76, 145, 36, 31},
@@ -83,7 +142,7 @@ private void initializeAnimations() {
                 0.05f // Очень быстрая анимация получения урона
         );
 
-        deathAnimation = AnimationUtils.createAnimationFromCoordinates(
+        animations[SlimeState.DYING.ordinal()] = AnimationUtils.createAnimationFromCoordinates(
                 "slime.png",
                 new int[][]{
                         {14, 287, 38, 23},
@@ -92,53 +151,158 @@ private void initializeAnimations() {
                 },
                 0.2f // Медленная анимация смерти
         );
+        return animations;
+    }
+
+    /**
+     * Releases animations obtained from {@link #loadAnimations()}.
+     */
+    public static void releaseAnimations(Animation<TextureRegion>[] animations) {
+        for (Animation<TextureRegion> animation : animations) {
+            AssetCache.releaseAnimation(animation);
+        }
     }
 
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
+        update(deltaTime, null);
+    }
+
+    /**
+     * Updates the slime. With a command buffer, moving in the spatial index is recorded in it instead of
+     * done right away; the slime then only writes its own fields, so slimes can be updated on several
+     * threads at once. A slime that collides only sets its velocity and is moved by the collision engine,
+     * which also reports its contacts with the player, see {@link #setTouchingPlayer}.
+     *
+     * @param commands The buffer of the batch this slime is updated in, or null to apply the effects directly.
+     */
+    public void update(float deltaTime, CommandBuffer commands) {
         stateTime += deltaTime;
+        velocity.setZero();
+
+        if (!isDead) {
+            // Если игрок рядом, начинаем преследование
+            if (isPlayerClose()) {
+                moveToPlayer();
+            } else {
+                currentState = SlimeState.STANDING;
+            }
+        }
+        if (!collides) {
+            position.mulAdd(velocity, deltaTime);
+            if (commands != null) {
+                commands.moved(this);
+            } else {
+                syncSpatialIndex();
+            }
+        }
 
         if (isDead) {
             currentState = SlimeState.DYING;
             return;
         }
 
-        // Если игрок рядом, начинаем преследование
-        if (isPlayerClose()) {
-            moveToPlayer(deltaTime);
-        } else {
-            currentState = SlimeState.STANDING;
-        }
-
-        // Проверка столкновения с игроком для атаки
-        if (checkCollisionWithPlayer()) {
+        if (touchingPlayer) {
             currentState = SlimeState.ATTACKING;
-            player.takeDamage("Slime", 1);
         }
     }
 
-    private boolean isPlayerClose() {
-        float distance = (float) Math.sqrt(
-                Math.pow(player.getX() - position.x, 2) + Math.pow(player.getY() - position.y, 2)
-        );
-        return distance < 100; // Например, 100 пикселей — радиус преследования
+    /**
+     * Called when the slime begins or stops touching the player; the hit itself is dealt by the caller
+     * once per contact.
+     */
+    public void setTouchingPlayer(boolean touchingPlayer) {
+        this.touchingPlayer = touchingPlayer;
     }
 
-    private void moveToPlayer(float deltaTime) {
+    private boolean isPlayerClose() {
         float dx = player.getX() - position.x;
         float dy = player.getY() - position.y;
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        return dx * dx + dy * dy < CHASE_RADIUS * CHASE_RADIUS;
+    }
+
+    /**
+     * Lets the slime follow a shared flow field towards the player instead of walking straight through walls.
+     *
+     * @param flowField The field towards the player's cell, or null to walk straight.
+     * @param cellSize  The size of a grid cell in pixels.
+     */
+    public void setFlowField(FlowField flowField, float cellSize) {
+        this.flowField = flowField;
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Lets the slime find its own way to the player when there is no flow field, or when the flow field
+     * does not lead on from the slime's cell because it still belongs to an earlier cell of the player.
+     * The search expands at most {@link #PATH_BUDGET} cells per tick; until it has found a path
+     * the slime walks straight.
+     *
+     * @param pathSearch The search owned by this slime, or null to walk straight.
+     * @param cellSize   The size of a grid cell in pixels.
+     */
+    public void setPathSearch(AStarSearch pathSearch, float cellSize) {
+        this.pathSearch = pathSearch;
+        this.cellSize = cellSize;
+    }
+
+    private void moveToPlayer() {
+        float goalX = player.getX();
+        float goalY = player.getY();
+        int next = nextCellTowardsPlayer();
+        if (next >= 0) {
+            int width = flowField != null ? flowField.getWidth() : pathSearch.getWidth();
+            goalX = (next % width) * cellSize;
+            goalY = (next / width) * cellSize;
+        }
+
+        float dx = goalX - position.x;
+        float dy = goalY - position.y;
+        float distanceSquared = dx * dx + dy * dy;
 
-        if (distance > 0) {
-            position.x += (dx / distance) * speed * deltaTime;
-            position.y += (dy / distance) * speed * deltaTime;
+        if (distanceSquared > 0) {
+            float scale = speed / (float) Math.sqrt(distanceSquared);
+            velocity.set(dx * scale, dy * scale);
             currentState = dx < 0 ? SlimeState.RUNNING_LEFT : SlimeState.RUNNING_RIGHT;
         }
     }
 
-    private boolean checkCollisionWithPlayer() {
-        return Math.abs(player.getX() - position.x) < 20 && Math.abs(player.getY() - position.y) < 20;
+    /**
+     * Returns the next grid cell on the way to the player, or -1 to walk straight at the player.
+     */
+    private int nextCellTowardsPlayer() {
+        if (flowField == null && pathSearch == null) {
+            return -1;
+        }
+        int cellX = FlowField.toCell(position.x, cellSize);
+        int cellY = FlowField.toCell(position.y, cellSize);
+        if (flowField != null) {
+            int next = flowField.nextCell(cellX, cellY);
+            if (next != FlowField.NONE || pathSearch == null) {
+                return next;
+            }
+            // Standing on the target of a field that is not rebuilt for the player's new cell yet
+        }
+
+        int width = pathSearch.getWidth();
+        int start = cellY * width + cellX;
+        int goal = FlowField.toCell(player.getY(), cellSize) * width + FlowField.toCell(player.getX(), cellSize);
+        if (start == goal) {
+            return -1;
+        }
+        if (pathSearch.getStartCell() != start || pathSearch.getGoalCell() != goal
+                || pathSearch.getStatus() == AStarSearch.Status.IDLE) {
+            // Moved to another cell, or the player did: plan again
+            pathSearch.start(cellX, cellY, goal % width, goal / width);
+        }
+        if (pathSearch.step(PATH_BUDGET) == AStarSearch.Status.FOUND) {
+            return pathSearch.getNextCell();
+        }
+        return -1;
+    }
+
+    public boolean isDead() {
+        return isDead;
     }
 
     public void takeDamage(int damage) {
@@ -150,33 +314,55 @@ public void takeDamage(int damage) {
         }
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        AssetCache.releaseAnimation(standingAnimation);
+        AssetCache.releaseAnimation(runningLeftAnimation);
+        AssetCache.releaseAnimation(runningRightAnimation);
+        AssetCache.releaseAnimation(attackAnimation);
+        AssetCache.releaseAnimation(damagedAnimation);
+        AssetCache.releaseAnimation(deathAnimation);
+    }
+
     @Override
     public void render(SpriteBatch batch) {
-        Animation<TextureRegion> currentAnimation;
+        render(batch, 1f);
+    }
 
+    /**
+     * Draws the slime between its last two simulated positions.
+     *
+     * @param alpha The fraction of a tick that has passed since the last update.
+     */
+    public void render(SpriteBatch batch, float alpha) {
+        TextureRegion currentFrame = currentAnimation().getKeyFrame(stateTime, true);
+        batch.draw(currentFrame, getInterpolatedX(alpha), getInterpolatedY(alpha));
+    }
+
+    /**
+     * Adds the slime's current frame and its last two simulated positions to a snapshot.
+     */
+    public void writeTo(RenderSnapshot snapshot) {
+        snapshot.addSprite(currentAnimation().getKeyFrame(stateTime, true),
+                previousPosition.x, previousPosition.y, position.x, position.y);
+    }
+
+    private Animation<TextureRegion> currentAnimation() {
         switch (currentState) {
             case RUNNING_LEFT:
-                currentAnimation = runningLeftAnimation;
-                break;
+                return runningLeftAnimation;
             case RUNNING_RIGHT:
-                currentAnimation = runningRightAnimation;
-                break;
+                return runningRightAnimation;
             case ATTACKING:
-                currentAnimation = attackAnimation;
-                break;
+                return attackAnimation;
             case DAMAGED:
-                currentAnimation = damagedAnimation;
-                break;
+                return damagedAnimation;
             case DYING:
-                currentAnimation = deathAnimation;
-                break;
+                return deathAnimation;
             case STANDING:
             default:
-                currentAnimation = standingAnimation;
-                break;
+                return standingAnimation;
         }
-
-        TextureRegion currentFrame = currentAnimation.getKeyFrame(stateTime, true);
-        batch.draw(currentFrame, position.x, position.y);
     }
 }
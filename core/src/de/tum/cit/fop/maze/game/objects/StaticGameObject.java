@@ -1,54 +1,17 @@
 package de.tum.cit.fop.maze.game.objects;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 
 public class StaticGameObject extends GameObject {
-    private Texture texture;
-    private float X;
-    private float Y;
-    private float width;
-    private float height;
-
-    public Texture getTexture() {
-        return texture;
-    }
-
-    public void setTexture(Texture texture) {
-        this.texture = texture;
-    }
-
-    public float getX() {
-        return X;
-    }
 
     public void setX(float x) {
-        X = x;
-    }
-
-    public float getY() {
-        return Y;
+        position.x = x;
+        syncSpatialIndex();
     }
 
     public void setY(float y) {
-        Y = y;
-    }
-
-    public float getWidth() {
-        return width;
-    }
-
-    public void setWidth(float width) {
-        this.width = width;
-    }
-
-    public float getHeight() {
-        return height;
-    }
-
-    public void setHeight(float height) {
-        this.height = height;
+        position.y = y;
+        syncSpatialIndex();
     }
 
     /**
@@ -76,19 +39,10 @@ public void update(float deltaTime) {
      */
     @Override
     public void render(SpriteBatch batch) {
-        batch.draw(texture, getX(), getY(), getWidth(), getHeight());
+        batch.draw(textureRegion, getX(), getY(), getWidth(), getHeight());
     }
 
 
-    /**
-     * Dispose of the texture to free memory.
-     */
-    public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
-    }
-
     @Override
     public void setPosition(int i, int i1) {
         this.position.set(i, i1);
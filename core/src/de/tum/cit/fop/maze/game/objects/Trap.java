@@ -0,0 +1,43 @@
+package de.tum.cit.fop.maze.game.objects;
+
+import de.tum.cit.fop.maze.game.events.EventBus;
+
+/**
+ * A trap cell of the level grid. It has no sprite of its own, it is a trigger of the collision engine
+ * over the cell that costs the player a heart whenever the player steps onto it.
+ */
+public class Trap implements Interactable {
+    private static final int DAMAGE = 1; // Hearts lost per step onto the trap
+
+    private final float x;
+    private final float y;
+    private final float size;
+
+    /**
+     * @param x    The left edge of the cell in pixels.
+     * @param y    The bottom edge of the cell in pixels.
+     * @param size The width and height of the cell in pixels.
+     */
+    public Trap(float x, float y, float size) {
+        this.x = x;
+        this.y = y;
+        this.size = size;
+    }
+
+    @Override
+    public void interact(Player player, GameState gameState, EventBus events) {
+        CommandBuffer.damage(player, "Trap", DAMAGE, events);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,252 @@
+package de.tum.cit.fop.maze.game.path;
+
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.metrics.PathSolveEvent;
+
+import java.util.Arrays;
+
+/**
+ * A* search on the four-connected maze grid for a single agent, for when no shared {@link FlowField}
+ * leads to the agent's goal. A search is started once and then advanced with {@link #step(int)} by at
+ * most a given number of expanded nodes per call, so a long search is spread over several ticks instead
+ * of stalling one frame.
+ * <p>
+ * All per-cell data is allocated once for the grid size. Cells are reset lazily by comparing a
+ * search generation number, so starting a new search does not have to clear the arrays.
+ */
+public class AStarSearch {
+
+    public enum Status {
+        IDLE,
+        SEARCHING,
+        FOUND,
+        FAILED
+    }
+
+    private final int width;
+    private final int height;
+    private final boolean[] walls;
+
+    // Per-cell search data, only valid where generation[cell] == currentGeneration
+    private final int[] cost;
+    private final int[] parent;
+    private final int[] generation;
+    private final boolean[] closed;
+    private int currentGeneration;
+
+    // Binary min-heap of open cells ordered by estimated total cost; stale entries are skipped when popped
+    private int[] heapCells;
+    private int[] heapScores;
+    private int heapSize;
+
+    private int start = -1;
+    private int goal = -1;
+    private Status status = Status.IDLE;
+
+    /**
+     * @param grid The level; wall cells block movement.
+     */
+    public AStarSearch(MapGrid grid) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        int cellCount = width * height;
+        this.walls = new boolean[cellCount];
+        for (int i = 0; i < grid.count(MapGrid.WALL); i++) {
+            walls[grid.cellOf(MapGrid.WALL, i)] = true;
+        }
+        cost = new int[cellCount];
+        parent = new int[cellCount];
+        generation = new int[cellCount];
+        closed = new boolean[cellCount];
+        heapCells = new int[64];
+        heapScores = new int[64];
+    }
+
+    /**
+     * Begins a new search; the previous path is discarded.
+     */
+    public void start(int startX, int startY, int goalX, int goalY) {
+        heapSize = 0;
+        if (!inside(startX, startY) || !inside(goalX, goalY)) {
+            status = Status.FAILED;
+            return;
+        }
+        currentGeneration++;
+        start = startY * width + startX;
+        goal = goalY * width + goalX;
+        touch(start, 0, -1);
+        push(start, heuristic(start));
+        status = Status.SEARCHING;
+    }
+
+    /**
+     * Continues the search.
+     *
+     * @param nodeBudget The maximum number of cells to expand in this call.
+     * @return The status after this call.
+     */
+    public Status step(int nodeBudget) {
+        if (status != Status.SEARCHING) {
+            return status;
+        }
+        PathSolveEvent event = new PathSolveEvent();
+        event.begin();
+        int budget = nodeBudget;
+        while (status == Status.SEARCHING && nodeBudget > 0) {
+            if (heapSize == 0) {
+                status = Status.FAILED;
+                break;
+            }
+            int cell = pop();
+            if (closed[cell]) {
+                continue; // Stale heap entry of a cell that was reached more cheaply
+            }
+            closed[cell] = true;
+            nodeBudget--;
+            if (cell == goal) {
+                status = Status.FOUND;
+                break;
+            }
+            int next = cost[cell] + 1;
+            int x = cell % width;
+            if (x > 0) relax(cell, cell - 1, next);
+            if (x < width - 1) relax(cell, cell + 1, next);
+            if (cell >= width) relax(cell, cell - width, next);
+            if (cell < walls.length - width) relax(cell, cell + width, next);
+        }
+        if (event.shouldCommit()) {
+            event.search = PathSolveEvent.A_STAR;
+            event.expandedCells = budget - nodeBudget;
+            event.finished = status != Status.SEARCHING;
+            event.commit();
+        }
+        return status;
+    }
+
+    private void relax(int from, int cell, int newCost) {
+        // The goal may be a wall cell when the target stands at its border
+        if (walls[cell] && cell != goal) {
+            return;
+        }
+        if (generation[cell] == currentGeneration) {
+            if (closed[cell] || cost[cell] <= newCost) {
+                return;
+            }
+            cost[cell] = newCost;
+            parent[cell] = from;
+        } else {
+            touch(cell, newCost, from);
+        }
+        push(cell, newCost + heuristic(cell));
+    }
+
+    private void touch(int cell, int cellCost, int from) {
+        generation[cell] = currentGeneration;
+        cost[cell] = cellCost;
+        parent[cell] = from;
+        closed[cell] = false;
+    }
+
+    private int heuristic(int cell) {
+        // Manhattan distance, exact in an empty four-connected grid and never too high
+        return Math.abs(cell % width - goal % width) + Math.abs(cell / width - goal / width);
+    }
+
+    /**
+     * Writes the found path into {@code out}, from the first step after the start to the goal.
+     *
+     * @return The number of steps, or -1 if no path has been found.
+     */
+    public int getPath(IntArray out) {
+        out.clear();
+        if (status != Status.FOUND) {
+            return -1;
+        }
+        for (int cell = goal; cell != start; cell = parent[cell]) {
+            out.add(cell);
+        }
+        out.reverse();
+        return out.size;
+    }
+
+    /**
+     * Returns the first cell to walk to on the found path, or -1 if there is none yet.
+     */
+    public int getNextCell() {
+        if (status != Status.FOUND || goal == start) {
+            return -1;
+        }
+        int cell = goal;
+        while (parent[cell] != start) {
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * Forgets the current search and its path, so the search is {@link Status#IDLE} again.
+     */
+    public void clear() {
+        heapSize = 0;
+        start = -1;
+        goal = -1;
+        status = Status.IDLE;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getGoalCell() {
+        return goal;
+    }
+
+    public int getStartCell() {
+        return start;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private void push(int cell, int score) {
+        if (heapSize == heapCells.length) {
+            heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+            heapScores = Arrays.copyOf(heapScores, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >> 1;
+            if (heapScores[up] <= score) break;
+            heapCells[i] = heapCells[up];
+            heapScores[i] = heapScores[up];
+            i = up;
+        }
+        heapCells[i] = cell;
+        heapScores[i] = score;
+    }
+
+    private int pop() {
+        int result = heapCells[0];
+        int cell = heapCells[--heapSize];
+        int score = heapScores[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapScores[child + 1] < heapScores[child]) child++;
+            if (heapScores[child] >= score) break;
+            heapCells[i] = heapCells[child];
+            heapScores[i] = heapScores[child];
+            i = child;
+        }
+        heapCells[i] = cell;
+        heapScores[i] = score;
+        return result;
+    }
+}
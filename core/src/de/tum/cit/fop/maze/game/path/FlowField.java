@@ -0,0 +1,219 @@
+package de.tum.cit.fop.maze.game.path;
+
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.metrics.PathSolveEvent;
+
+import java.util.Arrays;
+
+/**
+ * Shared path distances from every cell of a maze to one target cell, usually the player's.
+ * The field is a Dijkstra search outward from the target over the free cells. Moving costs the same
+ * everywhere, so the search is a breadth-first flood fill. Any number of agents can then follow it:
+ * an agent only looks at its four neighbours and walks to the one that is closer to the target,
+ * which is O(1) per agent and finds its way around walls.
+ * <p>
+ * When the target moves to another cell, the new field is built in a second buffer, spread over
+ * several {@link #update} calls with a bounded number of cells per call. Until it is complete, agents
+ * keep following the previous field, which still leads to within a few cells of the target. A build
+ * that is under way is finished for the cell it started with before the next one starts, even if the
+ * target moved on meanwhile; otherwise a target that changes cells faster than a build completes would
+ * restart it forever on large mazes. The field agents follow is thus at most one build behind.
+ */
+public class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NONE = -1;
+
+    private final int width;
+    private final int height;
+    private final boolean[] walls;
+
+    // Complete field the agents read, and the field being built
+    private int[] distance;
+    private int[] pending;
+    private int target = NONE;
+    private int pendingTarget = NONE;
+    private boolean building;
+
+    // Breadth-first queue of the field being built
+    private final int[] queue;
+    private int head, tail;
+
+    /**
+     * @param grid The level; wall cells block movement.
+     */
+    public FlowField(MapGrid grid) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.walls = new boolean[width * height];
+        for (int i = 0; i < grid.count(MapGrid.WALL); i++) {
+            walls[grid.cellOf(MapGrid.WALL, i)] = true;
+        }
+        this.distance = new int[width * height];
+        this.pending = new int[width * height];
+        this.queue = new int[width * height];
+        Arrays.fill(distance, UNREACHABLE);
+    }
+
+    /**
+     * Moves the target and continues building the pending field, expanding at most {@code budget} cells.
+     * A build for an earlier target is completed first; the build for the given cell starts once it is
+     * done, in the same call if budget is left. Calling it every tick with the player's cell is enough;
+     * nothing is done while the player stays in the same cell.
+     *
+     * @param targetX The x-coordinate of the target cell.
+     * @param targetY The y-coordinate of the target cell.
+     * @param budget  The maximum number of cells to expand in this call.
+     * @return True if the field agents read belongs to the given target.
+     */
+    public boolean update(int targetX, int targetY, int budget) {
+        if (targetX < 0 || targetY < 0 || targetX >= width || targetY >= height) {
+            return false;
+        }
+        int cell = targetY * width + targetX;
+        if (cell == target && !building) {
+            return true;
+        }
+        PathSolveEvent event = new PathSolveEvent();
+        event.begin();
+        if (!building) {
+            startBuild(cell);
+        }
+        int expanded = expand(budget);
+        if (!building && target != cell && expanded < budget) {
+            // The pending build was for an earlier target, go on with the current one
+            startBuild(cell);
+            expanded += expand(budget - expanded);
+        }
+        if (event.shouldCommit()) {
+            event.search = PathSolveEvent.FLOW_FIELD;
+            event.expandedCells = expanded;
+            event.finished = !building;
+            event.commit();
+        }
+        return target == cell && !building;
+    }
+
+    /**
+     * Builds the field for a target completely, e.g. when a level is loaded.
+     */
+    public void rebuild(int targetX, int targetY) {
+        update(targetX, targetY, Integer.MAX_VALUE);
+    }
+
+    private void startBuild(int cell) {
+        Arrays.fill(pending, UNREACHABLE);
+        pendingTarget = cell;
+        building = true;
+        head = 0;
+        tail = 0;
+        pending[cell] = 0; // The target itself may be a wall cell when the player stands at its border
+        queue[tail++] = cell;
+    }
+
+    /**
+     * Expands up to {@code budget} cells of the pending field and switches to it once it is complete.
+     *
+     * @return The number of cells expanded.
+     */
+    private int expand(int budget) {
+        int[] field = pending;
+        int start = head;
+        while (head < tail && head - start < budget) {
+            int cell = queue[head++];
+            int next = field[cell] + 1;
+            int x = cell % width;
+            if (x > 0) visit(field, cell - 1, next);
+            if (x < width - 1) visit(field, cell + 1, next);
+            if (cell >= width) visit(field, cell - width, next);
+            if (cell < field.length - width) visit(field, cell + width, next);
+        }
+        if (head == tail) {
+            // Done, agents switch to the new field
+            pending = distance;
+            distance = field;
+            target = pendingTarget;
+            building = false;
+        }
+        return head - start;
+    }
+
+    private void visit(int[] field, int cell, int value) {
+        if (!walls[cell] && field[cell] == UNREACHABLE) {
+            field[cell] = value;
+            queue[tail++] = cell;
+        }
+    }
+
+    /**
+     * Returns the neighbour to walk to from the given cell, or {@link #NONE} if the cell is the target,
+     * outside the grid or has no path to the target.
+     */
+    public int nextCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return NONE;
+        }
+        int cell = y * width + x;
+        int best = distance[cell];
+        if (best == 0 || best == UNREACHABLE) {
+            return NONE;
+        }
+        int next = NONE;
+        if (x > 0 && distance[cell - 1] < best) {
+            best = distance[cell - 1];
+            next = cell - 1;
+        }
+        if (x < width - 1 && distance[cell + 1] < best) {
+            best = distance[cell + 1];
+            next = cell + 1;
+        }
+        if (y > 0 && distance[cell - width] < best) {
+            best = distance[cell - width];
+            next = cell - width;
+        }
+        if (y < height - 1 && distance[cell + width] < best) {
+            next = cell + width;
+        }
+        return next;
+    }
+
+    /**
+     * Converts a position in pixels to the grid coordinate of the cell the object is in.
+     * Objects are placed by their lower left corner, so the position is rounded to the nearest cell.
+     */
+    public static int toCell(float position, float cellSize) {
+        return (int) Math.floor(position / cellSize + 0.5f);
+    }
+
+    /**
+     * Returns the number of steps from the cell to the target, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return UNREACHABLE;
+        }
+        return distance[y * width + x];
+    }
+
+    /**
+     * The target cell of the field agents currently follow, or {@link #NONE} before the first build.
+     */
+    public int getTargetCell() {
+        return target;
+    }
+
+    public boolean isBuilding() {
+        return building;
+    }
+
+    public boolean isWall(int cell) {
+        return walls[cell];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,133 @@
+package de.tum.cit.fop.maze.game.physics;
+
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.objects.DynamicGameObject;
+import de.tum.cit.fop.maze.game.objects.Interactable;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.spatial.TriggerSystem;
+
+import java.util.List;
+
+/**
+ * Stops the player, slimes and mobs at the walls of a level and finds the player's contacts with
+ * interactables and attackers. Game logic only decides the velocities; {@link #move} takes everything as far along
+ * them as the walls allow.
+ * <p>
+ * Every object collides with the walls through its foot: a shape of about a tile whose centre is
+ * {@link PhysicsWorld#FOOT_OFFSET} from the object's position, so both engines let the same objects
+ * through the same corridors. Only the thread that ticks the simulation may use an engine.
+ */
+public interface CollisionEngine {
+
+    /**
+     * The available engines, selected by the {@link de.tum.cit.fop.maze.MazeLoader}.
+     */
+    enum Type {
+        BOX2D, // PhysicsWorld, walls are static bodies
+        TILE_GRID; // TileCollider, walls are a bitmap of tiles
+
+        public CollisionEngine create() {
+            return this == BOX2D ? new PhysicsWorld() : new TileCollider();
+        }
+    }
+
+    /**
+     * Receives the slimes and mobs that began or stopped touching the player, see {@link #dispatchAttacks}.
+     */
+    interface AttackHandler {
+        /**
+         * A slime or another object added with {@link #addMover} began or stopped touching the player.
+         */
+        void mover(DynamicGameObject mover, boolean touching);
+
+        /**
+         * The mob with the given dense index began or stopped touching the player. The index may be out of
+         * the store's range if the mob was removed since.
+         */
+        void mob(int index, boolean touching);
+    }
+
+    Type getType();
+
+    /**
+     * Adds the walls of a level. May run on a worker thread as long as nothing moves at the same time.
+     *
+     * @param walls      The merged wall rectangles in tiles.
+     * @param tileWidth  The width of a tile in pixels.
+     * @param tileHeight The height of a tile in pixels.
+     */
+    void addWalls(CollisionBaker.Result walls, int tileWidth, int tileHeight);
+
+    /**
+     * Lets the engine move the player, whose contacts with triggers are passed to {@link #dispatchContacts}.
+     */
+    void addPlayer(Player player);
+
+    /**
+     * Lets the engine move a slime or another object, which collides with walls only and whose contacts
+     * with the player are passed to {@link #dispatchAttacks}. Objects taken from a pool are added again.
+     */
+    void addMover(DynamicGameObject object);
+
+    /**
+     * Stops moving an object while it waits in a pool.
+     */
+    void deactivate(DynamicGameObject object);
+
+    /**
+     * Lets the engine move the mobs of the store, after they were spawned.
+     */
+    void placeMobs(MobStore mobs);
+
+    /**
+     * Adds a trigger over the given bounds in pixels.
+     *
+     * @return The handle to remove it with.
+     */
+    int addTrigger(Interactable trigger, float x, float y, float width, float height);
+
+    /**
+     * Removes a trigger. Its current contact ends without {@link TriggerSystem.ContactHandler#exit}.
+     */
+    void removeTrigger(int handle);
+
+    /**
+     * Removes all triggers and forgets all contacts, also those of attackers, without reporting them.
+     */
+    void clearTriggers();
+
+    /**
+     * Moves the objects along their velocities for one tick and stops them at the walls.
+     *
+     * @param player The player, or null if there is none.
+     * @param movers The slimes and other objects added with {@link #addMover}.
+     * @param mobs   The mobs, after {@link #placeMobs}.
+     */
+    void move(DynamicGameObject player, List<? extends DynamicGameObject> movers, MobStore mobs, float deltaTime);
+
+    /**
+     * Catches up on objects that were placed outside {@link #move}, e.g. after a restart, without moving anything.
+     */
+    void settle();
+
+    /**
+     * Passes the player's contacts with triggers since the last call to the handler, with the actor 0.
+     * Like with {@link TriggerSystem}, the handler must not add or remove triggers.
+     */
+    void dispatchContacts(TriggerSystem.ContactHandler<Interactable> handler);
+
+    /**
+     * Passes the slimes and mobs whose contact with the player began or ended since the last call to the
+     * handler. An attacker touches the player while their positions are less than
+     * {@link de.tum.cit.fop.maze.game.objects.Slime#ATTACK_RANGE} apart on both axes.
+     */
+    void dispatchAttacks(AttackHandler handler);
+
+    /**
+     * The number of walls, movers and triggers the engine holds, for the metrics.
+     */
+    int getColliderCount();
+
+    void dispose();
+}
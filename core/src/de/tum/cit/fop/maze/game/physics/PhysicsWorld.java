@@ -0,0 +1,471 @@
+package de.tum.cit.fop.maze.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.objects.DynamicGameObject;
+import de.tum.cit.fop.maze.game.objects.Interactable;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.spatial.TriggerSystem;
+
+import java.util.List;
+
+/**
+ * The Box2D side of a level, the {@link CollisionEngine.Type#BOX2D} engine. Walls are static bodies; the player, slimes and mobs
+ * are dynamic bodies with a round foot, and collectables, traps and exits are sensors. Game logic only
+ * decides where things want to go: every tick their velocities are pushed into their bodies, the world
+ * is stepped, which stops them at the walls, and the positions are pulled back. Contacts between the
+ * player and sensors are collected by the contact listener during the step and passed on afterwards,
+ * when the world may be changed again. Slimes and mobs carry a second sensor, their reach, whose
+ * contacts with the player are their attacks.
+ * <p>
+ * One meter is one maze tile. A body's centre is the centre of the tile whose corner is the object's
+ * position, which is also where the paths of slimes and mobs lead to. Collision filtering keeps the
+ * broadphase small: mobs and slimes only collide with walls, sensors and reaches only with the player.
+ */
+public class PhysicsWorld implements CollisionEngine, ContactListener {
+    public static final float PIXELS_PER_METER = 16f; // One maze tile per meter, Box2D works best with small objects of about 1 m
+    public static final float FOOT_OFFSET = PIXELS_PER_METER / 2; // From an object's position to its body's centre, in pixels
+    public static final float FOOT_RADIUS = 0.4f; // In meters, fits through corridors one tile wide
+
+    // Collision categories
+    public static final short WALL = 0x0001; // Box2D's default category, the walls are created without a filter
+    public static final short PLAYER = 0x0002;
+    public static final short MOB = 0x0004;
+    public static final short TRIGGER = 0x0008;
+    public static final short ATTACK = 0x0010; // The reach of a slime or mob
+
+    // Half the size of the square reach around a foot, in meters; a foot touches it at Slime.ATTACK_RANGE per axis
+    public static final float REACH_HALF_SIZE = toMeters(Slime.ATTACK_RANGE) - FOOT_RADIUS;
+
+    // Step settings: nothing bounces or stacks, so few iterations are enough and nothing is fast enough to
+    // tunnel through a wall, so continuous collision is off; resting mobs fall asleep and cost nothing
+    public static final int VELOCITY_ITERATIONS = 4;
+    public static final int POSITION_ITERATIONS = 2;
+
+    private static final int BEGIN = 0;
+    private static final int END = 1;
+
+    private final World world = new World(new Vector2(0, 0), true);
+    private final BodyDef moverDef = new BodyDef();
+    private final BodyDef sensorDef = new BodyDef();
+    private final FixtureDef footDef = new FixtureDef();
+    private final FixtureDef sensorFixtureDef = new FixtureDef();
+    private final FixtureDef reachDef = new FixtureDef();
+    private final CircleShape foot = new CircleShape();
+    private final PolygonShape box = new PolygonShape();
+    private final PolygonShape reach = new PolygonShape();
+
+    private final Array<Body> mobBodies = new Array<>(); // Indexed like the dense mob slots, the index is their user data
+    private final Array<Body> sensors = new Array<>(); // Indexed by trigger handle, null once removed
+    private final IntArray freeSensors = new IntArray();
+
+    // Contacts of the player with sensors, recorded during a step and passed on after it
+    private final IntArray contactTypes = new IntArray();
+    private final Array<Interactable> contactTriggers = new Array<>();
+    private final Array<Interactable> touching = new Array<>(); // Ordered by the time the contact began
+
+    // Contacts of the player with reaches: the slime, or the index of the mob
+    private final IntArray attackTypes = new IntArray();
+    private final Array<Object> attackers = new Array<>();
+
+    public PhysicsWorld() {
+        world.setContactListener(this);
+        world.setContinuousPhysics(false);
+
+        moverDef.type = BodyDef.BodyType.DynamicBody;
+        moverDef.fixedRotation = true;
+        sensorDef.type = BodyDef.BodyType.StaticBody;
+
+        foot.setRadius(FOOT_RADIUS);
+        footDef.shape = foot;
+        footDef.density = 1f;
+        footDef.friction = 0f; // Slide along walls instead of sticking to them
+        sensorFixtureDef.shape = box;
+        sensorFixtureDef.isSensor = true;
+        sensorFixtureDef.filter.categoryBits = TRIGGER;
+        sensorFixtureDef.filter.maskBits = PLAYER;
+        reach.setAsBox(REACH_HALF_SIZE, REACH_HALF_SIZE);
+        reachDef.shape = reach;
+        reachDef.isSensor = true;
+        reachDef.filter.categoryBits = ATTACK;
+        reachDef.filter.maskBits = PLAYER;
+    }
+
+    public static float toMeters(float pixels) {
+        return pixels / PIXELS_PER_METER;
+    }
+
+    public static float toPixels(float meters) {
+        return meters * PIXELS_PER_METER;
+    }
+
+    /**
+     * Moves a body to the object position {@code (x, y)} in pixels, without a collision response.
+     */
+    public static void placeBody(Body body, float x, float y) {
+        body.setTransform(toMeters(x + FOOT_OFFSET), toMeters(y + FOOT_OFFSET), 0);
+        body.setLinearVelocity(0, 0);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.BOX2D;
+    }
+
+    @Override
+    public void addWalls(CollisionBaker.Result walls, int tileWidth, int tileHeight) {
+        createWallBodies(world, walls, tileWidth, tileHeight);
+    }
+
+    /**
+     * Creates one static body with a box fixture for every merged wall rectangle.
+     *
+     * @param world      The world to add the bodies to.
+     * @param rects      The merged wall rectangles in tiles.
+     * @param tileWidth  The width of a tile in pixels.
+     * @param tileHeight The height of a tile in pixels.
+     */
+    public static void createWallBodies(World world, CollisionBaker.Result rects, int tileWidth, int tileHeight) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        PolygonShape shape = new PolygonShape();
+        for (int i = 0; i < rects.getRectCount(); i++) {
+            float halfWidth = toMeters(rects.getWidth(i) * tileWidth / 2f);
+            float halfHeight = toMeters(rects.getHeight(i) * tileHeight / 2f);
+            bodyDef.position.set(
+                    toMeters(rects.getX(i) * tileWidth) + halfWidth,
+                    toMeters(rects.getY(i) * tileHeight) + halfHeight);
+            Body body = world.createBody(bodyDef);
+            shape.setAsBox(halfWidth, halfHeight);
+            body.createFixture(shape, 1.0f);
+        }
+        shape.dispose();
+    }
+
+    /**
+     * Gives the player a body that collides with walls, sensors and reaches. It never sleeps, so contacts
+     * with sensors placed under it are noticed at once.
+     */
+    @Override
+    public void addPlayer(Player player) {
+        moverDef.allowSleep = false;
+        player.setBody(createMover(player, player.getX(), player.getY(), PLAYER, (short) (WALL | TRIGGER | ATTACK)));
+        player.setCollides(true);
+        moverDef.allowSleep = true;
+    }
+
+    /**
+     * Gives a slime or another moving object a body that collides with walls only, and a reach.
+     * If it already has one in this world, e.g. when it was taken from a pool, the body is placed and
+     * woken instead.
+     */
+    @Override
+    public void addMover(DynamicGameObject object) {
+        Body body = object.getBody();
+        if (body == null || body.getWorld() != world) {
+            object.setBody(createMover(object, object.getX(), object.getY(), MOB, WALL));
+        } else {
+            body.setActive(true);
+            placeBody(body, object.getX(), object.getY());
+        }
+        object.setCollides(true);
+    }
+
+    /**
+     * Takes a body out of the simulation while its object waits in a pool.
+     */
+    @Override
+    public void deactivate(DynamicGameObject object) {
+        if (object.getBody() != null) {
+            object.getBody().setActive(false);
+        }
+    }
+
+    /**
+     * Gives every mob of the store a body at its position. The bodies of an earlier call are moved
+     * instead of created again, since a restart places the same mobs.
+     */
+    @Override
+    public void placeMobs(MobStore mobs) {
+        while (mobBodies.size > mobs.size()) {
+            world.destroyBody(mobBodies.pop());
+        }
+        for (int i = 0; i < mobBodies.size; i++) {
+            placeBody(mobBodies.get(i), mobs.getXAt(i), mobs.getYAt(i));
+        }
+        for (int i = mobBodies.size; i < mobs.size(); i++) {
+            mobBodies.add(createMover(i, mobs.getXAt(i), mobs.getYAt(i), MOB, WALL));
+        }
+    }
+
+    private Body createMover(Object owner, float x, float y, short category, short mask) {
+        Body body = world.createBody(moverDef);
+        footDef.filter.categoryBits = category;
+        footDef.filter.maskBits = mask;
+        body.createFixture(footDef);
+        if (category == MOB) {
+            body.createFixture(reachDef);
+        }
+        body.setUserData(owner);
+        placeBody(body, x, y);
+        return body;
+    }
+
+    /**
+     * Adds a sensor over the given bounds in pixels. The player's contacts with it are passed to
+     * {@link #dispatchContacts}.
+     *
+     * @return The handle to remove it with.
+     */
+    @Override
+    public int addTrigger(Interactable trigger, float x, float y, float width, float height) {
+        sensorDef.position.set(toMeters(x + width / 2), toMeters(y + height / 2));
+        Body body = world.createBody(sensorDef);
+        box.setAsBox(toMeters(width / 2), toMeters(height / 2));
+        body.createFixture(sensorFixtureDef);
+        body.setUserData(trigger);
+        if (freeSensors.size > 0) {
+            int handle = freeSensors.pop();
+            sensors.set(handle, body);
+            return handle;
+        }
+        sensors.add(body);
+        return sensors.size - 1;
+    }
+
+    /**
+     * Removes a sensor. Its current contact ends without {@link TriggerSystem.ContactHandler#exit}.
+     */
+    @Override
+    public void removeTrigger(int handle) {
+        Body body = sensors.get(handle);
+        Interactable trigger = (Interactable) body.getUserData();
+        world.destroyBody(body); // Reports the end of its contacts, which are dropped below
+        sensors.set(handle, null);
+        freeSensors.add(handle);
+        dropContacts(trigger);
+    }
+
+    /**
+     * Removes all sensors and forgets all contacts without reporting them.
+     */
+    @Override
+    public void clearTriggers() {
+        for (int i = 0; i < sensors.size; i++) {
+            if (sensors.get(i) != null) {
+                world.destroyBody(sensors.get(i));
+            }
+        }
+        sensors.clear();
+        freeSensors.clear();
+        contactTypes.clear();
+        contactTriggers.clear();
+        touching.clear();
+        attackTypes.clear();
+        attackers.clear();
+    }
+
+    private void dropContacts(Interactable trigger) {
+        touching.removeValue(trigger, true);
+        for (int i = contactTriggers.size - 1; i >= 0; i--) {
+            if (contactTriggers.get(i) == trigger) {
+                contactTypes.removeIndex(i);
+                contactTriggers.removeIndex(i);
+            }
+        }
+    }
+
+    /**
+     * Pushes the velocities into the bodies, steps the world and pulls the positions back.
+     */
+    @Override
+    public void move(DynamicGameObject player, List<? extends DynamicGameObject> movers, MobStore mobs,
+                     float deltaTime) {
+        if (player != null) {
+            push(player);
+        }
+        for (int i = 0; i < movers.size(); i++) {
+            push(movers.get(i));
+        }
+        pushMobs(mobs);
+        world.step(deltaTime, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        if (player != null) {
+            pull(player);
+        }
+        for (int i = 0; i < movers.size(); i++) {
+            pull(movers.get(i));
+        }
+        pullMobs(mobs);
+    }
+
+    /**
+     * Hands the velocity an object wants to move at to its body.
+     */
+    private void push(DynamicGameObject object) {
+        Vector2 velocity = object.getVelocity();
+        object.getBody().setLinearVelocity(toMeters(velocity.x), toMeters(velocity.y));
+    }
+
+    /**
+     * Moves an object to where the step took its body.
+     */
+    private void pull(DynamicGameObject object) {
+        Vector2 position = object.getBody().getPosition();
+        object.placeAt(toPixels(position.x) - FOOT_OFFSET, toPixels(position.y) - FOOT_OFFSET);
+    }
+
+    /**
+     * Hands the velocities the mobs want to move at to their bodies. Bodies of mobs standing still are
+     * not touched, so they can sleep.
+     */
+    private void pushMobs(MobStore mobs) {
+        for (int i = 0; i < mobs.size(); i++) {
+            float velocityX = mobs.getVelocityXAt(i);
+            float velocityY = mobs.getVelocityYAt(i);
+            Body body = mobBodies.get(i);
+            if (velocityX != 0 || velocityY != 0 || body.isAwake()) {
+                body.setLinearVelocity(toMeters(velocityX), toMeters(velocityY));
+            }
+        }
+    }
+
+    /**
+     * Moves the mobs to where the step took their bodies.
+     */
+    private void pullMobs(MobStore mobs) {
+        for (int i = 0; i < mobs.size(); i++) {
+            Body body = mobBodies.get(i);
+            if (body.isAwake()) {
+                Vector2 position = body.getPosition();
+                mobs.placeAt(i, toPixels(position.x) - FOOT_OFFSET, toPixels(position.y) - FOOT_OFFSET);
+            }
+        }
+    }
+
+    /**
+     * Hands bodies that were created or moved outside a step to the broadphase without simulating any
+     * time. Box2D buffers such moves until the next step and searches the buffer whenever a body is
+     * destroyed, so changes without steps in between, like several restarts, would get slower and slower.
+     */
+    @Override
+    public void settle() {
+        world.step(0, 0, 0);
+    }
+
+    /**
+     * Passes the player's contacts with sensors since the last call to the handler: first the contacts
+     * that began or ended during the step, in the order they did, then every contact that lasted.
+     * Like with {@link TriggerSystem}, the handler must not add or remove triggers.
+     */
+    @Override
+    public void dispatchContacts(TriggerSystem.ContactHandler<Interactable> handler) {
+        int lasting = touching.size; // Contacts that began before this step come first in touching
+        for (int i = 0; i < contactTypes.size; i++) {
+            Interactable trigger = contactTriggers.get(i);
+            if (contactTypes.get(i) == BEGIN) {
+                touching.add(trigger);
+            } else {
+                int index = touching.indexOf(trigger, true);
+                if (index >= 0) {
+                    touching.removeIndex(index);
+                    if (index < lasting) {
+                        lasting--;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < contactTypes.size; i++) {
+            if (contactTypes.get(i) == BEGIN) {
+                handler.enter(0, contactTriggers.get(i));
+            } else {
+                handler.exit(0, contactTriggers.get(i));
+            }
+        }
+        for (int i = 0; i < lasting && i < touching.size; i++) {
+            handler.stay(0, touching.get(i));
+        }
+        contactTypes.clear();
+        contactTriggers.clear();
+    }
+
+    /**
+     * Passes the contacts of reaches with the player since the last call to the handler, in the order
+     * they began or ended during the steps.
+     */
+    @Override
+    public void dispatchAttacks(AttackHandler handler) {
+        for (int i = 0; i < attackTypes.size; i++) {
+            Object attacker = attackers.get(i);
+            if (attacker instanceof DynamicGameObject) {
+                handler.mover((DynamicGameObject) attacker, attackTypes.get(i) == BEGIN);
+            } else {
+                handler.mob((Integer) attacker, attackTypes.get(i) == BEGIN);
+            }
+        }
+        attackTypes.clear();
+        attackers.clear();
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+        recordContact(contact, BEGIN);
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        recordContact(contact, END);
+    }
+
+    private void recordContact(Contact contact, int type) {
+        // Sensors and reaches only touch the player, see the masks of their fixtures
+        Fixture sensor = contact.getFixtureA().isSensor() ? contact.getFixtureA()
+                : contact.getFixtureB().isSensor() ? contact.getFixtureB() : null;
+        if (sensor == null) {
+            return;
+        }
+        if (sensor.getFilterData().categoryBits == ATTACK) {
+            attackTypes.add(type);
+            attackers.add(sensor.getBody().getUserData());
+        } else {
+            contactTypes.add(type);
+            contactTriggers.add((Interactable) sensor.getBody().getUserData());
+        }
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMobBodyCount() {
+        return mobBodies.size;
+    }
+
+    /**
+     * The number of bodies in the world.
+     */
+    @Override
+    public int getColliderCount() {
+        return world.getBodyCount();
+    }
+
+    @Override
+    public void dispose() {
+        foot.dispose();
+        box.dispose();
+        reach.dispose();
+        world.dispose();
+    }
+}
@@ -0,0 +1,366 @@
+package de.tum.cit.fop.maze.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.map.CollisionBaker;
+import de.tum.cit.fop.maze.game.objects.DynamicGameObject;
+import de.tum.cit.fop.maze.game.objects.Interactable;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.spatial.TriggerSystem;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@link CollisionEngine.Type#TILE_GRID} engine: moves objects against a bitmap of the wall tiles
+ * instead of simulating bodies. The foot of an object is a box reaching {@link #FOOT_HALF_SIZE} to every
+ * side of its centre, as wide as the foot circle of the {@link PhysicsWorld}. A move is swept along x
+ * first and then along y; along each axis the box stops at the first wall tile in the columns or rows
+ * it enters, so it slides along walls and cannot pass through one however fast it moves. A box that
+ * already overlaps a wall is not pushed out, but cannot go any deeper.
+ * <p>
+ * The bitmap has one bit per tile, row after row, and is rasterized from the same merged rectangles
+ * the Box2D walls are made of. Tiles outside of it are free. Triggers are found with a
+ * {@link TriggerSystem} around the player's foot. Slimes and mobs touch the player while they are within
+ * {@link Slime#ATTACK_RANGE} of it on both axes, which matches the reach sensors of the Box2D engine.
+ */
+public class TileCollider implements CollisionEngine {
+    public static final float FOOT_HALF_SIZE = PhysicsWorld.toPixels(PhysicsWorld.FOOT_RADIUS);
+    private static final float TOUCH_EPSILON = 1e-3f; // Overlaps below this fraction of a tile only touch
+    private static final float TRIGGER_CELL_SIZE = 64f;
+
+    private long[] walls = new long[0];
+    private int width; // In tiles
+    private int height;
+    private int tileWidth = 1; // In pixels
+    private int tileHeight = 1;
+    private int wallRects;
+
+    private final TriggerSystem<Interactable> triggers = new TriggerSystem<>(TRIGGER_CELL_SIZE, 16);
+    private Player player;
+    private int moving; // Objects moved by the last tick, for the metrics
+
+    // Slimes and mobs touching the player after the last move, and the contacts that began or ended in it
+    private final Array<DynamicGameObject> touchingMovers = new Array<>();
+    private boolean[] touchingMobs = new boolean[0];
+    private final Array<DynamicGameObject> changedMovers = new Array<>();
+    private final IntArray changedMobs = new IntArray();
+
+    @Override
+    public Type getType() {
+        return Type.TILE_GRID;
+    }
+
+    /**
+     * Sets the bits of the tiles covered by the rectangles, growing the bitmap to fit them.
+     */
+    @Override
+    public void addWalls(CollisionBaker.Result rects, int tileWidth, int tileHeight) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        int newWidth = width;
+        int newHeight = height;
+        for (int i = 0; i < rects.getRectCount(); i++) {
+            newWidth = Math.max(newWidth, rects.getX(i) + rects.getWidth(i));
+            newHeight = Math.max(newHeight, rects.getY(i) + rects.getHeight(i));
+        }
+        if (newWidth != width || newHeight != height) {
+            resize(newWidth, newHeight);
+        }
+        for (int i = 0; i < rects.getRectCount(); i++) {
+            for (int y = rects.getY(i); y < rects.getY(i) + rects.getHeight(i); y++) {
+                for (int x = rects.getX(i); x < rects.getX(i) + rects.getWidth(i); x++) {
+                    int bit = y * width + x;
+                    walls[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        wallRects += rects.getRectCount();
+    }
+
+    private void resize(int newWidth, int newHeight) {
+        long[] resized = new long[(newWidth * newHeight + 63) >>> 6];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (isWall(x, y)) {
+                    int bit = y * newWidth + x;
+                    resized[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        walls = resized;
+        width = newWidth;
+        height = newHeight;
+    }
+
+    /**
+     * Whether a tile is a wall. Tiles outside the level are not.
+     */
+    public boolean isWall(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int bit = y * width + x;
+        return (walls[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    @Override
+    public void addPlayer(Player player) {
+        this.player = player;
+        addMover(player);
+    }
+
+    @Override
+    public void addMover(DynamicGameObject object) {
+        object.setBody(null); // From an earlier Box2D engine
+        object.setCollides(true);
+    }
+
+    /**
+     * Ends the object's contact with the player without reporting it.
+     */
+    @Override
+    public void deactivate(DynamicGameObject object) {
+        touchingMovers.removeValue(object, true);
+        changedMovers.removeValue(object, true);
+    }
+
+    /**
+     * Forgets which mobs touched the player, they all start again without a contact.
+     */
+    @Override
+    public void placeMobs(MobStore mobs) {
+        if (touchingMobs.length < mobs.size()) {
+            touchingMobs = new boolean[mobs.size()];
+        } else {
+            Arrays.fill(touchingMobs, false);
+        }
+    }
+
+    @Override
+    public int addTrigger(Interactable trigger, float x, float y, float width, float height) {
+        return triggers.add(trigger, x, y, width, height);
+    }
+
+    @Override
+    public void removeTrigger(int handle) {
+        triggers.remove(handle);
+    }
+
+    @Override
+    public void clearTriggers() {
+        triggers.clear();
+        touchingMovers.clear();
+        Arrays.fill(touchingMobs, false);
+        changedMovers.clear();
+        changedMobs.clear();
+    }
+
+    @Override
+    public void move(DynamicGameObject player, List<? extends DynamicGameObject> movers, MobStore mobs,
+                     float deltaTime) {
+        moving = 0;
+        if (player != null) {
+            move(player, deltaTime);
+        }
+        for (int i = 0; i < movers.size(); i++) {
+            move(movers.get(i), deltaTime);
+        }
+        for (int i = 0; i < mobs.size(); i++) {
+            float deltaX = mobs.getVelocityXAt(i) * deltaTime;
+            float deltaY = mobs.getVelocityYAt(i) * deltaTime;
+            if (deltaX != 0 || deltaY != 0) {
+                float footX = mobs.getXAt(i) + PhysicsWorld.FOOT_OFFSET;
+                float footY = mobs.getYAt(i) + PhysicsWorld.FOOT_OFFSET;
+                deltaX = sweepX(footX, footY, deltaX);
+                deltaY = sweepY(footX + deltaX, footY, deltaY);
+                mobs.placeAt(i, mobs.getXAt(i) + deltaX, mobs.getYAt(i) + deltaY);
+                moving++;
+            }
+        }
+        if (player != null) {
+            findAttackers(player, movers, mobs);
+        }
+    }
+
+    /**
+     * Records the slimes and mobs whose contact with the player began or ended in this move.
+     */
+    private void findAttackers(DynamicGameObject player, List<? extends DynamicGameObject> movers, MobStore mobs) {
+        for (int i = 0; i < movers.size(); i++) {
+            DynamicGameObject mover = movers.get(i);
+            boolean touching = reaches(player, mover.getX(), mover.getY());
+            if (touching != touchingMovers.contains(mover, true)) {
+                if (touching) {
+                    touchingMovers.add(mover);
+                } else {
+                    touchingMovers.removeValue(mover, true);
+                }
+                changedMovers.add(mover);
+            }
+        }
+        if (touchingMobs.length < mobs.size()) {
+            touchingMobs = Arrays.copyOf(touchingMobs, mobs.size());
+        }
+        for (int i = 0; i < mobs.size(); i++) {
+            boolean touching = reaches(player, mobs.getXAt(i), mobs.getYAt(i));
+            if (touching != touchingMobs[i]) {
+                touchingMobs[i] = touching;
+                changedMobs.add(i);
+            }
+        }
+    }
+
+    private static boolean reaches(DynamicGameObject player, float x, float y) {
+        return Math.abs(player.getX() - x) < Slime.ATTACK_RANGE && Math.abs(player.getY() - y) < Slime.ATTACK_RANGE;
+    }
+
+    private void move(DynamicGameObject object, float deltaTime) {
+        Vector2 velocity = object.getVelocity();
+        float deltaX = velocity.x * deltaTime;
+        float deltaY = velocity.y * deltaTime;
+        if (deltaX != 0 || deltaY != 0) {
+            float footX = object.getX() + PhysicsWorld.FOOT_OFFSET;
+            float footY = object.getY() + PhysicsWorld.FOOT_OFFSET;
+            deltaX = sweepX(footX, footY, deltaX);
+            deltaY = sweepY(footX + deltaX, footY, deltaY);
+            object.placeAt(object.getX() + deltaX, object.getY() + deltaY);
+            moving++;
+        }
+    }
+
+    /**
+     * How far the foot centred at {@code (footX, footY)} gets of {@code deltaX} before it hits a wall.
+     */
+    private float sweepX(float footX, float footY, float deltaX) {
+        int firstRow = firstTile(footY - FOOT_HALF_SIZE, tileHeight);
+        int lastRow = lastTile(footY + FOOT_HALF_SIZE, tileHeight);
+        if (deltaX > 0) {
+            float right = footX + FOOT_HALF_SIZE;
+            int end = lastTile(right + deltaX, tileWidth);
+            for (int column = lastTile(right, tileWidth) + 1; column <= end; column++) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    if (isWall(column, row)) {
+                        return Math.max(0f, column * tileWidth - right);
+                    }
+                }
+            }
+        } else if (deltaX < 0) {
+            float left = footX - FOOT_HALF_SIZE;
+            int end = firstTile(left + deltaX, tileWidth);
+            for (int column = firstTile(left, tileWidth) - 1; column >= end; column--) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    if (isWall(column, row)) {
+                        return Math.min(0f, (column + 1) * tileWidth - left);
+                    }
+                }
+            }
+        }
+        return deltaX;
+    }
+
+    /**
+     * How far the foot centred at {@code (footX, footY)} gets of {@code deltaY} before it hits a wall.
+     */
+    private float sweepY(float footX, float footY, float deltaY) {
+        int firstColumn = firstTile(footX - FOOT_HALF_SIZE, tileWidth);
+        int lastColumn = lastTile(footX + FOOT_HALF_SIZE, tileWidth);
+        if (deltaY > 0) {
+            float top = footY + FOOT_HALF_SIZE;
+            int end = lastTile(top + deltaY, tileHeight);
+            for (int row = lastTile(top, tileHeight) + 1; row <= end; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    if (isWall(column, row)) {
+                        return Math.max(0f, row * tileHeight - top);
+                    }
+                }
+            }
+        } else if (deltaY < 0) {
+            float bottom = footY - FOOT_HALF_SIZE;
+            int end = firstTile(bottom + deltaY, tileHeight);
+            for (int row = firstTile(bottom, tileHeight) - 1; row >= end; row--) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    if (isWall(column, row)) {
+                        return Math.min(0f, (row + 1) * tileHeight - bottom);
+                    }
+                }
+            }
+        }
+        return deltaY;
+    }
+
+    // The tile a box starting at the pixel coordinate begins in; a box ending at it ends in lastTile.
+    // A box that reaches into a tile by less than TOUCH_EPSILON only touches it, so a box stopped at a
+    // wall is not taken to be inside it because of rounding
+    private static int firstTile(float pixels, int tileSize) {
+        return (int) Math.floor(pixels / tileSize + TOUCH_EPSILON);
+    }
+
+    private static int lastTile(float pixels, int tileSize) {
+        return (int) Math.ceil(pixels / tileSize - TOUCH_EPSILON) - 1;
+    }
+
+    @Override
+    public void settle() {
+    }
+
+    /**
+     * Looks up the triggers under the player's foot and reports how the contacts changed since the last
+     * call, see {@link TriggerSystem#update}.
+     */
+    @Override
+    public void dispatchContacts(TriggerSystem.ContactHandler<Interactable> handler) {
+        if (player != null) {
+            triggers.overlap(0, player.getX() + PhysicsWorld.FOOT_OFFSET - FOOT_HALF_SIZE,
+                    player.getY() + PhysicsWorld.FOOT_OFFSET - FOOT_HALF_SIZE, 2 * FOOT_HALF_SIZE, 2 * FOOT_HALF_SIZE);
+        }
+        triggers.update(handler);
+    }
+
+    /**
+     * Passes the slimes and mobs whose contact with the player began or ended in the moves since the
+     * last call to the handler, slimes first.
+     */
+    @Override
+    public void dispatchAttacks(AttackHandler handler) {
+        for (int i = 0; i < changedMovers.size; i++) {
+            DynamicGameObject mover = changedMovers.get(i);
+            handler.mover(mover, touchingMovers.contains(mover, true));
+        }
+        for (int i = 0; i < changedMobs.size; i++) {
+            int mob = changedMobs.get(i);
+            handler.mob(mob, mob < touchingMobs.length && touchingMobs[mob]);
+        }
+        changedMovers.clear();
+        changedMobs.clear();
+    }
+
+    /**
+     * The wall rectangles, the objects that moved in the last tick and the triggers.
+     */
+    @Override
+    public int getColliderCount() {
+        return wallRects + moving + triggers.size();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void dispose() {
+        Arrays.fill(walls, 0);
+        triggers.clear();
+        touchingMovers.clear();
+        changedMovers.clear();
+        changedMobs.clear();
+        player = null;
+    }
+}
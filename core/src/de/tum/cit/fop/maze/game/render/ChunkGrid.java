@@ -0,0 +1,77 @@
+package de.tum.cit.fop.maze.game.render;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Divides a tile map into square chunks of a fixed number of tiles and finds the chunks that
+ * intersect a view rectangle. Finding them only touches the visible chunks, so it costs the same
+ * for a 20x20 and a 1000x1000 map.
+ */
+public class ChunkGrid {
+    private final int chunkTiles;
+    private final float chunkWidth;
+    private final float chunkHeight;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * @param mapWidth   The width of the map in tiles.
+     * @param mapHeight  The height of the map in tiles.
+     * @param tileWidth  The width of a tile in world units.
+     * @param tileHeight The height of a tile in world units.
+     * @param chunkTiles The number of tiles along each side of a chunk.
+     */
+    public ChunkGrid(int mapWidth, int mapHeight, float tileWidth, float tileHeight, int chunkTiles) {
+        if (chunkTiles <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkTiles = chunkTiles;
+        this.chunkWidth = chunkTiles * tileWidth;
+        this.chunkHeight = chunkTiles * tileHeight;
+        this.columns = (mapWidth + chunkTiles - 1) / chunkTiles;
+        this.rows = (mapHeight + chunkTiles - 1) / chunkTiles;
+    }
+
+    /**
+     * Collects the chunks overlapping a view rectangle, row by row.
+     *
+     * @param out Receives the chunk indices ({@code row * columns + column}); cleared first.
+     * @return The number of visible chunks.
+     */
+    public int visibleChunks(float viewX, float viewY, float viewWidth, float viewHeight, IntArray out) {
+        out.clear();
+        int minColumn = Math.max(0, (int) Math.floor(viewX / chunkWidth));
+        int minRow = Math.max(0, (int) Math.floor(viewY / chunkHeight));
+        int maxColumn = Math.min(columns - 1, (int) Math.floor((viewX + viewWidth) / chunkWidth));
+        int maxRow = Math.min(rows - 1, (int) Math.floor((viewY + viewHeight) / chunkHeight));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                out.add(row * columns + column);
+            }
+        }
+        return out.size;
+    }
+
+    /**
+     * Returns the chunk a tile belongs to.
+     */
+    public int chunkOf(int tileX, int tileY) {
+        return (tileY / chunkTiles) * columns + tileX / chunkTiles;
+    }
+
+    public int getChunkCount() {
+        return columns * rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getChunkTiles() {
+        return chunkTiles;
+    }
+}
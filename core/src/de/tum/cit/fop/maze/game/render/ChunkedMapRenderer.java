@@ -0,0 +1,193 @@
+package de.tum.cit.fop.maze.game.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Draws the tile layers of a map from geometry that is built once instead of every frame.
+ * The map is split into chunks of {@link ChunkGrid#getChunkTiles()} tiles; the tiles of each chunk
+ * are baked into a {@link SpriteCache} when the map is loaded, and every frame only the chunks
+ * intersecting the camera are drawn, one cached draw call per chunk. A frame therefore costs about the
+ * same no matter how large the map is.
+ * <p>
+ * Tiles are baked with the region they have at load time, so animated tiles stay on their first
+ * frame. Only axis-aligned orthographic cameras are supported.
+ */
+public class ChunkedMapRenderer implements Disposable {
+    // A SpriteCache with indices holds at most 8191 sprites; larger maps use several
+    private static final int SPRITES_PER_CACHE = 8191;
+
+    private final ChunkGrid chunks;
+    private final Array<SpriteCache> caches = new Array<>();
+    private final int[] cacheOfChunk;
+    private final int[] cacheIdOfChunk;
+    private final IntArray visibleChunks = new IntArray();
+    private int lastDrawnChunks;
+
+    /**
+     * Bakes all visible tile layers of the map.
+     *
+     * @param map        The map; its tile regions must not change afterwards.
+     * @param chunkTiles The number of tiles along each side of a chunk.
+     */
+    public ChunkedMapRenderer(TiledMap map, int chunkTiles) {
+        int mapWidth = map.getProperties().get("width", Integer.class);
+        int mapHeight = map.getProperties().get("height", Integer.class);
+        int tileWidth = map.getProperties().get("tilewidth", Integer.class);
+        int tileHeight = map.getProperties().get("tileheight", Integer.class);
+        chunks = new ChunkGrid(mapWidth, mapHeight, tileWidth, tileHeight, chunkTiles);
+
+        Array<TiledMapTileLayer> layers = new Array<>();
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer && layer.isVisible()) {
+                layers.add((TiledMapTileLayer) layer);
+            }
+        }
+
+        // Count the tiles of every chunk first, so chunks can be packed into caches without splitting them
+        int chunkCount = chunks.getChunkCount();
+        int[] spritesOfChunk = new int[chunkCount];
+        for (TiledMapTileLayer layer : layers) {
+            int layerWidth = Math.min(layer.getWidth(), mapWidth);
+            int layerHeight = Math.min(layer.getHeight(), mapHeight);
+            for (int y = 0; y < layerHeight; y++) {
+                for (int x = 0; x < layerWidth; x++) {
+                    if (tileAt(layer, x, y) != null) {
+                        spritesOfChunk[chunks.chunkOf(x, y)]++;
+                    }
+                }
+            }
+        }
+
+        cacheOfChunk = new int[chunkCount];
+        cacheIdOfChunk = new int[chunkCount];
+        Arrays.fill(cacheIdOfChunk, -1);
+        int cacheFill = SPRITES_PER_CACHE;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (spritesOfChunk[chunk] == 0) {
+                continue;
+            }
+            if (spritesOfChunk[chunk] > SPRITES_PER_CACHE) {
+                throw new IllegalArgumentException("Chunk of " + chunkTiles + "x" + chunkTiles + " tiles has more than "
+                        + SPRITES_PER_CACHE + " tiles in all layers, use smaller chunks");
+            }
+            if (cacheFill + spritesOfChunk[chunk] > SPRITES_PER_CACHE) {
+                caches.add(new SpriteCache(SPRITES_PER_CACHE, true));
+                cacheFill = 0;
+            }
+            cacheFill += spritesOfChunk[chunk];
+            cacheOfChunk[chunk] = caches.size - 1;
+            cacheIdOfChunk[chunk] = bakeChunk(caches.peek(), layers, chunk, mapWidth, mapHeight, tileWidth, tileHeight);
+        }
+    }
+
+    private int bakeChunk(SpriteCache cache, Array<TiledMapTileLayer> layers, int chunk,
+                          int mapWidth, int mapHeight, int tileWidth, int tileHeight) {
+        int size = chunks.getChunkTiles();
+        int startX = (chunk % chunks.getColumns()) * size;
+        int startY = (chunk / chunks.getColumns()) * size;
+
+        cache.beginCache();
+        for (TiledMapTileLayer layer : layers) {
+            cache.setColor(1, 1, 1, layer.getOpacity());
+            int endX = Math.min(startX + size, Math.min(layer.getWidth(), mapWidth));
+            int endY = Math.min(startY + size, Math.min(layer.getHeight(), mapHeight));
+            for (int y = startY; y < endY; y++) {
+                for (int x = startX; x < endX; x++) {
+                    TiledMapTile tile = tileAt(layer, x, y);
+                    if (tile == null) {
+                        continue;
+                    }
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    TextureRegion region = tile.getTextureRegion();
+                    float width = region.getRegionWidth();
+                    float height = region.getRegionHeight();
+                    float drawX = x * tileWidth + tile.getOffsetX() + layer.getRenderOffsetX();
+                    float drawY = y * tileHeight + tile.getOffsetY() - layer.getRenderOffsetY();
+                    if (!cell.getFlipHorizontally() && !cell.getFlipVertically() && cell.getRotation() == 0) {
+                        cache.add(region, drawX, drawY, width, height);
+                    } else {
+                        // Flip and rotate around the tile centre
+                        cache.add(region, drawX, drawY, width / 2, height / 2, width, height,
+                                cell.getFlipHorizontally() ? -1 : 1, cell.getFlipVertically() ? -1 : 1,
+                                cell.getRotation() * 90);
+                    }
+                }
+            }
+        }
+        return cache.endCache();
+    }
+
+    private static TiledMapTile tileAt(TiledMapTileLayer layer, int x, int y) {
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        return cell == null ? null : cell.getTile();
+    }
+
+    /**
+     * Draws the chunks inside the camera's view.
+     */
+    public void render(OrthographicCamera camera) {
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        chunks.visibleChunks(camera.position.x - viewWidth / 2, camera.position.y - viewHeight / 2,
+                viewWidth, viewHeight, visibleChunks);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        SpriteCache current = null;
+        int drawn = 0;
+        for (int i = 0; i < visibleChunks.size; i++) {
+            int chunk = visibleChunks.get(i);
+            if (cacheIdOfChunk[chunk] < 0) {
+                continue; // Empty chunk
+            }
+            SpriteCache cache = caches.get(cacheOfChunk[chunk]);
+            if (cache != current) {
+                if (current != null) {
+                    current.end();
+                }
+                current = cache;
+                current.setProjectionMatrix(camera.combined);
+                current.begin();
+            }
+            current.draw(cacheIdOfChunk[chunk]);
+            drawn++;
+        }
+        if (current != null) {
+            current.end();
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        lastDrawnChunks = drawn;
+    }
+
+    /**
+     * Number of chunks drawn by the last {@link #render} call.
+     */
+    public int getLastDrawnChunks() {
+        return lastDrawnChunks;
+    }
+
+    public ChunkGrid getChunks() {
+        return chunks;
+    }
+
+    @Override
+    public void dispose() {
+        for (SpriteCache cache : caches) {
+            cache.dispose();
+        }
+        caches.clear();
+    }
+}
@@ -0,0 +1,188 @@
+package de.tum.cit.fop.maze.game.render;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+
+/**
+ * Everything the game screen needs to draw one simulation tick, copied out of the game objects so that
+ * the simulation can go on with the next tick on another thread meanwhile.
+ * Each sprite is the animation frame an object shows, with its position before and after the tick for
+ * interpolation; texture regions are never changed after loading, so they are shared instead of copied.
+ * The HUD values and the simulation's running time totals come along.
+ * <p>
+ * A snapshot is filled by one thread and read by another; it is handed over through a
+ * {@link SnapshotExchange}, which provides the memory visibility. The arrays are reused, so filling a
+ * snapshot allocates nothing once it has grown to the number of sprites.
+ */
+public class RenderSnapshot {
+    private static final float NATURAL_SIZE = -1;
+
+    private TextureRegion[] regions = new TextureRegion[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private float[] width = new float[64];
+    private float[] height = new float[64];
+    private int spriteCount;
+
+    // HUD and bookkeeping
+    private int hearts;
+    private int keys;
+    private boolean gameOver;
+    private int entities;
+    private int bodies;
+    private long tick;
+    private long tickNanos; // Total time spent running ticks
+    private long physicsNanos; // Total time spent stepping the physics world
+    private long tickTime; // System.nanoTime() at which the tick was due
+
+    /**
+     * Empties the snapshot before it is filled again. Releases the regions of the last fill.
+     */
+    public void clear() {
+        Arrays.fill(regions, 0, spriteCount, null);
+        spriteCount = 0;
+    }
+
+    /**
+     * Adds a sprite drawn at the size of its region.
+     */
+    public void addSprite(TextureRegion region, float previousX, float previousY, float x, float y) {
+        addSprite(region, previousX, previousY, x, y, NATURAL_SIZE, NATURAL_SIZE);
+    }
+
+    /**
+     * Adds a sprite drawn at the given size.
+     */
+    public void addSprite(TextureRegion region, float previousX, float previousY, float x, float y,
+                          float width, float height) {
+        if (spriteCount == regions.length) {
+            grow(spriteCount * 2);
+        }
+        int i = spriteCount++;
+        regions[i] = region;
+        this.previousX[i] = previousX;
+        this.previousY[i] = previousY;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+    }
+
+    /**
+     * Draws the sprites whose interpolated position lies inside the view, extended by a margin so that
+     * sprites crossing the border are not cut off, in the order they were added.
+     *
+     * @param alpha The fraction of a tick that has passed since the snapshot was taken.
+     * @return The number of sprites drawn.
+     */
+    public int draw(SpriteBatch batch, float alpha, float viewX, float viewY, float viewWidth, float viewHeight,
+                    float margin) {
+        float minX = viewX - margin;
+        float minY = viewY - margin;
+        float maxX = viewX + viewWidth + margin;
+        float maxY = viewY + viewHeight + margin;
+        int drawn = 0;
+        for (int i = 0; i < spriteCount; i++) {
+            float drawX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float drawY = previousY[i] + (y[i] - previousY[i]) * alpha;
+            if (drawX < minX || drawX > maxX || drawY < minY || drawY > maxY) {
+                continue;
+            }
+            if (width[i] == NATURAL_SIZE) {
+                batch.draw(regions[i], drawX, drawY);
+            } else {
+                batch.draw(regions[i], drawX, drawY, width[i], height[i]);
+            }
+            drawn++;
+        }
+        return drawn;
+    }
+
+    private void grow(int capacity) {
+        regions = Arrays.copyOf(regions, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    /**
+     * Sets the HUD values of the tick.
+     */
+    public void setHud(int hearts, int keys, boolean gameOver) {
+        this.hearts = hearts;
+        this.keys = keys;
+        this.gameOver = gameOver;
+    }
+
+    /**
+     * Sets the statistics of the simulation at the tick.
+     *
+     * @param entities     The number of live game objects and mobs.
+     * @param bodies       The number of bodies or other colliders of the collision engine.
+     * @param tick         The number of ticks run so far.
+     * @param tickNanos    The total time spent running ticks so far.
+     * @param physicsNanos The part of it spent stepping the physics world.
+     */
+    public void setStatistics(int entities, int bodies, long tick, long tickNanos, long physicsNanos) {
+        this.entities = entities;
+        this.bodies = bodies;
+        this.tick = tick;
+        this.tickNanos = tickNanos;
+        this.physicsNanos = physicsNanos;
+    }
+
+    public void setTickTime(long tickTime) {
+        this.tickTime = tickTime;
+    }
+
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    public int getHearts() {
+        return hearts;
+    }
+
+    public int getKeys() {
+        return keys;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getEntities() {
+        return entities;
+    }
+
+    public int getBodies() {
+        return bodies;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getPhysicsNanos() {
+        return physicsNanos;
+    }
+
+    /**
+     * The {@link System#nanoTime()} at which the tick was due in real time. Frames drawn during the
+     * following tick interpolate from the previous to the current positions.
+     */
+    public long getTickTime() {
+        return tickTime;
+    }
+}
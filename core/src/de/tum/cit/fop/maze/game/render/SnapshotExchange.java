@@ -0,0 +1,47 @@
+package de.tum.cit.fop.maze.game.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands render snapshots from the simulation thread to the render thread without locks.
+ * There are three snapshots: the writer fills its back snapshot while the reader draws its front
+ * snapshot, and the third one in the middle holds the newest published snapshot. Publishing swaps the
+ * back snapshot with the middle one; acquiring swaps the middle snapshot with the front one if a newer
+ * one has been published since. Both swaps are a single atomic exchange, so neither side ever waits for
+ * the other, and the reader always gets the most recent complete tick, skipping ticks when it is slower.
+ * <p>
+ * Exactly one thread may write and exactly one thread may read.
+ */
+public class SnapshotExchange {
+    private static final int INDEX = 0b011;
+    private static final int FRESH = 0b100; // Set when the middle snapshot has not been acquired yet
+
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 2; // Only touched by the writer
+    private int front = 0; // Only touched by the reader
+
+    /**
+     * The snapshot the writer fills next. Its content is whatever was published two swaps ago.
+     */
+    public RenderSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Makes the back snapshot the newest one and gives the writer a new back snapshot.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * The newest published snapshot. Stays valid until the next call.
+     */
+    public RenderSnapshot acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return snapshots[front];
+    }
+}
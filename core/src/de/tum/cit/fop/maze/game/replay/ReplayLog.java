@@ -0,0 +1,258 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.IntArray;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.objects.Slime;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A recorded run of a level: the level, a seed, the collision engine, the keys held down in every tick,
+ * and a checksum of the state after the last tick, so that a replay can tell whether it ended up in the
+ * same state. The engine cannot change during a recording, since the two engines move objects differently.
+ * <p>
+ * The keys of a tick are a bit mask over {@link #PLAYER_KEYS}. Input rarely changes from one tick to the
+ * next, so ticks are stored as runs of equal masks; a run whose mask has {@link #RESTART} set begins with
+ * a restart of the level. The binary form is the magic {@code "MZRP"}, the version, the tick rate, the
+ * seed, the level path, the name of the collision engine, the number of runs, every run as its mask byte followed by its length as a
+ * variable-length int, then the number of ticks and the checksum, all big-endian. A minute of play
+ * typically takes a few hundred bytes.
+ */
+public class ReplayLog {
+    public static final int MAGIC = 0x4D5A5250; // "MZRP"
+    public static final int VERSION = 2;
+    public static final int[] PLAYER_KEYS = {Input.Keys.LEFT, Input.Keys.RIGHT, Input.Keys.UP, Input.Keys.DOWN,
+            Input.Keys.SHIFT_LEFT};
+    public static final int RESTART = 0x80; // Mask bit of a run that starts with a restart
+
+    private final String level;
+    private final long seed;
+    private final int ticksPerSecond;
+    private CollisionEngine.Type collisionEngine = CollisionEngine.Type.BOX2D;
+    private final ByteArray masks = new ByteArray();
+    private final IntArray lengths = new IntArray();
+    private long tickCount;
+    private long checksum;
+
+    /**
+     * Creates an empty log to record into.
+     *
+     * @param level          The level file the run was played on, as passed to the headless loader.
+     * @param seed           The seed the level was generated from, 0 for the shipped levels.
+     * @param ticksPerSecond The rate of the simulation the run is recorded from.
+     */
+    public ReplayLog(String level, long seed, int ticksPerSecond) {
+        this.level = level;
+        this.seed = seed;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Adds a tick, extending the last run if the mask did not change.
+     *
+     * @param mask The keys held down, with {@link #RESTART} set if the level was restarted before the tick.
+     */
+    public void append(int mask) {
+        int last = masks.size - 1;
+        if (last >= 0 && masks.get(last) == (byte) mask && (mask & RESTART) == 0) {
+            lengths.incr(last, 1);
+        } else {
+            masks.add((byte) mask);
+            lengths.add(1);
+        }
+        tickCount++;
+    }
+
+    /**
+     * Reads the keys of {@link #PLAYER_KEYS} that are held down into a mask.
+     */
+    public static int mask(InputSource input) {
+        int mask = 0;
+        for (int i = 0; i < PLAYER_KEYS.length; i++) {
+            if (input.isKeyPressed(PLAYER_KEYS[i])) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Whether a key is held down in a mask. Keys outside {@link #PLAYER_KEYS} never are.
+     */
+    public static boolean isPressed(int mask, int keycode) {
+        for (int i = 0; i < PLAYER_KEYS.length; i++) {
+            if (PLAYER_KEYS[i] == keycode) {
+                return (mask & 1 << i) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A hash of the state the game logic carries from one tick to the next: the player, the slimes and
+     * the mobs. Two runs that end with the same checksum almost certainly took the same course.
+     */
+    public static long checksum(GameSimulation simulation) {
+        Player player = simulation.getPlayer();
+        long hash = simulation.getMobs().checksum();
+        hash = hash * 31 + Float.floatToIntBits(player.getX());
+        hash = hash * 31 + Float.floatToIntBits(player.getY());
+        hash = hash * 31 + player.getHearts();
+        hash = hash * 31 + player.getKeys();
+        hash = hash * 31 + (player.isGameOver() ? 1 : 0);
+        List<Slime> slimes = simulation.getSlimes();
+        for (int i = 0; i < slimes.size(); i++) {
+            hash = hash * 31 + Float.floatToIntBits(slimes.get(i).getX());
+            hash = hash * 31 + Float.floatToIntBits(slimes.get(i).getY());
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the log in its binary form. The stream is not closed.
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(ticksPerSecond);
+        data.writeLong(seed);
+        data.writeUTF(level);
+        data.writeUTF(collisionEngine.name());
+        data.writeInt(masks.size);
+        for (int i = 0; i < masks.size; i++) {
+            data.writeByte(masks.get(i));
+            writeVarInt(data, lengths.get(i));
+        }
+        data.writeLong(tickCount);
+        data.writeLong(checksum);
+        data.flush();
+    }
+
+    /**
+     * Reads a log in its binary form. The stream is not closed.
+     *
+     * @throws IOException If the stream ends early, does not hold a replay or one of another version.
+     */
+    public static ReplayLog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        int ticksPerSecond = data.readInt();
+        if (ticksPerSecond <= 0) {
+            throw new IOException("Invalid tick rate " + ticksPerSecond);
+        }
+        long seed = data.readLong();
+        ReplayLog log = new ReplayLog(data.readUTF(), seed, ticksPerSecond);
+        String engine = data.readUTF();
+        try {
+            log.collisionEngine = CollisionEngine.Type.valueOf(engine);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown collision engine " + engine, e);
+        }
+        int runs = data.readInt();
+        log.masks.ensureCapacity(runs);
+        log.lengths.ensureCapacity(runs);
+        long ticks = 0;
+        for (int i = 0; i < runs; i++) {
+            log.masks.add(data.readByte());
+            int length = readVarInt(data);
+            if (length <= 0) {
+                throw new IOException("Invalid run length " + length);
+            }
+            log.lengths.add(length);
+            ticks += length;
+        }
+        log.tickCount = data.readLong();
+        if (log.tickCount != ticks) {
+            throw new IOException("Replay holds " + ticks + " ticks instead of " + log.tickCount);
+        }
+        log.checksum = data.readLong();
+        return log;
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed run length");
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public CollisionEngine.Type getCollisionEngine() {
+        return collisionEngine;
+    }
+
+    /**
+     * Sets the engine the run is played with, before the first tick is recorded. Defaults to Box2D.
+     */
+    public void setCollisionEngine(CollisionEngine.Type collisionEngine) {
+        this.collisionEngine = collisionEngine;
+    }
+
+    public int getRunCount() {
+        return masks.size;
+    }
+
+    /**
+     * The mask of a run, including the {@link #RESTART} bit.
+     */
+    public int getMask(int run) {
+        return masks.get(run) & 0xFF;
+    }
+
+    public int getLength(int run) {
+        return lengths.get(run);
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(long checksum) {
+        this.checksum = checksum;
+    }
+}
@@ -0,0 +1,74 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
+
+/**
+ * Plays a {@link ReplayLog} back: at the start of each tick it restarts the level where the recording
+ * did and hands the recorded keys to the player. The simulation decides the pace, so the same log can be
+ * replayed in real time or as fast as the ticks run.
+ * <p>
+ * The game logic draws no random numbers and only depends on the level, the input and the fixed tick
+ * length, so a replay of the same level reaches the same state as the recording. Compare the checksums
+ * with {@link #matchesRecording(GameSimulation)} once {@link #isFinished()}.
+ * <p>
+ * Install it as both the player's input source and the simulation's tick listener.
+ */
+public class ReplayPlayback implements InputSource, GameSimulation.TickListener {
+    private final ReplayLog log;
+    private int run = -1;
+    private int ticksLeftInRun;
+    private long ticksPlayed;
+    private int mask;
+
+    public ReplayPlayback(ReplayLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void beforeTick(GameSimulation simulation) {
+        if (isFinished()) {
+            mask = 0; // Past the end of the recording nothing is pressed
+            return;
+        }
+        if (ticksLeftInRun == 0) {
+            run++;
+            ticksLeftInRun = log.getLength(run);
+            int runMask = log.getMask(run);
+            mask = runMask & ~ReplayLog.RESTART;
+            if ((runMask & ReplayLog.RESTART) != 0) {
+                simulation.getPlayer().reset();
+                simulation.restart();
+            }
+        }
+        ticksLeftInRun--;
+        ticksPlayed++;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return ReplayLog.isPressed(mask, keycode);
+    }
+
+    /**
+     * Whether every recorded tick has been played.
+     */
+    public boolean isFinished() {
+        return ticksPlayed == log.getTickCount();
+    }
+
+    public long getRemainingTicks() {
+        return log.getTickCount() - ticksPlayed;
+    }
+
+    /**
+     * Whether the simulation is in the state the recording ended in. Only meaningful once finished.
+     */
+    public boolean matchesRecording(GameSimulation simulation) {
+        return ReplayLog.checksum(simulation) == log.getChecksum();
+    }
+
+    public ReplayLog getLog() {
+        return log;
+    }
+}
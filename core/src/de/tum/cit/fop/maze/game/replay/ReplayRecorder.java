@@ -0,0 +1,61 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
+
+/**
+ * Records the input of every tick into a {@link ReplayLog}.
+ * The recorder sits between the player and its real input: at the start of each tick it reads the
+ * {@link ReplayLog#PLAYER_KEYS} from the source once and appends them to the log, and the player reads
+ * its keys from that copy during the tick. What is recorded is therefore exactly what the game logic saw,
+ * even when the source changes in the middle of a tick. Restarts of the level are recorded as well.
+ * <p>
+ * Install it as both the player's input source and the simulation's tick listener.
+ */
+public class ReplayRecorder implements InputSource, GameSimulation.TickListener {
+    private final InputSource source;
+    private final ReplayLog log;
+    private int mask;
+    private boolean restarted;
+
+    /**
+     * @param source The input the player would otherwise read.
+     * @param log    The log to append to.
+     */
+    public ReplayRecorder(InputSource source, ReplayLog log) {
+        this.source = source;
+        this.log = log;
+    }
+
+    @Override
+    public void beforeTick(GameSimulation simulation) {
+        mask = ReplayLog.mask(source);
+        log.append(restarted ? mask | ReplayLog.RESTART : mask);
+        restarted = false;
+    }
+
+    @Override
+    public void restarted(GameSimulation simulation) {
+        restarted = true;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return ReplayLog.isPressed(mask, keycode);
+    }
+
+    /**
+     * Stores the checksum of the simulation's current state in the log. Call it after the last recorded
+     * tick, on the thread that runs the simulation.
+     *
+     * @return The completed log.
+     */
+    public ReplayLog finish(GameSimulation simulation) {
+        log.setChecksum(ReplayLog.checksum(simulation));
+        return log;
+    }
+
+    public ReplayLog getLog() {
+        return log;
+    }
+}
@@ -0,0 +1,279 @@
+package de.tum.cit.fop.maze.game.save;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.game.objects.GameState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Saves a {@link GameState} as an append-only journal, so that saving often costs only the bits that
+ * changed instead of rewriting the whole state.
+ * <p>
+ * The file starts with the magic {@code "MZSV"} and the version, followed by records. A record is its
+ * type, the number of words it holds, every word as its kind byte, its index as a variable-length int
+ * and its 64 bits, and a CRC32 of all of it; a {@link #SNAPSHOT} record holds every non-empty word, a
+ * {@link #DIFF} record the words that changed since the record before. {@link #save(GameState)} appends
+ * a diff, about 20 bytes per collected item, and nothing at all if nothing changed. Once the journal
+ * has grown past a limit, it is compacted: the whole state is written as a single snapshot to a new file,
+ * which then atomically replaces the journal.
+ * <p>
+ * A record that was cut short by a crash fails its checksum when loading; it and everything after it is
+ * dropped, so a save is either complete or not there. A file that is no save or has another version is
+ * moved aside to {@code <name>.bad} and the game starts over with an empty one. Only one thread may use a
+ * journal at a time.
+ */
+public class SaveJournal implements AutoCloseable {
+    public static final int MAGIC = 0x4D5A5356; // "MZSV"
+    public static final int VERSION = 1;
+    public static final byte SNAPSHOT = 1;
+    public static final byte DIFF = 2;
+    public static final int DEFAULT_COMPACT_BYTES = 4096; // Journal size at which it is compacted
+
+    private static final int HEADER_BYTES = 8;
+    private static final int WORD_BYTES = 1 + 5 + 8; // Kind, index and bits of a word at most
+
+    private final Path path;
+    private final Path compactPath;
+    private final Path badPath;
+    private final int compactBytes;
+    private final CRC32 crc = new CRC32();
+    private final GameState.ChangeSink writeWord = this::writeWord;
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private FileChannel channel;
+    private long size; // Bytes in the journal file
+
+    /**
+     * @param file         The journal file. Created if it does not exist.
+     * @param compactBytes The size in bytes at which the journal is compacted.
+     */
+    public SaveJournal(File file, int compactBytes) {
+        this.path = file.toPath();
+        this.compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        this.badPath = path.resolveSibling(path.getFileName() + ".bad");
+        this.compactBytes = compactBytes;
+    }
+
+    public SaveJournal(File file) {
+        this(file, DEFAULT_COMPACT_BYTES);
+    }
+
+    /**
+     * Loads the journal into a game state that has nothing collected yet and opens it for saving.
+     * A missing file is created with an empty state; a file that cannot be read as a save is kept as
+     * {@code <name>.bad} and replaced by an empty one.
+     */
+    public void open(GameState state) {
+        try {
+            if (Files.exists(path)) {
+                try {
+                    load(state);
+                    return;
+                } catch (IOException e) {
+                    Gdx.app.error("SaveJournal", "Starting a new save, the old one is kept as " + badPath, e);
+                    closeChannel();
+                    Files.move(path, badPath, StandardCopyOption.REPLACE_EXISTING);
+                    state.reset();
+                }
+            }
+            compact(state);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not open save " + path, e);
+        }
+    }
+
+    /**
+     * Appends the words of the state that changed since the last save. Compacts the journal when it has
+     * grown too large.
+     *
+     * @return The number of bytes written.
+     */
+    public int save(GameState state) {
+        record.clear();
+        record.put(DIFF);
+        record.putInt(0); // Word count, filled in below
+        int words = state.takeChanges(writeWord);
+        if (words == 0) {
+            return 0;
+        }
+        record.putInt(1, words);
+        try {
+            int written = append();
+            if (size >= compactBytes) {
+                compact(state);
+            }
+            return written;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not save to " + path, e);
+        }
+    }
+
+    /**
+     * Writes the whole state as a single snapshot to a new file and replaces the journal with it.
+     */
+    public void compact(GameState state) throws IOException {
+        record.clear();
+        record.put(SNAPSHOT);
+        record.putInt(0);
+        record.putInt(1, state.writeAll(writeWord));
+        sealRecord();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        try (FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(out, header);
+            writeFully(out, record);
+            out.force(true);
+        }
+        closeChannel();
+        Files.move(compactPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openChannel();
+    }
+
+    /**
+     * The current size of the journal file in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+
+    private void load(GameState state) throws IOException {
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (file.remaining() < HEADER_BYTES || file.getInt() != MAGIC) {
+            throw new IOException("Not a save file");
+        }
+        int version = file.getInt();
+        if (version != VERSION) {
+            throw new IOException("Save has version " + version + ", expected " + VERSION);
+        }
+        int valid = file.position();
+        while (file.hasRemaining() && readRecord(file, state)) {
+            valid = file.position();
+        }
+        openChannel();
+        if (valid < size) {
+            Gdx.app.error("SaveJournal", "Dropping " + (size - valid) + " bytes of an incomplete save");
+            channel.truncate(valid);
+            size = valid;
+        }
+        if (size >= compactBytes) {
+            compact(state);
+        }
+    }
+
+    /**
+     * Applies the next record if it is complete and its checksum matches.
+     */
+    private boolean readRecord(ByteBuffer file, GameState state) {
+        int start = file.position();
+        try {
+            byte type = file.get();
+            int words = file.getInt();
+            if ((type != SNAPSHOT && type != DIFF) || words < 0 || words > file.remaining() / 10) {
+                return false;
+            }
+            int[] kinds = new int[words];
+            int[] indices = new int[words];
+            long[] bits = new long[words];
+            for (int i = 0; i < words; i++) {
+                kinds[i] = file.get();
+                indices[i] = readVarInt(file);
+                bits[i] = file.getLong();
+                if (kinds[i] < 0 || kinds[i] >= GameState.KINDS || indices[i] < 0) {
+                    return false;
+                }
+            }
+            int end = file.position();
+            crc.reset();
+            crc.update(file.duplicate().position(start).limit(end));
+            if ((int) crc.getValue() != file.getInt()) {
+                return false;
+            }
+            for (int i = 0; i < words; i++) {
+                state.restoreWord(kinds[i], indices[i], bits[i]);
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            return false; // Cut short
+        }
+    }
+
+    private void writeWord(int kind, int wordIndex, long bits) {
+        if (record.remaining() < WORD_BYTES + 4) {
+            ByteBuffer larger = ByteBuffer.allocate(record.capacity() * 2);
+            record.flip();
+            record = larger.put(record);
+        }
+        record.put((byte) kind);
+        int value = wordIndex;
+        while ((value & ~0x7F) != 0) {
+            record.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        record.put((byte) value);
+        record.putLong(bits);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the checksum and flips the record for writing.
+     */
+    private void sealRecord() {
+        crc.reset();
+        crc.update(record.duplicate().flip());
+        record.putInt((int) crc.getValue()); // Room for it is left by writeWord
+        record.flip();
+    }
+
+    private int append() throws IOException {
+        sealRecord();
+        int bytes = record.remaining();
+        writeFully(channel, record);
+        size += bytes;
+        return bytes;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+/**
+ * Accumulator-based fixed-timestep driver.
+ * The time of every rendered frame is added to an accumulator and the simulation is advanced in
+ * steps of exactly {@link #getStepSeconds()}, independent of the frame rate. What is left in the
+ * accumulator is exposed as {@link #getAlpha()}, the fraction of a step the renderer should
+ * interpolate between the previous and the current simulation state.
+ */
+public class FixedTimestep {
+
+    /**
+     * One tick of game logic.
+     */
+    public interface Simulation {
+        void step(float stepSeconds);
+    }
+
+    private final float stepSeconds;
+    private final int maxStepsPerFrame;
+    private float accumulator;
+    private long tickCount;
+
+    /**
+     * @param ticksPerSecond   The simulation rate.
+     * @param maxStepsPerFrame Upper bound of steps per rendered frame; time beyond it is dropped so a slow
+     *                         frame cannot make the next frame even slower.
+     */
+    public FixedTimestep(int ticksPerSecond, int maxStepsPerFrame) {
+        if (ticksPerSecond <= 0 || maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("Tick rate and step limit must be positive");
+        }
+        this.stepSeconds = 1f / ticksPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Adds the frame time and runs as many steps as fit into the accumulated time.
+     *
+     * @param frameSeconds The time since the last rendered frame.
+     * @param simulation   The logic to step.
+     * @return The number of steps that were run.
+     */
+    public int advance(float frameSeconds, Simulation simulation) {
+        accumulator += frameSeconds;
+        int steps = 0;
+        while (accumulator >= stepSeconds && steps < maxStepsPerFrame) {
+            simulation.step(stepSeconds);
+            accumulator -= stepSeconds;
+            tickCount++;
+            steps++;
+        }
+        if (steps == maxStepsPerFrame && accumulator > stepSeconds) {
+            accumulator = stepSeconds * 0.999f;
+        }
+        return steps;
+    }
+
+    /**
+     * Runs a fixed number of steps right away, without waiting for real time to pass.
+     * Used to simulate headless faster than real time.
+     */
+    public void runTicks(int ticks, Simulation simulation) {
+        for (int i = 0; i < ticks; i++) {
+            simulation.step(stepSeconds);
+            tickCount++;
+        }
+    }
+
+    /**
+     * Fraction of a step that has passed since the last simulated state, between 0 and 1.
+     */
+    public float getAlpha() {
+        return Math.min(1f, accumulator / stepSeconds);
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Drops accumulated time, e.g. after loading a level or returning from the menu.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+}
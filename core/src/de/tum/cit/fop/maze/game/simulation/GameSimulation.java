@@ -0,0 +1,638 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.physics.box2d.World;
+import de.tum.cit.fop.maze.game.entities.MobStore;
+import de.tum.cit.fop.maze.game.events.EventBus;
+import de.tum.cit.fop.maze.game.events.EventQueue;
+import de.tum.cit.fop.maze.game.events.KeyCollected;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.metrics.TickEvent;
+import de.tum.cit.fop.maze.game.objects.*;
+import de.tum.cit.fop.maze.game.path.AStarSearch;
+import de.tum.cit.fop.maze.game.path.FlowField;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.physics.PhysicsWorld;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
+import de.tum.cit.fop.maze.game.spatial.SpatialHash;
+import de.tum.cit.fop.maze.game.spatial.TriggerSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The game logic of one level: collision engine, player, slimes, mobs, keys and the {@link GameState}.
+ * It does not draw anything and does not read the keyboard itself (the player reads its
+ * {@link InputSource}), so the same logic runs in the {@link de.tum.cit.fop.maze.GameScreen}
+ * and headless without a window.
+ * <p>
+ * What happens to the player is posted to the {@link #getEvents() event bus} while a tick runs and
+ * dispatched at its end; the simulation itself applies collected keys to the game state and the player
+ * that way.
+ */
+public class GameSimulation {
+
+    /**
+     * Observes the ticks of a simulation, e.g. to record or replay its input.
+     */
+    public interface TickListener {
+        /**
+         * Called at the start of every tick, before anything is simulated. May restart the level.
+         */
+        void beforeTick(GameSimulation simulation);
+
+        /**
+         * Called after the level was restarted.
+         */
+        default void restarted(GameSimulation simulation) {
+        }
+    }
+
+    public static final int TILE_SIZE = 16; // Size of one maze cell in pixels, as in the .tmx maps
+    public static final int DEFAULT_TICKS_PER_SECOND = 60; // Simulation rate, independent of the frame rate
+    private static final int MAX_TICKS_PER_FRAME = 8; // Slower frames drop time instead of falling further behind
+    private static final int FLOW_FIELD_BUDGET = 1024; // Cells of the player's flow field rebuilt per tick
+    private static final String KEY_IMAGE = "assets/keyIcons.png";
+    private static final int UPDATE_BATCH_SIZE = 256; // Slimes or mobs per batch of the parallel update
+
+    private CollisionEngine collisions;
+    private final Player player;
+    private final List<Slime> slimes = new ArrayList<>();
+    private MapGrid levelGrid;
+
+    // Maze-related objects
+    private final List<Key> keys = new ArrayList<>();
+    private final List<CollectableLives> lives = new ArrayList<>();
+    private final List<CollectablePowerUp> powerUps = new ArrayList<>();
+    private final List<Trap> traps = new ArrayList<>(); // One per trap cell of the level grid
+    private GameState gameState;
+    private int level; // Number of the level, selects its collectables in the game state
+    private int indexForKey = 0;
+
+    // Slimes and keys are reused across restarts, together with their textures
+    private final GameObjectPool<Slime> slimePool;
+    private final GameObjectPool<Key> keyPool;
+
+    // Running totals for the frame metrics, read from whichever thread draws the frames
+    private long tickNanos;
+    private long physicsNanos;
+
+    // Enemies placed by the level file, stored as parallel arrays
+    private final MobStore mobs = new MobStore(64);
+    private Animation<TextureRegion>[] mobAnimations;
+    private int slimeAnimationSet;
+
+    // Shortest paths to the player's cell, shared by all slimes and mobs
+    private FlowField flowField;
+
+    // Own path searches of the slimes, by slot, for where the flow field does not lead on yet
+    private final List<AStarSearch> slimeSearches = new ArrayList<>();
+
+    // Spatial index over all game objects, kept up to date as they move
+    private final SpatialHash<GameObject> entities = new SpatialHash<>(64f, 256);
+
+    // Keys and other objects the player interacts with by touching them, triggers of the collision engine
+    private final TriggerSystem.ContactHandler<Interactable> playerContacts = new PlayerContacts();
+
+    // Slimes and mobs hit the player once whenever they begin to touch it
+    private final CollisionEngine.AttackHandler playerAttacks = new PlayerAttacks();
+
+    // Slimes and mobs are updated in batches on all cores, their side effects are applied afterwards in batch order
+    private final ParallelUpdate parallelUpdate;
+    private final ParallelUpdate.Batch slimeBatch = this::updateSlimes;
+    private final ParallelUpdate.Batch mobBatch = this::updateMobs;
+    private float tickSeconds;
+
+    // Game logic runs in fixed ticks, rendering interpolates between the last two of them
+    private final int ticksPerSecond;
+    private final FixedTimestep timestep;
+    private final FixedTimestep.Simulation step = this::tick;
+    private float stateTime = 0f;
+    private TickListener tickListener; // Null unless the input is recorded or replayed
+
+    // Interactions of the current tick, dispatched at its end
+    private final EventBus events = new EventBus();
+    private final EventQueue.Listener<KeyCollected> keyCollected = this::keysCollected;
+
+    /**
+     * @param player    The player, owned by the caller and reused across levels.
+     * @param gameState The state of the collectables at the start.
+     */
+    public GameSimulation(Player player, GameState gameState) {
+        this(player, gameState, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param player     The player, owned by the caller and reused across levels.
+     * @param gameState  The state of the collectables at the start.
+     * @param updatePool The pool that updates large crowds of slimes and mobs.
+     */
+    public GameSimulation(Player player, GameState gameState, ForkJoinPool updatePool) {
+        this(player, gameState, updatePool, CollisionEngine.Type.BOX2D);
+    }
+
+    /**
+     * @param player     The player, owned by the caller and reused across levels.
+     * @param gameState  The state of the collectables at the start.
+     * @param updatePool The pool that updates large crowds of slimes and mobs.
+     * @param collisions The engine that stops everything at the walls.
+     */
+    public GameSimulation(Player player, GameState gameState, ForkJoinPool updatePool,
+                          CollisionEngine.Type collisions) {
+        this(player, gameState, updatePool, collisions, DEFAULT_TICKS_PER_SECOND);
+    }
+
+    /**
+     * @param player         The player, owned by the caller and reused across levels.
+     * @param gameState      The state of the collectables at the start.
+     * @param updatePool     The pool that updates large crowds of slimes and mobs.
+     * @param collisions     The engine that stops everything at the walls.
+     * @param ticksPerSecond The simulation rate. Runs only replay the same way at the same rate.
+     */
+    public GameSimulation(Player player, GameState gameState, ForkJoinPool updatePool,
+                          CollisionEngine.Type collisions, int ticksPerSecond) {
+        this.ticksPerSecond = ticksPerSecond;
+        this.timestep = new FixedTimestep(ticksPerSecond, MAX_TICKS_PER_FRAME);
+        this.collisions = collisions.create();
+        this.parallelUpdate = new ParallelUpdate(updatePool, UPDATE_BATCH_SIZE);
+        this.player = player;
+        this.gameState = gameState;
+        this.slimePool = new GameObjectPool<>(() -> new Slime(0, 0, player), 4, 64);
+        this.keyPool = new GameObjectPool<>(() -> new Key(0, 0, 128, 32, KEY_IMAGE, 0), 4, 64);
+
+        // Initialize player
+        player.setPosition(100, 100);
+        player.attachTo(entities);
+        this.collisions.addPlayer(player);
+
+        // Initialize slimes
+        spawnSlimes();
+
+        events.keyCollected.addListener(keyCollected);
+    }
+
+    /**
+     * Places the enemies, traps and keys of a level. The walls are added to {@link #getCollisions()} by the loader.
+     * What the game state says was collected in the level stays collected, and the player holds it.
+     *
+     * @param grid  The tile grid of the level.
+     * @param level The number of the level.
+     */
+    public void loadLevel(MapGrid grid, int level) {
+        this.levelGrid = grid;
+        this.level = level;
+        flowField = new FlowField(grid);
+        flowField.rebuild(FlowField.toCell(player.getX(), TILE_SIZE), FlowField.toCell(player.getY(), TILE_SIZE));
+        mobs.setFlowField(flowField, TILE_SIZE);
+        slimeSearches.clear();
+        for (int i = 0; i < slimes.size(); i++) {
+            slimes.get(i).setFlowField(flowField, TILE_SIZE);
+            slimes.get(i).setPathSearch(slimeSearch(i), TILE_SIZE);
+        }
+        if (mobAnimations == null) {
+            mobAnimations = Slime.loadAnimations();
+            slimeAnimationSet = mobs.registerAnimations(mobAnimations);
+        }
+        spawnMobs();
+
+        traps.clear();
+        for (int i = 0; i < grid.count(MapGrid.TRAP); i++) {
+            int cell = grid.cellOf(MapGrid.TRAP, i);
+            traps.add(new Trap(grid.xOf(cell) * TILE_SIZE, grid.yOf(cell) * TILE_SIZE, TILE_SIZE));
+        }
+        addTraps();
+
+        if (keys.isEmpty()) {
+            spawnKeys();
+        }
+        player.restoreCollected(gameState.countInLevel(GameState.KEYS, level),
+                gameState.countInLevel(GameState.LIVES, level));
+
+        // Loading took real time that must not be simulated
+        timestep.reset();
+    }
+
+    /**
+     * Moves the player, slimes, mobs, traps and the active key over to a new collision engine of the
+     * given type, unless the current one already is. The new engine has no walls yet; they have to be
+     * added by the caller, see {@link de.tum.cit.fop.maze.MazeLoader#setCollisionEngine}. Triggers other
+     * than the key and the traps have to be added again as well.
+     *
+     * @return The engine in use.
+     */
+    public CollisionEngine setCollisionEngine(CollisionEngine.Type type) {
+        if (collisions.getType() == type) {
+            return collisions;
+        }
+        collisions.dispose();
+        collisions = type.create();
+        collisions.addPlayer(player);
+        for (int i = 0; i < slimes.size(); i++) {
+            slimes.get(i).setTouchingPlayer(false); // Contacts begin again in the new engine
+            collisions.addMover(slimes.get(i));
+        }
+        for (int i = 0; i < mobs.size(); i++) {
+            mobs.setTouching(i, false);
+        }
+        if (levelGrid != null) {
+            collisions.placeMobs(mobs);
+        }
+        if (!keys.isEmpty()) {
+            addInteractable(getActiveKey());
+        }
+        addTraps();
+        collisions.settle();
+        return collisions;
+    }
+
+    /**
+     * Adds the time of a rendered frame and runs the ticks that became due.
+     *
+     * @param frameSeconds The time since the last frame.
+     * @return The number of ticks that were run.
+     */
+    public int advance(float frameSeconds) {
+        return timestep.advance(frameSeconds, step);
+    }
+
+    /**
+     * Runs simulation ticks immediately, without rendering and without waiting for real time.
+     *
+     * @param ticks The number of ticks to simulate.
+     */
+    public void runTicks(int ticks) {
+        timestep.runTicks(ticks, step);
+    }
+
+    /**
+     * Fraction of a tick that has passed since the last one, to interpolate drawing.
+     */
+    public float getAlpha() {
+        return timestep.getAlpha();
+    }
+
+    /**
+     * Advances the game logic by one fixed tick: the player, slimes and mobs decide where to go, the
+     * collision engine moves them and stops them at the walls, and the player's contacts with keys and
+     * other interactables are passed on. Slimes and mobs that began to touch the player hit it.
+     *
+     * @param deltaTime The tick length in seconds.
+     */
+    private void tick(float deltaTime) {
+        if (tickListener != null) {
+            tickListener.beforeTick(this);
+        }
+        if (player.isGameOver()) {
+            return;
+        }
+        TickEvent event = new TickEvent();
+        event.begin();
+        long tickStart = System.nanoTime();
+
+        if (flowField != null) {
+            flowField.update(FlowField.toCell(player.getX(), TILE_SIZE), FlowField.toCell(player.getY(), TILE_SIZE),
+                    FLOW_FIELD_BUDGET);
+        }
+
+        // Update player and slimes, which only decide their velocities
+        player.storePreviousPosition();
+        player.update(deltaTime);
+        tickSeconds = deltaTime;
+        parallelUpdate.run(slimes.size(), slimeBatch, player, events);
+        parallelUpdate.run(mobs.size(), mobBatch, player, events);
+
+        // Move everything through the collision engine, Box2D is not thread-safe so this runs on one thread
+        long physicsStart = System.nanoTime();
+        collisions.move(player, slimes, mobs, deltaTime);
+        physicsNanos += System.nanoTime() - physicsStart;
+
+        // Interact with the keys and collectables the player started or keeps touching
+        collisions.dispatchContacts(playerContacts);
+        collisions.dispatchAttacks(playerAttacks);
+
+        events.dispatch();
+        stateTime += deltaTime;
+        tickNanos += System.nanoTime() - tickStart;
+
+        if (event.shouldCommit()) {
+            event.tick = timestep.getTickCount();
+            event.mobs = mobs.size();
+            event.commit();
+        }
+    }
+
+    //Collectable lives and powerUps are still unfinished and not part of the restart
+    /**
+     * Puts slimes, keys and mobs back to the start of the level and forgets what was collected in it.
+     * The player is reset by the caller.
+     * Slimes and keys go back to their pools and are taken out again, and the traps only get their
+     * triggers back, so a restart allocates nothing once the pools are filled. The flow field is completed for the player's start cell, so that the
+     * state after a restart does not depend on what happened before it.
+     */
+    public void restart() {
+        for (int i = 0; i < slimes.size(); i++) {
+            collisions.deactivate(slimes.get(i)); // Keeps its body for when it is taken out again
+            slimePool.free(slimes.get(i));
+        }
+        slimes.clear();
+        spawnSlimes();
+
+        for (int i = 0; i < keys.size(); i++) {
+            keyPool.free(keys.get(i));
+        }
+        keys.clear();
+        collisions.clearTriggers();
+        spawnKeys();
+        addTraps();
+
+        spawnMobs();
+        if (flowField != null) {
+            flowField.rebuild(FlowField.toCell(player.getX(), TILE_SIZE), FlowField.toCell(player.getY(), TILE_SIZE));
+        }
+        collisions.settle();
+        timestep.reset();
+        gameState.resetLevel(level); // Other levels keep what was collected in them
+        events.clear();
+        if (tickListener != null) {
+            tickListener.restarted(this);
+        }
+    }
+
+    private void spawnSlimes() {
+        spawnSlime(200, 200);
+        spawnSlime(300, 400);
+    }
+
+    private void spawnSlime(float x, float y) {
+        Slime slime = slimePool.obtain();
+        slime.spawn(x, y);
+        slime.attachTo(entities);
+        collisions.addMover(slime);
+        slime.setFlowField(flowField, TILE_SIZE);
+        if (levelGrid != null) {
+            slime.setPathSearch(slimeSearch(slimes.size()), TILE_SIZE);
+        }
+        slimes.add(slime);
+    }
+
+    /**
+     * The path search of the slime in the given slot, created once per level since it is sized for the
+     * grid. It is cleared, so a slime spawned after a restart does not follow the path of the one before.
+     */
+    private AStarSearch slimeSearch(int slot) {
+        while (slimeSearches.size() <= slot) {
+            slimeSearches.add(new AStarSearch(levelGrid));
+        }
+        AStarSearch search = slimeSearches.get(slot);
+        search.clear();
+        return search;
+    }
+
+    /**
+     * Places the keys of the level; only the last one is active.
+     */
+    private void spawnKeys() {
+        indexForKey = 0;
+        keys.add(obtainKey(500, 300, GameState.indexInLevel(level, indexForKey)));
+        indexForKey++;
+        keys.add(obtainKey(1000, 500, GameState.indexInLevel(level, indexForKey)));
+        addInteractable(keys.get(indexForKey));
+    }
+
+    /**
+     * Adds a trigger over every trap of the level.
+     */
+    private void addTraps() {
+        for (int i = 0; i < traps.size(); i++) {
+            Trap trap = traps.get(i);
+            collisions.addTrigger(trap, trap.getX(), trap.getY(), trap.getSize(), trap.getSize());
+        }
+    }
+
+    private Key obtainKey(float x, float y, int index) {
+        Key key = keyPool.obtain();
+        key.spawn(x, y, index);
+        return key;
+    }
+
+    /**
+     * Registers an object the player interacts with on contact, like a collectable, a trap or an exit.
+     * Its bounds are taken once, it is expected not to move.
+     *
+     * @return The handle to remove it with.
+     */
+    public <T extends GameObject & Interactable> int addInteractable(T object) {
+        return collisions.addTrigger(object, object.getX(), object.getY(), object.getWidth(), object.getHeight());
+    }
+
+    public void removeInteractable(int handle) {
+        collisions.removeTrigger(handle);
+    }
+
+    /**
+     * Places a slime on every enemy cell of the level grid.
+     */
+    private void spawnMobs() {
+        mobs.clear();
+        for (int i = 0; i < levelGrid.count(MapGrid.ENEMY); i++) {
+            int cell = levelGrid.cellOf(MapGrid.ENEMY, i);
+            mobs.spawn(slimeAnimationSet, levelGrid.xOf(cell) * TILE_SIZE, levelGrid.yOf(cell) * TILE_SIZE);
+        }
+        collisions.placeMobs(mobs);
+    }
+
+    /**
+     * Releases slimes, keys, mob animations and the collision engine. The player is left to its owner.
+     */
+    public void dispose() {
+        player.detach();
+        for (Slime slime : slimes) {
+            if (slime != null) {
+                slime.dispose();
+            }
+        }
+        for (Key key : keys) {
+            key.dispose();
+        }
+        slimePool.clear(); // Disposes the free ones
+        keyPool.clear();
+        if (mobAnimations != null) {
+            Slime.releaseAnimations(mobAnimations);
+            mobAnimations = null;
+        }
+        player.setBody(null);
+        player.setCollides(false);
+        collisions.dispose();
+    }
+
+    private void keysCollected(EventQueue<KeyCollected> collected) {
+        for (int i = 0; i < collected.size(); i++) {
+            gameState.collectKey(collected.get(i).keyIndex);
+            player.pickUpKey();
+        }
+    }
+
+    private void updateSlimes(int from, int to, CommandBuffer commands) {
+        for (int i = from; i < to; i++) {
+            Slime slime = slimes.get(i);
+            slime.storePreviousPosition();
+            slime.update(tickSeconds, commands);
+        }
+    }
+
+    private void updateMobs(int from, int to, CommandBuffer commands) {
+        mobs.steer(from, to, tickSeconds, player.getX(), player.getY());
+    }
+
+    /**
+     * Copies what is needed to draw the current tick into a snapshot: the sprites of the player, the
+     * slimes, the active key and the mobs, in this drawing order, the HUD values and the running totals.
+     */
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        snapshot.clear();
+        player.writeTo(snapshot);
+        for (int i = 0; i < slimes.size(); i++) {
+            slimes.get(i).writeTo(snapshot);
+        }
+        getActiveKey().writeTo(snapshot, gameState);
+        mobs.writeTo(snapshot);
+        snapshot.setHud(player.getHearts(), player.getKeys(), player.isGameOver());
+        snapshot.setStatistics(entities.size() + mobs.size(), collisions.getColliderCount(), getTickCount(),
+                tickNanos, physicsNanos);
+    }
+
+    /**
+     * Sets the listener told about every tick and restart, or null to remove it.
+     */
+    public void setTickListener(TickListener tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /**
+     * The events of the game logic. Listeners are called on the thread that runs the ticks.
+     */
+    public EventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * The Box2D world, or null if the collision engine is not {@link CollisionEngine.Type#BOX2D}.
+     */
+    public World getWorld() {
+        return collisions instanceof PhysicsWorld ? ((PhysicsWorld) collisions).getWorld() : null;
+    }
+
+    public CollisionEngine getCollisions() {
+        return collisions;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public List<Slime> getSlimes() {
+        return slimes;
+    }
+
+    public MobStore getMobs() {
+        return mobs;
+    }
+
+    /**
+     * The key that is currently placed in the level.
+     */
+    public Key getActiveKey() {
+        return keys.get(indexForKey);
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public MapGrid getLevelGrid() {
+        return levelGrid;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public SpatialHash<GameObject> getEntities() {
+        return entities;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+    public long getTickCount() {
+        return timestep.getTickCount();
+    }
+
+    /**
+     * Total time spent running ticks, including {@link #getPhysicsNanos()}.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Total time spent moving things through the collision engine.
+     */
+    public long getPhysicsNanos() {
+        return physicsNanos;
+    }
+
+    /**
+     * Passes the player's contacts with triggers on to the touched objects.
+     */
+    private class PlayerContacts implements TriggerSystem.ContactHandler<Interactable> {
+        @Override
+        public void enter(int actor, Interactable trigger) {
+            trigger.interact(player, gameState, events);
+        }
+
+        @Override
+        public void stay(int actor, Interactable trigger) {
+            trigger.touching(player, gameState, events);
+        }
+
+        @Override
+        public void exit(int actor, Interactable trigger) {
+            trigger.leave(player, gameState, events);
+        }
+    }
+
+    /**
+     * Lets slimes and mobs play their attack while they touch the player, and deals one hit when the
+     * contact begins.
+     */
+    private class PlayerAttacks implements CollisionEngine.AttackHandler {
+        @Override
+        public void mover(DynamicGameObject mover, boolean touching) {
+            if (mover instanceof Slime) {
+                Slime slime = (Slime) mover;
+                slime.setTouchingPlayer(touching);
+                if (touching && !slime.isDead()) {
+                    CommandBuffer.damage(player, "Slime", 1, events);
+                }
+            }
+        }
+
+        @Override
+        public void mob(int index, boolean touching) {
+            if (index < mobs.size()) {
+                mobs.setTouching(index, touching);
+                if (touching && mobs.getStateAt(index) != MobStore.DYING) {
+                    CommandBuffer.damage(player, "Slime", 1, events);
+                }
+            }
+        }
+    }
+}
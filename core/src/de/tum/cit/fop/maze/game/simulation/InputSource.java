@@ -0,0 +1,21 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Where the game logic reads the pressed keys from.
+ * The game uses the keyboard through {@link #GDX}; headless runs and tests pass a {@link ScriptedInput}.
+ */
+public interface InputSource {
+
+    /**
+     * Reads the keyboard of the running libGDX application.
+     */
+    InputSource GDX = keycode -> Gdx.input.isKeyPressed(keycode);
+
+    /**
+     * @param keycode One of the {@link com.badlogic.gdx.Input.Keys} constants.
+     * @return True if the key is currently held down.
+     */
+    boolean isKeyPressed(int keycode);
+}
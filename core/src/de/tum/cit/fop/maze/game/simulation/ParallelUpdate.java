@@ -0,0 +1,126 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.game.events.EventBus;
+import de.tum.cit.fop.maze.game.objects.CommandBuffer;
+import de.tum.cit.fop.maze.game.objects.Player;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates a range of entities in batches on a work-stealing pool.
+ * The range is cut into batches of a fixed size; each batch runs on whichever pool thread is free and
+ * records its effects on shared state (damage to the player, spatial index moves) in a
+ * {@link CommandBuffer} of its own. Once all batches are done, the buffers are applied on the calling
+ * thread in batch order, so the outcome is the same for any number of threads. A range that fits into
+ * one batch is updated on the calling thread without involving the pool.
+ * <p>
+ * The tasks and buffers are kept from one call to the next, so an update allocates nothing once the
+ * largest range has been seen. Only one thread may call {@link #run} at a time.
+ */
+public class ParallelUpdate {
+
+    /**
+     * Updates the entities {@code from .. to - 1}. Must only write state of these entities; everything
+     * else goes into the command buffer.
+     */
+    public interface Batch {
+        void update(int from, int to, CommandBuffer commands);
+    }
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final Array<BatchTask> tasks = new Array<>();
+    private final RootTask root = new RootTask();
+
+    /**
+     * @param pool      The pool the batches run on.
+     * @param batchSize The number of entities per batch.
+     */
+    public ParallelUpdate(ForkJoinPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Updates the entities {@code 0 .. count - 1} and applies their commands.
+     *
+     * @param count  The number of entities.
+     * @param batch  The update of one batch.
+     * @param player The player the commands apply to.
+     * @param events Where the effects of the commands are reported.
+     */
+    public void run(int count, Batch batch, Player player, EventBus events) {
+        int batches = (count + batchSize - 1) / batchSize;
+        if (batches == 0) {
+            return;
+        }
+        while (tasks.size < batches) {
+            tasks.add(new BatchTask());
+        }
+        for (int i = 0; i < batches; i++) {
+            BatchTask task = tasks.get(i);
+            task.reinitialize();
+            task.commands.clear(); // Left over if a batch failed last time
+            task.batch = batch;
+            task.from = i * batchSize;
+            task.to = Math.min(count, task.from + batchSize);
+        }
+
+        if (batches == 1) {
+            tasks.get(0).compute();
+        } else {
+            root.reinitialize();
+            root.batches = batches;
+            pool.invoke(root);
+        }
+
+        for (int i = 0; i < batches; i++) {
+            BatchTask task = tasks.get(i);
+            task.commands.apply(player, events);
+            task.batch = null;
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Forks all batches but the first, runs the first itself and waits for the others.
+     */
+    private class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int batches;
+
+        @Override
+        protected void compute() {
+            for (int i = 1; i < batches; i++) {
+                tasks.get(i).fork();
+            }
+            tasks.get(0).invoke();
+            for (int i = batches - 1; i > 0; i--) {
+                tasks.get(i).join();
+            }
+        }
+    }
+
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CommandBuffer commands = new CommandBuffer();
+        private Batch batch;
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            batch.update(from, to, commands);
+        }
+    }
+}
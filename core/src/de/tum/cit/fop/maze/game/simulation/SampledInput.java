@@ -0,0 +1,46 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+/**
+ * Input source for game logic that runs on another thread than the window.
+ * libGDX input may only be read on the render thread, so the render thread calls {@link #sample} once
+ * per frame, which copies the state of a fixed set of keys into a single volatile bit mask. The logic
+ * thread reads the keys from that mask; keys outside the set are never pressed.
+ */
+public class SampledInput implements InputSource {
+    private final int[] keycodes;
+    private volatile long pressed; // Bit i is set when keycodes[i] was held down at the last sample
+
+    /**
+     * @param keycodes The keys the game logic reads, at most 64.
+     */
+    public SampledInput(int... keycodes) {
+        if (keycodes.length > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " keys can be sampled");
+        }
+        this.keycodes = keycodes.clone();
+    }
+
+    /**
+     * Takes over the state of the sampled keys from another source, usually {@link InputSource#GDX}.
+     */
+    public void sample(InputSource source) {
+        long mask = 0;
+        for (int i = 0; i < keycodes.length; i++) {
+            if (source.isKeyPressed(keycodes[i])) {
+                mask |= 1L << i;
+            }
+        }
+        pressed = mask;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        long mask = pressed;
+        for (int i = 0; i < keycodes.length; i++) {
+            if (keycodes[i] == keycode) {
+                return (mask & 1L << i) != 0;
+            }
+        }
+        return false;
+    }
+}
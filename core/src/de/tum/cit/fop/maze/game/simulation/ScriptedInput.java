@@ -0,0 +1,29 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+import com.badlogic.gdx.Input;
+
+import java.util.Arrays;
+
+/**
+ * Input source whose keys are pressed and released by code instead of a keyboard.
+ */
+public class ScriptedInput implements InputSource {
+    private final boolean[] pressed = new boolean[Input.Keys.MAX_KEYCODE + 1];
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return keycode >= 0 && keycode < pressed.length && pressed[keycode];
+    }
+
+    public void press(int keycode) {
+        pressed[keycode] = true;
+    }
+
+    public void release(int keycode) {
+        pressed[keycode] = false;
+    }
+
+    public void releaseAll() {
+        Arrays.fill(pressed, false);
+    }
+}
@@ -0,0 +1,169 @@
+package de.tum.cit.fop.maze.game.simulation;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.game.render.RenderSnapshot;
+import de.tum.cit.fop.maze.game.render.SnapshotExchange;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link GameSimulation} on a thread of its own, so that ticks and frames no longer wait for
+ * each other. The thread runs the ticks as they become due in real time and publishes a
+ * {@link RenderSnapshot} after each batch of ticks through a {@link SnapshotExchange}; the render thread
+ * only draws the newest snapshot and never touches the simulation.
+ * <p>
+ * While the thread runs, the simulation, its player and its game state belong to it. Changes from other
+ * threads, like a restart, are posted with {@link #execute(Runnable)} and run between two ticks.
+ * The player must read its keys from a {@link SampledInput}, since libGDX input is not thread-safe.
+ */
+public class SimulationThread {
+    private static final int MAX_TICKS_PER_WAKEUP = 8; // Like GameSimulation, time beyond it is dropped
+
+    private final GameSimulation simulation;
+    private final SnapshotExchange snapshots;
+    private final long tickNanos;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private Thread thread;
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private long nextTick; // Only touched by the simulation thread while it runs
+
+    /**
+     * @param simulation The simulation, with its level already loaded.
+     * @param snapshots  Where the snapshots are published.
+     */
+    public SimulationThread(GameSimulation simulation, SnapshotExchange snapshots) {
+        this.simulation = simulation;
+        this.snapshots = snapshots;
+        this.tickNanos = Math.round(simulation.getTimestep().getStepSeconds() * 1e9);
+    }
+
+    /**
+     * Publishes the current state and starts ticking. Does nothing if the thread is already running.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        failure = null;
+        nextTick = System.nanoTime() + tickNanos;
+        publish(); // The first frame must not wait for the first tick
+        running = true;
+        thread = new Thread(this::run, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops ticking and waits for the thread to finish. Commands that were still queued are run on the
+     * calling thread, which owns the simulation again afterwards.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        runCommands();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a change to the simulation on the simulation thread, before the next tick.
+     */
+    public void execute(Runnable command) {
+        commands.add(command);
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * The fraction of a tick between the given snapshot and the current time, to interpolate drawing.
+     */
+    public float getAlpha(RenderSnapshot snapshot) {
+        float alpha = (System.nanoTime() - snapshot.getTickTime()) / (float) tickNanos;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+
+    /**
+     * Rethrows on the calling thread what made the simulation thread stop, if anything did.
+     */
+    public void checkFailure() {
+        Throwable cause = failure;
+        if (cause != null) {
+            failure = null;
+            throw new GdxRuntimeException("The simulation thread failed", cause);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The id of the thread that runs the ticks, or -1 while it is stopped.
+     */
+    public long getThreadId() {
+        Thread current = thread;
+        return current != null ? current.getId() : -1;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                boolean changed = runCommands();
+                long now = System.nanoTime();
+                if (now >= nextTick) {
+                    int ticks = (int) Math.min(MAX_TICKS_PER_WAKEUP, (now - nextTick) / tickNanos + 1);
+                    simulation.runTicks(ticks);
+                    nextTick += ticks * tickNanos;
+                    if (nextTick <= now) {
+                        nextTick = now + tickNanos; // Too far behind, drop the time instead of catching up
+                    }
+                    changed = true;
+                }
+                if (changed) {
+                    publish();
+                }
+                LockSupport.parkNanos(nextTick - System.nanoTime());
+            }
+        } catch (Throwable t) {
+            failure = t;
+            running = false;
+        }
+    }
+
+    private boolean runCommands() {
+        boolean ran = false;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            ran = true;
+        }
+        return ran;
+    }
+
+    /**
+     * Writes the current state into the back snapshot and hands it to the render thread.
+     */
+    private void publish() {
+        RenderSnapshot snapshot = snapshots.getBack();
+        simulation.writeSnapshot(snapshot);
+        snapshot.setTickTime(nextTick - tickNanos);
+        snapshots.publish();
+    }
+}
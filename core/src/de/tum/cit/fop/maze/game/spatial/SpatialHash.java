@@ -0,0 +1,321 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash for proximity queries between game objects.
+ * Every entry is stored in the bucket of the cell that contains its centre; the cells are hashed
+ * into a bucket table, so the index works for unbounded maps without allocating per cell. The table
+ * keeps at least two buckets per entry and is rehashed into one twice as large when it gets fuller.
+ * Entries are kept in intrusive doubly linked lists, which makes insert, move and remove O(1).
+ * Queries expand their area by the largest half-extent seen so far and then test the real bounds,
+ * so objects larger than a cell are still found.
+ *
+ * @param <T> The type of the indexed objects.
+ */
+public class SpatialHash<T> {
+    private static final int NONE = -1;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private int[] buckets;
+    private int bucketMask;
+
+    // Per-entry data, indexed by handle
+    private Object[] objects;
+    private float[] minX, minY, maxX, maxY;
+    private int[] cellX, cellY;
+    private int[] next, prev;
+    private int[] bucketOf;
+
+    private int capacity;
+    private int highWater; // Handles below this value have been used at least once
+    private int freeHead = NONE; // Released handles, chained through next[]
+    private int size;
+    private float maxHalfWidth, maxHalfHeight;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param cellSize        The edge length of one cell in world units, ideally about the size of the largest query.
+     * @param initialCapacity The number of entries to reserve space for.
+     */
+    public SpatialHash(float cellSize, int initialCapacity) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+
+        // Two buckets per expected entry keeps the chains short
+        int bucketCount = Integer.highestOneBit(Math.max(16, initialCapacity * 2 - 1)) << 1;
+        buckets = new int[bucketCount];
+        Arrays.fill(buckets, NONE);
+        bucketMask = bucketCount - 1;
+
+        grow(Math.max(16, initialCapacity));
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an object with the given bounds.
+     *
+     * @return The handle that identifies the entry in {@link #move} and {@link #remove}.
+     */
+    public int insert(T object, float x, float y, float width, float height) {
+        int handle;
+        if (freeHead != NONE) {
+            handle = freeHead;
+            freeHead = next[handle];
+        } else {
+            if (highWater == capacity) {
+                grow(capacity * 2);
+            }
+            handle = highWater++;
+        }
+        objects[handle] = object;
+        setBounds(handle, x, y, width, height);
+        int cx = cellOf(x + width * 0.5f);
+        int cy = cellOf(y + height * 0.5f);
+        cellX[handle] = cx;
+        cellY[handle] = cy;
+        link(handle, bucket(cx, cy));
+        size++;
+        if (size > buckets.length / 2) {
+            rehash(buckets.length * 2);
+        }
+        return handle;
+    }
+
+    /**
+     * Updates the bounds of an entry. The entry only changes its bucket when its centre moved to another cell.
+     */
+    public void move(int handle, float x, float y, float width, float height) {
+        setBounds(handle, x, y, width, height);
+        int cx = cellOf(x + width * 0.5f);
+        int cy = cellOf(y + height * 0.5f);
+        if (cx != cellX[handle] || cy != cellY[handle]) {
+            unlink(handle);
+            cellX[handle] = cx;
+            cellY[handle] = cy;
+            link(handle, bucket(cx, cy));
+        }
+    }
+
+    /**
+     * Removes an entry; its handle may be reused by later inserts.
+     */
+    public void remove(int handle) {
+        if (objects[handle] == null) {
+            return;
+        }
+        unlink(handle);
+        objects[handle] = null;
+        next[handle] = freeHead;
+        freeHead = handle;
+        size--;
+    }
+
+    /**
+     * Removes all entries while keeping the allocated storage.
+     */
+    public void clear() {
+        Arrays.fill(buckets, NONE);
+        Arrays.fill(objects, 0, highWater, null);
+        highWater = 0;
+        freeHead = NONE;
+        size = 0;
+        maxHalfWidth = 0;
+        maxHalfHeight = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        return (T) objects[handle];
+    }
+
+    /**
+     * Collects all objects whose bounds overlap the given rectangle.
+     *
+     * @param out Receives the objects; it is cleared first.
+     * @return The number of objects found.
+     */
+    public int queryAabb(float x, float y, float width, float height, Array<T> out) {
+        return query(x, y, x + width, y + height, Float.NaN, 0, 0, out, null);
+    }
+
+    /**
+     * Collects the handles of all objects whose bounds overlap the given rectangle, e.g. to tell
+     * entries apart that hold the same object.
+     *
+     * @param out Receives the handles; it is cleared first.
+     * @return The number of objects found.
+     */
+    public int queryAabb(float x, float y, float width, float height, IntArray out) {
+        return query(x, y, x + width, y + height, Float.NaN, 0, 0, null, out);
+    }
+
+    /**
+     * Collects all objects whose bounds intersect the circle around (centerX, centerY).
+     *
+     * @param out Receives the objects; it is cleared first.
+     * @return The number of objects found.
+     */
+    public int queryRadius(float centerX, float centerY, float radius, Array<T> out) {
+        return query(centerX - radius, centerY - radius, centerX + radius, centerY + radius,
+                radius * radius, centerX, centerY, out, null);
+    }
+
+    /**
+     * Collects into either {@code out} or {@code handles}, the other one is null.
+     */
+    @SuppressWarnings("unchecked")
+    private int query(float x0, float y0, float x1, float y1, float radiusSquared, float centerX, float centerY,
+                      Array<T> out, IntArray handles) {
+        if (out != null) {
+            out.clear();
+        } else {
+            handles.clear();
+        }
+        int cx0 = cellOf(x0 - maxHalfWidth);
+        int cy0 = cellOf(y0 - maxHalfHeight);
+        int cx1 = cellOf(x1 + maxHalfWidth);
+        int cy1 = cellOf(y1 + maxHalfHeight);
+
+        int found = 0;
+
+        // A query larger than the table would visit every bucket several times, scan the entries instead
+        long cellCount = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        if (cellCount > buckets.length) {
+            for (int handle = 0; handle < highWater; handle++) {
+                if (objects[handle] != null && matches(handle, x0, y0, x1, y1, radiusSquared, centerX, centerY)) {
+                    found++;
+                    if (out != null) {
+                        out.add((T) objects[handle]);
+                    } else {
+                        handles.add(handle);
+                    }
+                }
+            }
+            return found;
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int handle = buckets[bucket(cx, cy)]; handle != NONE; handle = next[handle]) {
+                    // Different cells can share a bucket, only report entries of the visited cell
+                    if (cellX[handle] == cx && cellY[handle] == cy
+                            && matches(handle, x0, y0, x1, y1, radiusSquared, centerX, centerY)) {
+                        found++;
+                        if (out != null) {
+                            out.add((T) objects[handle]);
+                        } else {
+                            handles.add(handle);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean matches(int handle, float x0, float y0, float x1, float y1, float radiusSquared, float centerX, float centerY) {
+        if (minX[handle] > x1 || maxX[handle] < x0 || minY[handle] > y1 || maxY[handle] < y0) {
+            return false;
+        }
+        if (Float.isNaN(radiusSquared)) {
+            return true;
+        }
+        // Distance from the circle centre to the closest point of the bounds
+        float dx = Math.max(minX[handle] - centerX, Math.max(0, centerX - maxX[handle]));
+        float dy = Math.max(minY[handle] - centerY, Math.max(0, centerY - maxY[handle]));
+        return dx * dx + dy * dy <= radiusSquared;
+    }
+
+    private void setBounds(int handle, float x, float y, float width, float height) {
+        minX[handle] = x;
+        minY[handle] = y;
+        maxX[handle] = x + width;
+        maxY[handle] = y + height;
+        if (width * 0.5f > maxHalfWidth) maxHalfWidth = width * 0.5f;
+        if (height * 0.5f > maxHalfHeight) maxHalfHeight = height * 0.5f;
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & bucketMask;
+    }
+
+    private void link(int handle, int bucket) {
+        int head = buckets[bucket];
+        next[handle] = head;
+        prev[handle] = NONE;
+        if (head != NONE) {
+            prev[head] = handle;
+        }
+        buckets[bucket] = handle;
+        bucketOf[handle] = bucket;
+    }
+
+    private void unlink(int handle) {
+        int before = prev[handle];
+        int after = next[handle];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            buckets[bucketOf[handle]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+
+    /**
+     * Moves every entry into a new bucket table of the given size, a power of two.
+     */
+    private void rehash(int bucketCount) {
+        buckets = new int[bucketCount];
+        Arrays.fill(buckets, NONE);
+        bucketMask = bucketCount - 1;
+        for (int handle = 0; handle < highWater; handle++) {
+            if (objects[handle] != null) {
+                link(handle, bucket(cellX[handle], cellY[handle]));
+            }
+        }
+    }
+
+    private void grow(int newCapacity) {
+        objects = objects == null ? new Object[newCapacity] : Arrays.copyOf(objects, newCapacity);
+        minX = copy(minX, newCapacity);
+        minY = copy(minY, newCapacity);
+        maxX = copy(maxX, newCapacity);
+        maxY = copy(maxY, newCapacity);
+        cellX = copy(cellX, newCapacity);
+        cellY = copy(cellY, newCapacity);
+        next = copy(next, newCapacity);
+        prev = copy(prev, newCapacity);
+        bucketOf = copy(bucketOf, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private static float[] copy(float[] array, int length) {
+        return array == null ? new float[length] : Arrays.copyOf(array, length);
+    }
+
+    private static int[] copy(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+}
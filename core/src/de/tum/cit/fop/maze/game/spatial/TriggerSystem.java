@@ -0,0 +1,158 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * Finds which actors touch which triggers, tick by tick, and reports every contact as it begins, lasts
+ * and ends. Triggers, like keys, collectables, traps or exits, are registered once in a
+ * {@link SpatialHash}; every tick each actor looks up the triggers under its bounds, so a tick costs
+ * about the number of actors plus the number of contacts, however many triggers the level holds.
+ * <p>
+ * A contact is a pair of an actor and a trigger handle packed into a long. The pairs of a tick are
+ * sorted and merged with those of the tick before, which tells new, continuing and ended contacts apart
+ * in a single pass and reports them in a fixed order. Nothing is allocated once the arrays have grown
+ * to the largest number of contacts.
+ *
+ * @param <T> The type of the triggers.
+ */
+public class TriggerSystem<T> {
+
+    /**
+     * Receives the contacts of a tick, ordered by actor and then by trigger handle. Triggers must not be
+     * added or removed from a handler.
+     */
+    public interface ContactHandler<T> {
+        /**
+         * The actor touches the trigger and did not in the tick before.
+         */
+        void enter(int actor, T trigger);
+
+        /**
+         * The actor still touches the trigger.
+         */
+        default void stay(int actor, T trigger) {
+        }
+
+        /**
+         * The actor touched the trigger in the tick before and no longer does.
+         */
+        default void exit(int actor, T trigger) {
+        }
+    }
+
+    private final SpatialHash<T> triggers;
+    private final IntArray found = new IntArray();
+    private LongArray contacts = new LongArray(); // Pairs of the last update, sorted
+    private LongArray touching = new LongArray(); // Pairs collected for the next update
+
+    /**
+     * @param cellSize        The cell size of the broadphase grid, about the size of the largest actor.
+     * @param initialCapacity The number of triggers to reserve space for.
+     */
+    public TriggerSystem(float cellSize, int initialCapacity) {
+        this.triggers = new SpatialHash<>(cellSize, initialCapacity);
+    }
+
+    /**
+     * Registers a trigger with fixed bounds.
+     *
+     * @return The handle to remove it with.
+     */
+    public int add(T trigger, float x, float y, float width, float height) {
+        return triggers.insert(trigger, x, y, width, height);
+    }
+
+    /**
+     * Moves a trigger, e.g. a trap that slides along a wall.
+     */
+    public void move(int handle, float x, float y, float width, float height) {
+        triggers.move(handle, x, y, width, height);
+    }
+
+    /**
+     * Unregisters a trigger. Its current contacts end without {@link ContactHandler#exit}.
+     */
+    public void remove(int handle) {
+        triggers.remove(handle);
+        removePairs(contacts, handle);
+        removePairs(touching, handle); // The handle may be reused before the next update
+    }
+
+    private static void removePairs(LongArray pairs, int handle) {
+        int kept = 0;
+        long[] items = pairs.items;
+        for (int i = 0; i < pairs.size; i++) {
+            if ((int) items[i] != handle) {
+                items[kept++] = items[i];
+            }
+        }
+        pairs.size = kept;
+    }
+
+    /**
+     * Unregisters all triggers and forgets all contacts without reporting them.
+     */
+    public void clear() {
+        triggers.clear();
+        contacts.clear();
+        touching.clear();
+    }
+
+    /**
+     * Looks up the triggers touching an actor in this tick. Call once for every actor, then {@link #update}.
+     *
+     * @param actor An id of the actor, from 0, that stays the same from tick to tick.
+     */
+    public void overlap(int actor, float x, float y, float width, float height) {
+        triggers.queryAabb(x, y, width, height, found);
+        for (int i = 0; i < found.size; i++) {
+            touching.add((long) actor << 32 | found.get(i));
+        }
+    }
+
+    /**
+     * Compares the contacts found since the last update with those before and reports the differences.
+     *
+     * @return The number of contacts in this tick.
+     */
+    public int update(ContactHandler<T> handler) {
+        LongArray current = touching;
+        current.sort();
+        long[] before = contacts.items;
+        long[] now = current.items;
+        int i = 0;
+        int j = 0;
+        while (i < contacts.size || j < current.size) {
+            if (j == current.size || i < contacts.size && before[i] < now[j]) {
+                handler.exit((int) (before[i] >>> 32), triggers.get((int) before[i]));
+                i++;
+            } else if (i == contacts.size || now[j] < before[i]) {
+                handler.enter((int) (now[j] >>> 32), triggers.get((int) now[j]));
+                j++;
+            } else {
+                handler.stay((int) (now[j] >>> 32), triggers.get((int) now[j]));
+                i++;
+                j++;
+            }
+        }
+        touching = contacts;
+        touching.clear();
+        contacts = current;
+        return current.size;
+    }
+
+    /**
+     * The number of registered triggers.
+     */
+    public int size() {
+        return triggers.size();
+    }
+
+    /**
+     * The number of contacts reported by the last update.
+     */
+    public int getContactCount() {
+        return contacts.size;
+    }
+}
@@ -3,19 +3,34 @@
 import com.badlogic.gdx.Graphics;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
 
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Maze Runner game.
  * It sets up the game window and launches the game using LibGDX framework.
  */
 public class DesktopLauncher {
+	private static final String JFR_FLAG = "--jfr";
+	private static final String DEFAULT_RECORDING = "maze-runner.jfr";
+	private static final String TICK_RATE_FLAG = "--tick-rate=";
+
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments: {@code --jfr} or {@code --jfr=<file>} records the session with
+	 *            Java Flight Recorder, by default to maze-runner.jfr in the working directory;
+	 *            {@code --tick-rate=<n>} runs the game logic at n ticks per second instead of 60
 	 */
 	public static void main(String[] arg) {
+		Recording recording = startRecording(arg);
+
 		// Configuration for the game window
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setTitle("Maze Runner"); // Set the window title
@@ -31,6 +46,58 @@ public static void main(String[] arg) {
 		config.setForegroundFPS(60); // Set the foreground frames per second
 
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		try {
+			new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser(), tickRate(arg)), config);
+		} finally {
+			if (recording != null) {
+				recording.stop(); // Writes the recording to its destination
+				recording.close();
+			}
+		}
+	}
+
+	/**
+	 * The tick rate given with the flag, or the default rate without it.
+	 */
+	private static int tickRate(String[] arg) {
+		for (String argument : arg) {
+			if (argument.startsWith(TICK_RATE_FLAG)) {
+				int ticksPerSecond = Integer.parseInt(argument.substring(TICK_RATE_FLAG.length()));
+				if (ticksPerSecond <= 0) {
+					throw new IllegalArgumentException("The tick rate must be positive: " + argument);
+				}
+				return ticksPerSecond;
+			}
+		}
+		return GameSimulation.DEFAULT_TICKS_PER_SECOND;
+	}
+
+	/**
+	 * Starts a recording with the JDK's "profile" settings if the flag is given. The game's own events
+	 * (frames, ticks, level loads, collision bakes, path searches and asset uploads) are enabled by default.
+	 *
+	 * @return The running recording, or null without the flag or if it could not be started.
+	 */
+	private static Recording startRecording(String[] arg) {
+		for (String argument : arg) {
+			if (!argument.equals(JFR_FLAG) && !argument.startsWith(JFR_FLAG + "=")) {
+				continue;
+			}
+			String file = argument.length() > JFR_FLAG.length() + 1
+					? argument.substring(JFR_FLAG.length() + 1) : DEFAULT_RECORDING;
+			try {
+				Recording recording = new Recording(Configuration.getConfiguration("profile"));
+				recording.setName("Maze Runner");
+				recording.setDestination(Path.of(file));
+				recording.setDumpOnExit(true); // Also written if the game exits without returning here
+				recording.start();
+				System.out.println("Recording with Flight Recorder to " + Path.of(file).toAbsolutePath());
+				return recording;
+			} catch (IOException | ParseException e) {
+				System.err.println("Could not start the Flight Recorder recording: " + e);
+				return null;
+			}
+		}
+		return null;
 	}
 }
@@ -0,0 +1,164 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.com.game.utils.AssetCache;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+import de.tum.cit.fop.maze.game.objects.GameState;
+import de.tum.cit.fop.maze.game.objects.Player;
+import de.tum.cit.fop.maze.game.physics.CollisionEngine;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.InputSource;
+import de.tum.cit.fop.maze.game.simulation.ScriptedInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the game logic without a window or GPU, on the libGDX headless backend.
+ * The headless backend provides files, natives and a mock input, but no OpenGL; a GL that ignores
+ * every call is installed instead, so textures and animations can still be created by the game objects
+ * (their images are decoded, nothing is uploaded).
+ */
+public final class HeadlessGame {
+	// Enough hearts that no run ends in game over, so every tick does the full amount of work
+	public static final int IMMORTAL_LIVES = 1_000_000_000;
+
+	private static final int[] WANDER_KEYS = {Input.Keys.RIGHT, Input.Keys.UP, Input.Keys.LEFT, Input.Keys.DOWN};
+
+	private static HeadlessApplication application;
+
+	private HeadlessGame() {
+	}
+
+	/**
+	 * Starts the headless backend and loads the sprite atlas. Does nothing if it is already running.
+	 */
+	public static synchronized void start() {
+		if (application != null) {
+			return;
+		}
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.updatesPerSecond = -1; // No render loop, the simulation is stepped by the caller
+		application = new HeadlessApplication(new ApplicationAdapter() {
+		}, config);
+		Gdx.gl = Gdx.gl20 = createNoopGL();
+		AssetCache.loadAtlas();
+	}
+
+	/**
+	 * Loads a level the way the GameScreen does, with the walls baked from the level grid.
+	 *
+	 * @param levelFile The maps/level-N.properties file of the level.
+	 * @param input     The input source the player reads its keys from.
+	 * @return The simulation; dispose it and its player when done.
+	 */
+	public static GameSimulation loadLevel(FileHandle levelFile, InputSource input) {
+		return loadLevel(levelFile, input, CollisionEngine.Type.BOX2D);
+	}
+
+	/**
+	 * Loads a level the way the GameScreen does, with the walls baked from the level grid.
+	 *
+	 * @param levelFile  The maps/level-N.properties file of the level.
+	 * @param input      The input source the player reads its keys from.
+	 * @param collisions The engine that stops everything at the walls.
+	 * @return The simulation; dispose it and its player when done.
+	 */
+	public static GameSimulation loadLevel(FileHandle levelFile, InputSource input, CollisionEngine.Type collisions) {
+		return loadLevel(levelFile, input, collisions, GameSimulation.DEFAULT_TICKS_PER_SECOND);
+	}
+
+	/**
+	 * Loads a level the way the GameScreen does, with the walls baked from the level grid.
+	 *
+	 * @param levelFile      The maps/level-N.properties file of the level.
+	 * @param input          The input source the player reads its keys from.
+	 * @param collisions     The engine that stops everything at the walls.
+	 * @param ticksPerSecond The simulation rate.
+	 * @return The simulation; dispose it and its player when done.
+	 */
+	public static GameSimulation loadLevel(FileHandle levelFile, InputSource input, CollisionEngine.Type collisions,
+			int ticksPerSecond) {
+		MapGrid grid;
+		try (InputStream in = levelFile.read()) {
+			grid = new MapGridParser().parse(in);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Could not load level grid " + levelFile, e);
+		}
+
+		Player player = new Player(100, 100, 32, 32, null);
+		player.setInputSource(input);
+		GameSimulation simulation = new GameSimulation(player, new GameState(9, 5, 2), ForkJoinPool.commonPool(),
+				collisions, ticksPerSecond);
+		simulation.getCollisions().addWalls(MazeLoader.bakeWalls(grid), GameSimulation.TILE_SIZE,
+				GameSimulation.TILE_SIZE);
+		simulation.loadLevel(grid, levelNumber(levelFile));
+		return simulation;
+	}
+
+	/**
+	 * The N of a maps/level-N.properties file, or 0 for a file named otherwise.
+	 */
+	private static int levelNumber(FileHandle levelFile) {
+		String name = levelFile.nameWithoutExtension();
+		try {
+			return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Simulates ticks while the player walks in a square, turning every simulated second.
+	 * The walk only depends on the tick count, so runs with the same level are deterministic.
+	 *
+	 * @param simulation The simulation whose player reads from {@code input}.
+	 * @param input      The input of the player.
+	 * @param ticks      The number of ticks to simulate.
+	 */
+	public static void wander(GameSimulation simulation, ScriptedInput input, int ticks) {
+		for (int i = 0; i < ticks; i++) {
+			long tick = simulation.getTickCount();
+			input.releaseAll();
+			input.press(WANDER_KEYS[(int) (tick / simulation.getTicksPerSecond() % WANDER_KEYS.length)]);
+			simulation.runTicks(1);
+		}
+	}
+
+	/**
+	 * Stops the headless backend.
+	 */
+	public static synchronized void stop() {
+		if (application != null) {
+			AssetCache.disposeAll();
+			application.exit();
+			application = null;
+		}
+	}
+
+	/**
+	 * GL20 that does nothing: every call returns 0, false or null.
+	 */
+	private static GL20 createNoopGL() {
+		return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+				(proxy, method, args) -> {
+					Class<?> type = method.getReturnType();
+					if (type == boolean.class) return false;
+					if (type == int.class) return 0;
+					if (type == float.class) return 0f;
+					if (type == long.class) return 0L;
+					if (type == String.class) return "";
+					return null;
+				});
+	}
+}
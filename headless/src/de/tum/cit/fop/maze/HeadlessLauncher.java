@@ -0,0 +1,54 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+import de.tum.cit.fop.maze.game.simulation.ScriptedInput;
+
+/**
+ * The HeadlessLauncher runs the game logic of every level without a window and reports
+ * how many simulation ticks per second it reaches.
+ */
+public class HeadlessLauncher {
+	private static final int LEVEL_COUNT = 5;
+	private static final int DEFAULT_TICKS = GameSimulation.DEFAULT_TICKS_PER_SECOND * 60 * 10; // Ten minutes of play
+
+	/**
+	 * Simulates every level for the given number of ticks.
+	 * Must run with the assets folder as working directory, like the desktop game.
+	 *
+	 * @param arg Optional: the number of ticks per level, followed by the level numbers to run.
+	 */
+	public static void main(String[] arg) {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : DEFAULT_TICKS;
+		int[] levels = new int[arg.length > 1 ? arg.length - 1 : LEVEL_COUNT];
+		for (int i = 0; i < levels.length; i++) {
+			levels[i] = arg.length > 1 ? Integer.parseInt(arg[i + 1]) : i + 1;
+		}
+
+		HeadlessGame.start();
+		try {
+			for (int level : levels) {
+				ScriptedInput input = new ScriptedInput();
+				GameSimulation simulation = HeadlessGame.loadLevel(
+						Gdx.files.internal("../maps/level-" + level + ".properties"), input);
+				simulation.getPlayer().addLives(HeadlessGame.IMMORTAL_LIVES);
+
+				// Warm up the JIT before measuring
+				HeadlessGame.wander(simulation, input, Math.min(ticks, simulation.getTicksPerSecond() * 10));
+
+				long start = System.nanoTime();
+				HeadlessGame.wander(simulation, input, ticks);
+				double seconds = (System.nanoTime() - start) / 1e9;
+				double ticksPerSecond = ticks / seconds;
+				System.out.printf("level-%d: %d ticks in %.1f ms, %.0f ticks/s (%.0fx real time), %d mobs%n",
+						level, ticks, seconds * 1000, ticksPerSecond,
+						ticksPerSecond / simulation.getTicksPerSecond(), simulation.getMobs().size());
+
+				simulation.dispose();
+				simulation.getPlayer().dispose();
+			}
+		} finally {
+			HeadlessGame.stop();
+		}
+	}
+}
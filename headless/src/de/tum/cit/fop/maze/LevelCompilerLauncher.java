@@ -0,0 +1,62 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import de.tum.cit.fop.maze.game.map.CompiledLevel;
+import de.tum.cit.fop.maze.game.map.LevelCompiler;
+import de.tum.cit.fop.maze.game.map.MapGrid;
+import de.tum.cit.fop.maze.game.map.MapGridParser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The LevelCompilerLauncher compiles every level, its .tmx map and its level-N.properties file,
+ * into the maps/level-N.mzl blob that the MazeLoader loads without parsing.
+ * Run it again after editing a level; the game falls back to the sources while a blob is missing
+ * or was compiled from other versions of them.
+ */
+public class LevelCompilerLauncher {
+	private static final int LEVEL_COUNT = 5;
+
+	/**
+	 * Must run with the assets folder as working directory, like the desktop game.
+	 *
+	 * @param arg Optional: the level numbers to compile.
+	 */
+	public static void main(String[] arg) throws IOException {
+		int[] levels = new int[arg.length > 0 ? arg.length : LEVEL_COUNT];
+		for (int i = 0; i < levels.length; i++) {
+			levels[i] = arg.length > 0 ? Integer.parseInt(arg[i]) : i + 1;
+		}
+
+		HeadlessGame.start();
+		try {
+			LevelCompiler compiler = new LevelCompiler();
+			MapGridParser parser = new MapGridParser();
+			for (int level : levels) {
+				FileHandle gridFile = Gdx.files.internal("../maps/level-" + level + ".properties");
+				FileHandle tmxFile = Gdx.files.internal("level" + level + "-" + level + ".tmx");
+				MapGrid grid;
+				try (InputStream in = gridFile.read()) {
+					grid = parser.parse(in);
+				}
+				TiledMap map = new TmxMapLoader().load(tmxFile.path());
+				long sourceHash = CompiledLevel.hashSources(tmxFile.readBytes(), gridFile.readBytes());
+				FileHandle output = Gdx.files.local("../maps/level-" + level + ".mzl");
+				try (OutputStream out = new BufferedOutputStream(output.write(false))) {
+					compiler.compile(grid, map, sourceHash, out);
+				} finally {
+					map.dispose();
+				}
+				System.out.printf("level-%d: %d bytes written to %s%n", level, output.length(), output.path());
+			}
+		} finally {
+			HeadlessGame.stop();
+		}
+	}
+}
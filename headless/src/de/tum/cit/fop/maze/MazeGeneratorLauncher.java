@@ -0,0 +1,80 @@
+package de.tum.cit.fop.maze;
+
+import de.tum.cit.fop.maze.game.map.generator.FeaturePlacer;
+import de.tum.cit.fop.maze.game.map.generator.MazeAlgorithm;
+import de.tum.cit.fop.maze.game.map.generator.MazeRowSink;
+import de.tum.cit.fop.maze.game.map.generator.PackedGridFormat;
+import de.tum.cit.fop.maze.game.map.generator.PropertiesWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The MazeGeneratorLauncher writes a generated level as level-N.properties text and in the packed
+ * binary form next to it. Eller's algorithm streams the rows straight to the files, so very large
+ * mazes need no more memory than a few rows.
+ */
+public class MazeGeneratorLauncher {
+	private static final double TRAP_CHANCE = 0.02;
+	private static final double ENEMY_CHANCE = 0.01;
+	private static final double KEY_CHANCE = 0.002;
+
+	/**
+	 * @param arg The algorithm (backtracker, wilson or eller), the number of cell columns and rows,
+	 *            the seed and the output path without extension.
+	 */
+	public static void main(String[] arg) throws IOException {
+		if (arg.length != 5) {
+			System.err.println("Usage: <backtracker|wilson|eller> <columns> <rows> <seed> <output>");
+			System.exit(1);
+		}
+		MazeAlgorithm algorithm = MazeAlgorithm.byName(arg[0]);
+		int columns = Integer.parseInt(arg[1]);
+		int rows = Integer.parseInt(arg[2]);
+		long seed = Long.parseLong(arg[3]);
+
+		long start = System.nanoTime();
+		try (OutputStream text = new BufferedOutputStream(new FileOutputStream(arg[4] + ".properties"));
+			 OutputStream packed = new BufferedOutputStream(new FileOutputStream(arg[4] + ".grid"))) {
+			MazeRowSink both = new Tee(new PropertiesWriter(text), new PackedGridFormat.Writer(packed));
+			algorithm.create().generate(columns, rows, seed,
+					new FeaturePlacer(both, seed, TRAP_CHANCE, ENEMY_CHANCE, KEY_CHANCE));
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%s: %dx%d cells in %.1f ms, %.0f cells/s%n", algorithm, columns, rows,
+				seconds * 1000, (double) columns * rows / seconds);
+	}
+
+	/**
+	 * Passes every row on to two sinks.
+	 */
+	private static class Tee implements MazeRowSink {
+		private final MazeRowSink first;
+		private final MazeRowSink second;
+
+		Tee(MazeRowSink first, MazeRowSink second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public void begin(int width, int height) throws IOException {
+			first.begin(width, height);
+			second.begin(width, height);
+		}
+
+		@Override
+		public void row(int y, byte[] tiles) throws IOException {
+			first.row(y, tiles);
+			second.row(y, tiles);
+		}
+
+		@Override
+		public void end() throws IOException {
+			first.end();
+			second.end();
+		}
+	}
+}
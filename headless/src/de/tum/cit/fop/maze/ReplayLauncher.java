@@ -0,0 +1,82 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.game.replay.ReplayLog;
+import de.tum.cit.fop.maze.game.replay.ReplayPlayback;
+import de.tum.cit.fop.maze.game.simulation.GameSimulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The ReplayLauncher plays back a replay recorded in the game (F5) without a window, either as fast as
+ * the ticks run or in real time, and reports whether the run ended in the recorded state. The simulation
+ * runs at the recorded tick rate, since the same input leads elsewhere at another rate.
+ * It exits with status 1 if the replay diverged, so it can check a change for regressions in a script.
+ */
+public class ReplayLauncher {
+
+	/**
+	 * Must run with the assets folder as working directory, like the desktop game.
+	 *
+	 * @param arg The replay file, optionally followed by --realtime to play at the recorded tick rate.
+	 */
+	public static void main(String[] arg) {
+		if (arg.length < 1) {
+			System.err.println("Usage: ReplayLauncher <replay.mzr> [--realtime]");
+			System.exit(2);
+		}
+		boolean realtime = arg.length > 1 && arg[1].equals("--realtime");
+
+		HeadlessGame.start();
+		boolean matches;
+		try {
+			ReplayLog log = readLog(new FileHandle(arg[0]));
+			ReplayPlayback playback = new ReplayPlayback(log);
+			GameSimulation simulation = HeadlessGame.loadLevel(Gdx.files.internal(log.getLevel()), playback,
+					log.getCollisionEngine(), log.getTicksPerSecond());
+			simulation.setTickListener(playback);
+
+			long start = System.nanoTime();
+			if (realtime) {
+				long tickNanos = 1_000_000_000L / log.getTicksPerSecond();
+				long nextTick = start;
+				while (!playback.isFinished()) {
+					simulation.runTicks(1);
+					nextTick += tickNanos;
+					LockSupport.parkNanos(nextTick - System.nanoTime());
+				}
+			} else {
+				while (!playback.isFinished()) {
+					simulation.runTicks((int) Math.min(Integer.MAX_VALUE, playback.getRemainingTicks()));
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			matches = playback.matchesRecording(simulation);
+			System.out.printf("%s (%s): %d ticks in %.1f ms (%.0fx real time), %s%n", log.getLevel(),
+					log.getCollisionEngine(), log.getTickCount(), seconds * 1000,
+					log.getTickCount() / (double) log.getTicksPerSecond() / seconds,
+					matches ? "same state as recorded" : "DIVERGED from the recording");
+
+			simulation.dispose();
+			simulation.getPlayer().dispose();
+		} finally {
+			HeadlessGame.stop();
+		}
+		if (!matches) {
+			System.exit(1);
+		}
+	}
+
+	private static ReplayLog readLog(FileHandle file) {
+		try (InputStream in = file.read()) {
+			return ReplayLog.read(in);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Could not read replay " + file, e);
+		}
+	}
+}